@@ -0,0 +1,142 @@
+package com.example.orders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file with a stored baseline and exits non-zero when any benchmark is
+ * worse than {@code tolerance} (a fraction): lower throughput or higher average time. A change
+ * only counts when the two runs' confidence intervals do not overlap, so noisy benchmarks need
+ * a clear shift to fail.
+ * Benchmarks missing from the baseline are reported but never fail the check.
+ * <p>
+ * A baseline whose error is more than {@code maxError} (a fraction) of its score can hardly ever
+ * be separated from a new run, so such benchmarks are flagged as {@code NOISY} instead of being
+ * passed silently: re-record them with more forks and iterations on a quieter machine.
+ * <p>
+ * The baseline keeps only benchmark, mode, params, score and error per run, not JMH's full dump
+ * with its machine-specific paths. It is written from the result when it does not exist yet, or
+ * when {@code accept} is {@code true}.
+ * <p>Usage: {@code JmhBaselineCheck <result.json> <baseline.json> [tolerance] [accept] [maxError]}
+ */
+public final class JmhBaselineCheck {
+
+  private static final ObjectMapper JSON = new ObjectMapper();
+
+  /** One run: the score and its error, in the unit and direction of {@code mode}. */
+  private record Run(String mode, double score, double error) {
+
+    boolean noisy(double maxError) {
+      return error > score * maxError;
+    }
+  }
+
+  private JmhBaselineCheck() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("usage: JmhBaselineCheck <result.json> <baseline.json> [tolerance] [accept] [maxError]");
+      System.exit(2);
+    }
+    JsonNode resultFile = JSON.readTree(Path.of(args[0]).toFile());
+    Path baselineFile = Path.of(args[1]);
+    boolean accept = args.length > 3 && Boolean.parseBoolean(args[3]);
+    double maxError = args.length > 4 ? Double.parseDouble(args[4]) : 0.1;
+    if (!Files.exists(baselineFile) || accept) {
+      JSON.writerWithDefaultPrettyPrinter().writeValue(baselineFile.toFile(), compact(resultFile));
+      System.out.println("Wrote baseline " + baselineFile + " from " + args[0]);
+      warnNoisy(read(resultFile), maxError);
+      return;
+    }
+    double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.2;
+    Map<String, Run> results = read(resultFile);
+    Map<String, Run> baseline = read(JSON.readTree(baselineFile.toFile()));
+
+    int regressions = 0;
+    System.out.printf("%-60s %14s %14s %8s%n", "benchmark", "baseline", "current", "change");
+    for (Map.Entry<String, Run> result : results.entrySet()) {
+      Run current = result.getValue();
+      Run before = baseline.get(result.getKey());
+      if (before == null) {
+        System.out.printf("%-60s %14s %14.3f %8s%n", result.getKey(), "-", current.score(), "new");
+        continue;
+      }
+      boolean throughput = "thrpt".equals(current.mode());
+      // Positive change is always "better", whichever direction the mode counts in.
+      double change = throughput ? current.score() / before.score() - 1 : before.score() / current.score() - 1;
+      boolean separated = throughput
+          ? current.score() + current.error() < before.score() - before.error()
+          : current.score() - current.error() > before.score() + before.error();
+      boolean regressed = change < -tolerance && separated;
+      regressions += regressed ? 1 : 0;
+      System.out.printf("%-60s %14.3f %14.3f %+7.1f%%%s%n", result.getKey(), before.score(), current.score(),
+          change * 100, regressed ? "  REGRESSION" : before.noisy(maxError) ? "  NOISY" : "");
+    }
+    warnNoisy(baseline, maxError);
+    if (regressions > 0) {
+      System.err.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, tolerance * 100);
+      System.exit(1);
+    }
+  }
+
+  private static void warnNoisy(Map<String, Run> baseline, double maxError) {
+    long noisy = baseline.values().stream().filter(run -> run.noisy(maxError)).count();
+    if (noisy > 0) {
+      System.err.printf("WARNING: %d of %d baseline benchmark(s) have an error above %.0f%% of their score;"
+          + " regressions in them can go undetected%n", noisy, baseline.size(), maxError * 100);
+      baseline.forEach((key, run) -> {
+        if (run.noisy(maxError)) {
+          System.err.printf("  %s: %.3f +/- %.3f%n", key, run.score(), run.error());
+        }
+      });
+    }
+  }
+
+  /** Runs by benchmark, mode and params; reads both JMH's result format and the compact baseline. */
+  private static Map<String, Run> read(JsonNode runs) {
+    Map<String, Run> byKey = new LinkedHashMap<>();
+    for (JsonNode run : runs) {
+      byKey.put(key(run), run(run));
+    }
+    return byKey;
+  }
+
+  private static Run run(JsonNode run) {
+    boolean jmh = run.has("primaryMetric");
+    JsonNode metric = jmh ? run.get("primaryMetric") : run;
+    double error = metric.path(jmh ? "scoreError" : "error").asDouble();
+    return new Run(run.get("mode").asText(), metric.get("score").asDouble(), Double.isNaN(error) ? 0 : error);
+  }
+
+  private static ArrayNode compact(JsonNode results) {
+    ArrayNode baseline = JSON.createArrayNode();
+    for (JsonNode result : results) {
+      Run run = run(result);
+      ObjectNode entry = baseline.addObject()
+          .put("benchmark", shortName(result))
+          .put("mode", run.mode());
+      if (result.has("params")) {
+        entry.set("params", result.get("params"));
+      }
+      entry.put("score", run.score()).put("error", run.error());
+    }
+    return baseline;
+  }
+
+  private static String key(JsonNode run) {
+    return shortName(run) + " " + run.get("mode").asText() + (run.has("params") ? " " + run.get("params") : "");
+  }
+
+  private static String shortName(JsonNode run) {
+    return run.get("benchmark").asText().replace(JmhBaselineCheck.class.getPackageName() + ".", "");
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.orders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** JSON cost alone: the bodies {@link OrdersStubServer} serves, through the client's {@link OrdersJson} mapper. */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderCodecJmh {
+
+  private static final ObjectMapper MAPPER = OrdersJson.objectMapper();
+  private static final ObjectReader ORDER = MAPPER.readerFor(Order.class);
+  private static final ObjectReader MAP = MAPPER.readerFor(Map.class);
+  private static final ObjectReader ORDER_LIST = MAPPER.readerForListOf(Order.class);
+  private static final ObjectReader MAP_LIST = MAPPER.readerForListOf(Map.class);
+
+  private final byte[] order = OrdersStubServer.ORDER.getBytes(StandardCharsets.UTF_8);
+  private final byte[] list = OrderDecodingBenchmark.ordersArray(20);
+  private final OrderCreate create = new OrderCreate("Bob", List.of(new Item("SKU1", 2, 50.0)));
+
+  @Benchmark
+  public Order decodeOrder() throws IOException {
+    return ORDER.readValue(order);
+  }
+
+  @Benchmark
+  public Map decodeOrderMap() throws IOException {
+    return MAP.readValue(order);
+  }
+
+  @Benchmark
+  public List<Order> decodeOrderList() throws IOException {
+    return ORDER_LIST.readValue(list);
+  }
+
+  @Benchmark
+  public List<Map> decodeOrderMapList() throws IOException {
+    return MAP_LIST.readValue(list);
+  }
+
+  @Benchmark
+  public byte[] encodeOrderCreate() throws IOException {
+    return MAPPER.writeValueAsBytes(create);
+  }
+}
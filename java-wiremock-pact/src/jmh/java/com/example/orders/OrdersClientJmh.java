@@ -0,0 +1,103 @@
+package com.example.orders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per {@link OrdersClient} operation against {@link OrdersStubServer}, end to end
+ * (transport + codec). {@link #transportOnly} fetches the same order without decoding it, so
+ * {@code findOrder - transportOnly} is the decode share; {@link OrderCodecJmh} isolates it further.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrdersClientJmh {
+
+  private static final OrderCreate CREATE = new OrderCreate("Bob", List.of(new Item("SKU1", 2, 50.0)));
+  private static final OrderUpdate UPDATE = new OrderUpdate("Alice", Order.Status.PROCESSING);
+  private static final Map<String, Object> CREATE_MAP = Map.of("customerName", "Bob",
+      "items", List.of(Map.of("sku", "SKU1", "qty", 2, "unitPrice", 50.0)));
+
+  private OrdersStubServer server;
+  private OrdersClient client;
+  private WebClient raw;
+
+  @Setup(Level.Trial)
+  public void start() {
+    server = new OrdersStubServer(20);
+    OrdersClientProperties properties = new OrdersClientProperties();
+    properties.setBaseUrl(server.baseUrl());
+    client = new OrdersClient(WebClient.builder(), properties);
+    raw = WebClient.builder().baseUrl(server.baseUrl()).clientConnector(client.pool().connector()).build();
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    client.destroy();
+    server.close();
+  }
+
+  @Benchmark
+  public Object transportOnly() {
+    return raw.get().uri("/orders/{id}", 1).accept(MediaType.APPLICATION_JSON)
+        .retrieve().toBodilessEntity().block();
+  }
+
+  @Benchmark
+  public Order findOrder() {
+    return client.findOrder(1).block();
+  }
+
+  @Benchmark
+  public Map getOrder() {
+    return client.getOrder(1).block();
+  }
+
+  @Benchmark
+  public List<Order> findOrders() {
+    return client.findOrders(null).block();
+  }
+
+  @Benchmark
+  public List<Map> listOrders() {
+    return client.listOrders(null).block();
+  }
+
+  @Benchmark
+  public Order createOrder() {
+    return client.createOrder(CREATE).block();
+  }
+
+  @Benchmark
+  public Map createOrderMap() {
+    return client.createOrder(CREATE_MAP).block();
+  }
+
+  @Benchmark
+  public Order putOrder() {
+    return client.putOrder(1, UPDATE).block();
+  }
+
+  @Benchmark
+  public Order patchOrder() {
+    return client.patchOrder(1, OrderUpdate.status(Order.Status.COMPLETED)).block();
+  }
+
+  @Benchmark
+  public Object deleteOrder() {
+    return client.deleteOrder(1).block();
+  }
+}
@@ -0,0 +1,57 @@
+package com.example.orders;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.NettyOutbound;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal in-process provider for benchmarks: fixed JSON bodies from a Reactor Netty server, so
+ * the measured cost is the client's rather than a mock's request matching.
+ */
+final class OrdersStubServer implements AutoCloseable {
+
+  static final String ORDER = """
+      {"id":1,"customerName":"Alice","status":"PROCESSING","totalAmount":120.5}""";
+
+  private final DisposableServer server;
+
+  OrdersStubServer(int listSize) {
+    byte[] order = ORDER.getBytes(StandardCharsets.UTF_8);
+    byte[] list = OrderDecodingBenchmark.ordersArray(listSize);
+    this.server = HttpServer.create()
+        .host("127.0.0.1")
+        .port(0)
+        .route(routes -> routes
+            .get("/orders", (request, response) -> json(response.status(HttpResponseStatus.OK), list))
+            .post("/orders", (request, response) -> request.receive().then(
+                json(response.status(HttpResponseStatus.CREATED), order).then()))
+            .get("/orders/{id}", (request, response) -> json(response.status(HttpResponseStatus.OK), order))
+            .put("/orders/{id}", (request, response) -> request.receive().then(
+                json(response.status(HttpResponseStatus.OK), order).then()))
+            .route(request -> request.method().name().equals("PATCH"), (request, response) -> request.receive().then(
+                json(response.status(HttpResponseStatus.OK), order).then()))
+            .delete("/orders/{id}", (request, response) -> response.status(HttpResponseStatus.NO_CONTENT).send()))
+        .bindNow();
+  }
+
+  private static NettyOutbound json(HttpServerResponse response, byte[] body) {
+    return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+        .header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(body.length))
+        .sendByteArray(Mono.just(body));
+  }
+
+  String baseUrl() {
+    return "http://127.0.0.1:" + server.port();
+  }
+
+  @Override
+  public void close() {
+    server.disposeNow();
+  }
+}
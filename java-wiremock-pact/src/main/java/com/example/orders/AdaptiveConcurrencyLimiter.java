@@ -0,0 +1,109 @@
+package com.example.orders;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vegas-style adaptive limit on requests in flight to the Orders provider, applied as a
+ * {@code WebClient} filter so it covers every operation, including each hedged attempt.
+ * <p>
+ * Every response yields an RTT sample (request sent until response headers arrive). Comparing it
+ * with the lowest RTT seen so far estimates how many requests are queued at the provider: while
+ * that queue is short the limit grows, once it builds up the limit shrinks, and timeouts,
+ * 429 and 503 cut it multiplicatively. Requests over the limit fail immediately with
+ * {@link OrdersOverloadedException} instead of queueing on the client. A request counts as in
+ * flight until its response body has been read, so slow streams stay under the limit.
+ */
+public class AdaptiveConcurrencyLimiter implements ExchangeFilterFunction {
+
+  private static final double ALPHA = 3;
+  private static final double BETA = 6;
+  private static final double BACKOFF = 0.9;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder rejected = new LongAdder();
+  private volatile double limit;
+  private long rttNoLoadNanos;
+
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+    this.limit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+  }
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    return Mono.defer(() -> {
+      int current = limit();
+      if (inFlight.incrementAndGet() > current) {
+        inFlight.decrementAndGet();
+        rejected.increment();
+        return Mono.error(new OrdersOverloadedException(current));
+      }
+      long start = System.nanoTime();
+      Mono<ClientResponse> exchange = next.exchange(request)
+          .doOnNext(response -> onSample(System.nanoTime() - start, isOverload(response.statusCode())))
+          .doOnError(error -> onSample(System.nanoTime() - start, isTimeout(error)));
+      // the slot is held until the body is read, as the response keeps its connection until then
+      return ResponseBodies.whenBodyDone(exchange, inFlight::decrementAndGet);
+    });
+  }
+
+  public int limit() {
+    return (int) limit;
+  }
+
+  public int inFlight() {
+    return inFlight.get();
+  }
+
+  /** Requests shed with {@link OrdersOverloadedException}. */
+  public long rejectedCount() {
+    return rejected.sum();
+  }
+
+  private synchronized void onSample(long rttNanos, boolean dropped) {
+    double current = limit;
+    if (dropped) {
+      limit = Math.max(minLimit, current * BACKOFF);
+      return;
+    }
+    if (rttNoLoadNanos == 0 || rttNanos < rttNoLoadNanos) {
+      rttNoLoadNanos = rttNanos;
+    }
+    double queued = current * (1 - (double) rttNoLoadNanos / rttNanos);
+    double step = Math.max(1, Math.log10(current));
+    if (queued < ALPHA * step) {
+      // only grow while the limit is actually being used, so an idle client does not drift up
+      if (inFlight.get() * 2 >= current) {
+        limit = Math.min(maxLimit, current + step);
+      }
+    } else if (queued > BETA * step) {
+      limit = Math.max(minLimit, current - step);
+    }
+  }
+
+  private static boolean isOverload(HttpStatusCode status) {
+    return status.isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE) || status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+  }
+
+  private static boolean isTimeout(Throwable error) {
+    for (Throwable t = error; t != null; t = t.getCause()) {
+      if (t instanceof TimeoutException || t instanceof io.netty.handler.timeout.TimeoutException) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,27 @@
+package com.example.orders;
+
+import org.springframework.core.codec.CodecException;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Typed view of {@code components/schemas/Error} in {@code openapi/orders.yaml}.
+ */
+public record ApiError(String code, String message) {
+
+  /**
+   * Decodes the provider's error body, or returns {@code null} when the response had none or it
+   * is not a JSON error, such as a proxy's HTML error page.
+   */
+  public static ApiError from(WebClientResponseException ex) {
+    MediaType type = ex.getHeaders().getContentType();
+    if (ex.getResponseBodyAsByteArray().length == 0 || type == null || !type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+      return null;
+    }
+    try {
+      return ex.getResponseBodyAs(ApiError.class);
+    } catch (CodecException | IllegalStateException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package com.example.orders;
+
+import reactor.core.publisher.Mono;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Synchronous facade over {@link OrdersClient} for imperative callers.
+ * <p>
+ * Every call parks the calling thread until the response has been decoded. On a Java 21 virtual
+ * thread that costs a few hundred bytes of heap, because the thread unmounts from its carrier
+ * while it waits; on a platform thread it pins a whole OS thread. Run callers on
+ * {@link #newCallerExecutor(int)}, which is virtual-thread-per-task whenever the runtime supports
+ * it. The modules compile for Java 17, so that executor is looked up reflectively, with a fixed
+ * platform pool as the fallback.
+ * <p>
+ * Cheap threads make it easy to start far more calls than the connection pool can serve. A
+ * semaphore therefore caps calls in flight at {@code maxConcurrency}. Callers beyond that wait
+ * up to {@code acquireTimeout} and then fail with {@link OrdersOverloadedException}, so they
+ * never queue without bound.
+ */
+public class BlockingOrdersClient {
+
+  private static final MethodHandle VIRTUAL_EXECUTOR = virtualExecutorFactory();
+
+  private final OrdersClient client;
+  private final Semaphore permits;
+  private final int maxConcurrency;
+  private final Duration acquireTimeout;
+
+  public BlockingOrdersClient(OrdersClient client) {
+    this(client, 1_000, Duration.ofSeconds(10));
+  }
+
+  public BlockingOrdersClient(OrdersClient client, int maxConcurrency, Duration acquireTimeout) {
+    this.client = client;
+    this.permits = new Semaphore(maxConcurrency);
+    this.maxConcurrency = maxConcurrency;
+    this.acquireTimeout = acquireTimeout;
+  }
+
+  /** {@code true} when the running JVM has virtual threads (Java 21+). */
+  public static boolean virtualThreadsAvailable() {
+    return VIRTUAL_EXECUTOR != null;
+  }
+
+  /**
+   * An executor for code that calls this client: one virtual thread per task on Java 21+, else a
+   * pool of {@code platformThreads}.
+   */
+  public static ExecutorService newCallerExecutor(int platformThreads) {
+    if (VIRTUAL_EXECUTOR != null) {
+      try {
+        return (ExecutorService) VIRTUAL_EXECUTOR.invokeExact();
+      } catch (Throwable e) {
+        throw new IllegalStateException("Cannot create a virtual-thread executor", e);
+      }
+    }
+    return Executors.newFixedThreadPool(platformThreads);
+  }
+
+  /** Calls currently holding a permit. */
+  public int inFlight() {
+    return maxConcurrency - permits.availablePermits();
+  }
+
+  public List<Order> findOrders(String status) {
+    return call(client.findOrders(status));
+  }
+
+  public <V extends OrderView> List<V> findOrders(String status, Class<V> view) {
+    return call(client.findOrders(status, view));
+  }
+
+  /**
+   * Streams every order page by page; pages are fetched as the stream is consumed. The stream
+   * holds a permit until the last page has arrived or the stream is closed, so close it (or use
+   * try-with-resources) when not reading it to the end.
+   */
+  public Stream<Order> pageOrders(String status) {
+    acquire();
+    AtomicBoolean held = new AtomicBoolean(true);
+    Runnable release = () -> {
+      if (held.getAndSet(false)) {
+        permits.release();
+      }
+    };
+    try {
+      // released before the stream sees the end, so a caller that read to the end can call again;
+      // toStream(1) leaves read-ahead to pageOrders instead of buffering 256 orders
+      return client.pageOrders(status).doOnTerminate(release).doOnCancel(release).toStream(1);
+    } catch (RuntimeException e) {
+      release.run();
+      throw e;
+    }
+  }
+
+  public Order findOrder(long id) {
+    return call(client.findOrder(id));
+  }
+
+  public <V extends OrderView> V findOrder(long id, Class<V> view) {
+    return call(client.findOrder(id, view));
+  }
+
+  public Order createOrder(OrderCreate body) {
+    return call(client.createOrder(body));
+  }
+
+  public Order putOrder(long id, OrderUpdate body) {
+    return call(client.putOrder(id, body));
+  }
+
+  public Order patchOrder(long id, OrderUpdate body) {
+    return call(client.patchOrder(id, body));
+  }
+
+  public void deleteOrder(long id) {
+    call(client.deleteOrder(id));
+  }
+
+  private <T> T call(Mono<T> call) {
+    acquire();
+    try {
+      return call.block();
+    } finally {
+      permits.release();
+    }
+  }
+
+  private void acquire() {
+    try {
+      if (!permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+        throw new OrdersOverloadedException(maxConcurrency);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting to call the Orders provider", e);
+    }
+  }
+
+  private static MethodHandle virtualExecutorFactory() {
+    try {
+      return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+          MethodType.methodType(ExecutorService.class));
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+}
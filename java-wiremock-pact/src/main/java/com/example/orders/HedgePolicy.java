@@ -0,0 +1,115 @@
+package com.example.orders;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hedges idempotent calls: if the first attempt has not answered within the current hedge delay,
+ * a second attempt is started and whichever answers first wins; the other one is cancelled,
+ * which releases its connection.
+ * <p>
+ * An HTTP error response is an answer like any other (a 404 from either attempt is final), while
+ * a transport failure of one attempt just leaves the race to the other; the call only fails
+ * with a transport error when both attempts did.
+ * <p>
+ * The delay tracks a latency percentile of recent successful attempts, refreshed once per
+ * {@code window} from an HdrHistogram {@link Recorder}, so only roughly the slowest
+ * {@code 100 - percentile}% of calls pay for an extra request.
+ */
+public class HedgePolicy {
+
+  private static final int MIN_SAMPLES = 20;
+
+  private final double percentile;
+  private final long minDelayNanos;
+  private final long windowNanos;
+  private final Recorder latencyMicros = new Recorder(3);
+  private final LongAdder hedged = new LongAdder();
+  private volatile long delayNanos;
+  private volatile long nextRefreshNanos;
+
+  public HedgePolicy(double percentile, Duration initialDelay, Duration minDelay, Duration window) {
+    this.percentile = percentile;
+    this.minDelayNanos = minDelay.toNanos();
+    this.windowNanos = window.toNanos();
+    this.delayNanos = initialDelay.toNanos();
+    this.nextRefreshNanos = System.nanoTime() + windowNanos;
+  }
+
+  public <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+    return Mono.defer(() -> {
+      Duration delay = Duration.ofNanos(delay());
+      Mono<Answer<T>> primary = attempt(call);
+      Mono<Answer<T>> backup = Mono.delay(delay)
+          .then(Mono.defer(() -> {
+            hedged.increment();
+            return attempt(call);
+          }));
+      return Mono.firstWithValue(primary, backup)
+          .onErrorMap(NoSuchElementException.class, HedgePolicy::firstFailure)
+          .flatMap(Answer::unwrap);
+    });
+  }
+
+  /** Number of backup attempts started so far. */
+  public long hedgedCount() {
+    return hedged.sum();
+  }
+
+  public Duration currentDelay() {
+    return Duration.ofNanos(delay());
+  }
+
+  private <T> Mono<Answer<T>> attempt(Supplier<Mono<T>> call) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      return call.get()
+          .doOnSuccess(value -> latencyMicros.recordValue((System.nanoTime() - start) / 1_000))
+          .map(value -> new Answer<>(value, null))
+          .defaultIfEmpty(new Answer<>(null, null))
+          .onErrorResume(WebClientResponseException.class, ex -> Mono.just(new Answer<>(null, ex)));
+    });
+  }
+
+  /** {@code firstWithValue} reports "all sources failed"; surface the primary's own error instead. */
+  private static Throwable firstFailure(NoSuchElementException ex) {
+    List<Throwable> failures = Exceptions.unwrapMultiple(ex.getCause());
+    return failures.isEmpty() || failures.get(0) == null ? ex : failures.get(0);
+  }
+
+  /** The winning attempt's outcome: a value (possibly none) or the provider's error response. */
+  private record Answer<T>(T value, WebClientResponseException error) {
+
+    Mono<T> unwrap() {
+      return error != null ? Mono.error(error) : Mono.justOrEmpty(value);
+    }
+  }
+
+  private long delay() {
+    if (System.nanoTime() >= nextRefreshNanos) {
+      refresh();
+    }
+    return delayNanos;
+  }
+
+  private synchronized void refresh() {
+    long now = System.nanoTime();
+    if (now < nextRefreshNanos) {
+      return;
+    }
+    Histogram window = latencyMicros.getIntervalHistogram();
+    if (window.getTotalCount() >= MIN_SAMPLES) {
+      delayNanos = Math.max(minDelayNanos, window.getValueAtPercentile(percentile) * 1_000);
+    }
+    nextRefreshNanos = now + windowNanos;
+  }
+}
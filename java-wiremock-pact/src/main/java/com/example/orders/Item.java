@@ -0,0 +1,7 @@
+package com.example.orders;
+
+/**
+ * Typed view of {@code components/schemas/Item} in {@code openapi/orders.yaml}.
+ */
+public record Item(String sku, int qty, double unitPrice) {
+}
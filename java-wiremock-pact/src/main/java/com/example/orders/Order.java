@@ -0,0 +1,9 @@
+package com.example.orders;
+
+/**
+ * Typed view of {@code components/schemas/Order} in {@code openapi/orders.yaml}.
+ */
+public record Order(long id, String customerName, Status status, double totalAmount) {
+
+  public enum Status { NEW, PROCESSING, COMPLETED, CANCELLED }
+}
@@ -0,0 +1,151 @@
+package com.example.orders;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Size-bounded cache of decoded orders keyed by id, with the provider's {@code ETag} kept
+ * alongside each value.
+ * <p>
+ * Entries younger than {@code ttl} are served without a round trip. Older entries stay around
+ * for another {@code maxStale} so the next read can revalidate them with {@code If-None-Match}
+ * and reuse the cached value on a {@code 304}. That bound keeps ids that are never read again
+ * from holding memory until the size bound pushes them out; an entry without an ETag cannot be
+ * revalidated, so it is dropped as soon as it is stale.
+ * <p>
+ * Each write to an order records a stamp for that id. A read that was already in flight when its
+ * order changed cannot put the old value back, while reads of other ids are stored as usual.
+ * The stamps are bounded like the entries; once one is evicted, reads that started before it
+ * are not stored, so forgetting a stamp never lets an old value back in.
+ */
+public class OrderCache<V> {
+
+  record Entry<V>(V value, String etag, long storedAtNanos) {
+  }
+
+  public record Stats(long hits, long misses, long evictions, long revalidations) {
+
+    Stats plus(Stats other) {
+      return new Stats(hits + other.hits, misses + other.misses,
+          evictions + other.evictions, revalidations + other.revalidations);
+    }
+  }
+
+  private final Cache<Long, Entry<V>> entries;
+  private final Cache<Long, Long> writes; // id -> stamp of its last write
+  private final long ttlNanos;
+  private final long maxStaleNanos;
+  private final UnaryOperator<V> copy;
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicLong forgotten = new AtomicLong(); // newest stamp evicted from writes
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder revalidations = new LongAdder();
+
+  /**
+   * @param maxStale how long after its TTL an entry is kept for revalidation
+   * @param copy applied to values handed out, for mutable value types such as {@code Map}
+   */
+  public OrderCache(long maxSize, Duration ttl, Duration maxStale, UnaryOperator<V> copy) {
+    this.ttlNanos = ttl.toNanos();
+    this.maxStaleNanos = maxStale.toNanos();
+    this.copy = copy;
+    this.entries = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(new Expiry<Long, Entry<V>>() {
+          @Override
+          public long expireAfterCreate(Long id, Entry<V> entry, long currentTime) {
+            return remainingNanos(entry);
+          }
+
+          @Override
+          public long expireAfterUpdate(Long id, Entry<V> entry, long currentTime, long currentDuration) {
+            return remainingNanos(entry);
+          }
+
+          @Override
+          public long expireAfterRead(Long id, Entry<V> entry, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .executor(Runnable::run)
+        .<Long, Entry<V>>evictionListener((id, entry, cause) -> {
+          if (cause.wasEvicted()) {
+            evictions.increment();
+          }
+        })
+        .build();
+    this.writes = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .executor(Runnable::run)
+        .<Long, Long>evictionListener((id, stamp, cause) -> {
+          if (cause.wasEvicted()) {
+            forgotten.accumulateAndGet(stamp, Math::max);
+          }
+        })
+        .build();
+  }
+
+  /** The cached value if it is still within its TTL; counts a hit or a miss. */
+  V fresh(long id) {
+    Entry<V> entry = entries.getIfPresent(id);
+    if (entry != null && System.nanoTime() - entry.storedAtNanos() < ttlNanos) {
+      hits.increment();
+      return copy.apply(entry.value());
+    }
+    misses.increment();
+    return null;
+  }
+
+  /** The entry to revalidate once {@link #fresh} returned nothing, or {@code null}. */
+  Entry<V> stale(long id) {
+    return entries.getIfPresent(id);
+  }
+
+  /** Taken before a read is sent; pass it back to {@link #store} or {@link #revalidated}. */
+  long stamp() {
+    return clock.get();
+  }
+
+  V revalidated(long id, Entry<V> entry, long readStamp) {
+    revalidations.increment();
+    store(id, entry.etag(), entry.value(), readStamp);
+    return copy.apply(entry.value());
+  }
+
+  V store(long id, String etag, V value, long readStamp) {
+    // compute serializes with invalidate on the same id, so no write can slip in after the check
+    entries.asMap().compute(id, (key, current) -> writtenSince(id, readStamp)
+        ? current : new Entry<>(copy.apply(value), etag, System.nanoTime()));
+    return value;
+  }
+
+  void invalidate(long id) {
+    entries.asMap().compute(id, (key, current) -> {
+      writes.put(id, clock.incrementAndGet());
+      return null;
+    });
+  }
+
+  /** Counted from when the value was stored, so a store that keeps the current entry keeps its deadline. */
+  private long remainingNanos(Entry<V> entry) {
+    long lifetime = entry.etag() == null ? ttlNanos : ttlNanos + maxStaleNanos;
+    return Math.max(0, lifetime - (System.nanoTime() - entry.storedAtNanos()));
+  }
+
+  private boolean writtenSince(long id, long readStamp) {
+    Long written = writes.getIfPresent(id);
+    return (written != null && written > readStamp) || forgotten.get() > readStamp;
+  }
+
+  public Stats stats() {
+    return new Stats(hits.sum(), misses.sum(), evictions.sum(), revalidations.sum());
+  }
+}
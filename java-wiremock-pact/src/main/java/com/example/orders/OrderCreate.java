@@ -0,0 +1,15 @@
+package com.example.orders;
+
+import java.util.List;
+
+/**
+ * Typed view of {@code components/schemas/OrderCreate} in {@code openapi/orders.yaml}.
+ * {@code items} is {@code null} when a decoded record had none; it is then sent without
+ * {@code items}, so the provider rejects it rather than creating an empty order.
+ */
+public record OrderCreate(String customerName, List<Item> items) {
+
+  public OrderCreate {
+    items = items == null ? null : List.copyOf(items);
+  }
+}
@@ -0,0 +1,131 @@
+package com.example.orders;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bulk import of {@link OrderCreate} records through {@link OrdersClient#createOrder(OrderCreate)}
+ * with bounded concurrency and a token-bucket rate limit.
+ * <p>
+ * Records the provider rejects with 400 or 409 go to the dead-letter consumer and the run
+ * continues; any other failure terminates the run. One pipeline instance tracks one run.
+ */
+public class OrderIngestionPipeline {
+
+  public record DeadLetter(OrderCreate record, int status, ApiError error) {
+  }
+
+  /**
+   * @param recordsPerSecond completed records (created + dead-lettered) per second since the run started
+   * @param p99              99th percentile of {@code createOrder} latency, excluding rate-limit waits
+   */
+  public record Stats(long created, long deadLettered, double recordsPerSecond, Duration p99) {
+  }
+
+  private final OrdersClient client;
+  private final int concurrency;
+  private final TokenBucket rateLimit;
+  private final Consumer<DeadLetter> deadLetters;
+
+  private final LongAdder created = new LongAdder();
+  private final LongAdder deadLettered = new LongAdder();
+  private final Histogram latencyMicros = new ConcurrentHistogram(3);
+  private volatile long startNanos;
+  private volatile long endNanos;
+
+  public OrderIngestionPipeline(OrdersClient client, int concurrency, double recordsPerSecond,
+                                Consumer<DeadLetter> deadLetters) {
+    this.client = client;
+    this.concurrency = concurrency;
+    this.rateLimit = new TokenBucket(recordsPerSecond, concurrency);
+    this.deadLetters = deadLetters;
+  }
+
+  /**
+   * Streams {@code OrderCreate} records from a JSON-lines file, one record in memory at a time.
+   */
+  public static Flux<OrderCreate> readJsonLines(Path file) {
+    return Flux.<OrderCreate, MappingIterator<OrderCreate>>generate(
+            () -> OrdersJson.objectMapper().readerFor(OrderCreate.class).readValues(Files.newBufferedReader(file)),
+            (records, sink) -> {
+              if (records.hasNext()) {
+                sink.next(records.next());
+              } else {
+                sink.complete();
+              }
+              return records;
+            },
+            records -> {
+              try {
+                records.close();
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            })
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  public Mono<Stats> run(Flux<OrderCreate> records) {
+    return records
+        .flatMap(record -> rateLimit.acquire().then(create(record)), concurrency)
+        .then(Mono.fromSupplier(this::stats))
+        .doOnSubscribe(s -> startNanos = System.nanoTime())
+        .doFinally(signal -> endNanos = System.nanoTime());
+  }
+
+  /**
+   * Emits a {@link Stats} snapshot every {@code interval} until the run finishes.
+   */
+  public Flux<Stats> progress(Duration interval) {
+    return Flux.interval(interval)
+        .map(tick -> stats())
+        .takeUntil(stats -> endNanos != 0);
+  }
+
+  public Stats stats() {
+    long done = created.sum() + deadLettered.sum();
+    long start = startNanos;
+    long elapsed = (endNanos != 0 ? endNanos : System.nanoTime()) - start;
+    double rate = start == 0 || elapsed <= 0 ? 0 : done * 1e9 / elapsed;
+    return new Stats(created.sum(), deadLettered.sum(), rate,
+        Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros.getValueAtPercentile(99))));
+  }
+
+  private Mono<Void> create(OrderCreate record) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      return client.createOrder(record)
+          .doOnSuccess(order -> created.increment())
+          .onErrorResume(WebClientResponseException.class, ex -> {
+            if (!isDeadLetter(ex)) {
+              return Mono.error(ex);
+            }
+            deadLettered.increment();
+            deadLetters.accept(new DeadLetter(record, ex.getStatusCode().value(), ApiError.from(ex)));
+            return Mono.empty();
+          })
+          .doOnTerminate(() -> latencyMicros.recordValue((System.nanoTime() - start) / 1_000))
+          .then();
+    });
+  }
+
+  private static boolean isDeadLetter(WebClientResponseException ex) {
+    return ex.getStatusCode().isSameCodeAs(HttpStatus.BAD_REQUEST)
+        || ex.getStatusCode().isSameCodeAs(HttpStatus.CONFLICT);
+  }
+}
@@ -0,0 +1,18 @@
+package com.example.orders;
+
+import java.util.List;
+
+/**
+ * One page of {@code GET /orders?limit=...}: the orders, and the {@code X-Next-Cursor} to pass for
+ * the following page ({@code null} on the last one).
+ */
+public record OrderPage(List<Order> orders, String nextCursor) {
+
+  public OrderPage {
+    orders = List.copyOf(orders);
+  }
+
+  public boolean hasNext() {
+    return nextCursor != null;
+  }
+}
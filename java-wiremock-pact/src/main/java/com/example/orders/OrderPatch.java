@@ -0,0 +1,8 @@
+package com.example.orders;
+
+/**
+ * Typed view of {@code components/schemas/OrderPatch} in {@code openapi/orders.yaml}: one entry
+ * of a {@code PATCH /orders} batch.
+ */
+public record OrderPatch(long id, OrderUpdate patch) {
+}
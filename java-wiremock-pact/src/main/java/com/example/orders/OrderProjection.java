@@ -0,0 +1,118 @@
+package com.example.orders;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * What an {@link OrderView} record asks for: its {@code fields} query value and, per {@link Order}
+ * field, the position of the matching record component. Resolved once per view class.
+ */
+final class OrderProjection {
+
+  /** The projectable {@link Order} fields, in the order their slots are numbered. */
+  enum Field {
+    ID("id", long.class), CUSTOMER_NAME("customerName", String.class), STATUS("status", Order.Status.class),
+    TOTAL_AMOUNT("totalAmount", double.class);
+
+    final String json;
+    final Class<?> type;
+
+    Field(String json, Class<?> type) {
+      this.json = json;
+      this.type = type;
+    }
+
+    static Field of(String json) {
+      for (Field field : values()) {
+        if (field.json.equals(json)) {
+          return field;
+        }
+      }
+      return null;
+    }
+  }
+
+  private static final ClassValue<OrderProjection> CACHE = new ClassValue<>() {
+    @Override
+    protected OrderProjection computeValue(Class<?> type) {
+      return new OrderProjection(type);
+    }
+  };
+
+  private final Class<?> type;
+  private final int[] slots = new int[Field.values().length];
+  private final int arity;
+  private final String fields;
+  private final MethodHandle constructor;
+
+  private OrderProjection(Class<?> type) {
+    if (!type.isRecord() || !OrderView.class.isAssignableFrom(type)) {
+      throw new IllegalArgumentException(type.getName() + " must be a record implementing OrderView");
+    }
+    this.type = type;
+    RecordComponent[] components = type.getRecordComponents();
+    Arrays.fill(slots, -1);
+    for (int i = 0; i < components.length; i++) {
+      Field field = Field.of(components[i].getName());
+      if (field == null || field.type != components[i].getType()) {
+        throw new IllegalArgumentException(type.getSimpleName() + "." + components[i].getName()
+            + " is not an Order field of the same type");
+      }
+      slots[field.ordinal()] = i;
+    }
+    this.arity = components.length;
+    this.fields = Arrays.stream(components).map(RecordComponent::getName).collect(Collectors.joining(","));
+    try {
+      Class<?>[] parameterTypes = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+      Constructor<?> canonical = type.getDeclaredConstructor(parameterTypes);
+      canonical.setAccessible(true); // views are often package-private or nested records
+      this.constructor = MethodHandles.lookup()
+          .unreflectConstructor(canonical)
+          .asSpreader(Object[].class, components.length);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Cannot access the canonical constructor of " + type.getName(), e);
+    }
+  }
+
+  static OrderProjection of(Class<?> type) {
+    return CACHE.get(type);
+  }
+
+  /** The {@code fields} query parameter value, e.g. {@code id,status}. */
+  String fields() {
+    return fields;
+  }
+
+  /** Record component index for {@code field}, or -1 when the view leaves it out. */
+  int slot(Field field) {
+    return slots[field.ordinal()];
+  }
+
+  /** Arguments for {@link #create}, with primitive components at their zero value. */
+  Object[] newArguments() {
+    Object[] args = new Object[arity];
+    for (Field field : Field.values()) {
+      int slot = slots[field.ordinal()];
+      if (slot >= 0 && field.type == long.class) {
+        args[slot] = 0L;
+      } else if (slot >= 0 && field.type == double.class) {
+        args[slot] = 0.0;
+      }
+    }
+    return args;
+  }
+
+  Object create(Object[] args) {
+    try {
+      return constructor.invoke(args);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException("Cannot create " + type.getName(), e);
+    }
+  }
+}
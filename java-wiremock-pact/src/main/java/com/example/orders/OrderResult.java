@@ -0,0 +1,21 @@
+package com.example.orders;
+
+/**
+ * Outcome for one id in a bulk {@link OrdersClient#getOrders} or {@link OrdersClient#patchOrders}
+ * call: either the order, or the HTTP status and decoded error body ({@code null} when the
+ * provider sent none).
+ */
+public record OrderResult(long id, Order order, int status, ApiError error) {
+
+  static OrderResult found(long id, Order order) {
+    return new OrderResult(id, order, 200, null);
+  }
+
+  static OrderResult failed(long id, int status, ApiError error) {
+    return new OrderResult(id, null, status, error);
+  }
+
+  public boolean isFound() {
+    return order != null;
+  }
+}
@@ -0,0 +1,7 @@
+package com.example.orders;
+
+/**
+ * The {@link OrderView} most callers need: {@code ?fields=id,status}.
+ */
+public record OrderSummary(long id, Order.Status status) implements OrderView {
+}
@@ -0,0 +1,13 @@
+package com.example.orders;
+
+/**
+ * Marker for slim, read-only views of an {@link Order}: a record whose components are a subset of
+ * {@code id}, {@code customerName}, {@code status} and {@code totalAmount}, with the same types.
+ * {@link OrdersClient#findOrders(String, Class)} and {@link OrdersClient#findOrder(long, Class)}
+ * ask the provider for just those fields ({@code ?fields=...}) and decode straight into the view.
+ * <pre>{@code
+ * record OrderStatusView(long id, Order.Status status) implements OrderView {}
+ * }</pre>
+ */
+public interface OrderView {
+}
@@ -1,74 +1,434 @@
 package com.example.orders;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 @Component
-public class OrdersClient {
+public class OrdersClient implements DisposableBean {
 
   private final WebClient webClient;
+  private final OrdersConnectionPool pool;
+  private final SingleFlight<Long, Map> mapFlights;
+  private final SingleFlight<Long, Order> orderFlights;
+  private final OrderCache<Map> mapCache;
+  private final OrderCache<Order> orderCache;
+  private final HedgePolicy hedging;
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final OrdersLoadBalancer balancer;
+  private final OrdersClientProperties.Paging paging;
+  private final RequestCompressor compressor;
+  private final PatchBatcher patchBatcher;
+  private final OrdersClientMetrics metrics;
 
   public OrdersClient(WebClient.Builder builder) {
-    String baseUrl = System.getProperty("orders.baseUrl", "http://localhost:4010");
-    this.webClient = builder.baseUrl(baseUrl).build();
+    this(builder, OrdersClientProperties.fromSystemProperties());
+  }
+
+  public OrdersClient(WebClient.Builder builder, OrdersClientProperties properties) {
+    this(builder, properties, null);
+  }
+
+  /** @param registry where to publish {@code orders.client.*} meters; {@code null} disables them */
+  @Autowired
+  public OrdersClient(WebClient.Builder builder, OrdersClientProperties properties, @Nullable MeterRegistry registry) {
+    this.metrics = registry != null && properties.getMetrics().isEnabled()
+        ? new OrdersClientMetrics(registry, properties.getMetrics().getClientName() != null
+            ? properties.getMetrics().getClientName() : properties.getBaseUrl())
+        : null;
+    if (metrics != null) {
+      builder.filter(metrics);
+    }
+    this.pool = new OrdersConnectionPool(properties, metrics == null ? null : metrics::recordAcquire);
+    OrdersClientProperties.Limiter limits = properties.getLimiter();
+    this.limiter = limits.isEnabled()
+        ? new AdaptiveConcurrencyLimiter(limits.getInitialLimit(), limits.getMinLimit(), limits.getMaxLimit())
+        : null;
+    if (limiter != null) {
+      builder.filter(limiter);
+    }
+    builder.filter(OrdersDeadline.filter());
+    List<String> endpoints = properties.getEndpoints();
+    String baseUrl = endpoints.isEmpty() ? properties.getBaseUrl() : endpoints.get(0);
+    OrdersClientProperties.LoadBalancer balancing = properties.getLoadBalancer();
+    this.balancer = endpoints.size() > 1
+        ? new OrdersLoadBalancer(baseUrl, endpoints, balancing.getStrategy(), balancing.getConsecutiveFailures(),
+            balancing.getEjectionTime(), balancing.getMaxEjectionPercent())
+        : null;
+    if (balancer != null) {
+      builder.filter(balancer);
+    }
+    this.webClient = builder.baseUrl(baseUrl)
+        .clientConnector(pool.connector())
+        .codecs(OrdersJson::configure)
+        .build();
+    this.paging = properties.getPaging();
+    OrdersClientProperties.Compression compression = properties.getCompression();
+    this.compressor = compression.getRequest() != RequestCompressor.Encoding.NONE
+        ? new RequestCompressor(compression.getRequest(), compression.getLevel(), compression.getRequestThreshold())
+        : null;
+    OrdersClientProperties.PatchBatching batching = properties.getPatchBatching();
+    this.patchBatcher = batching.isEnabled()
+        ? new PatchBatcher(batching.getMaxSize(), batching.getMaxDelay(), patches -> patchOrders(patches).collectList())
+        : null;
+    this.mapFlights = properties.isCoalesceGets() ? new SingleFlight<>() : null;
+    this.orderFlights = properties.isCoalesceGets() ? new SingleFlight<>() : null;
+    OrdersClientProperties.Cache cache = properties.getCache();
+    Duration maxStale = cache.getMaxStale() != null ? cache.getMaxStale() : cache.getTtl().multipliedBy(10);
+    this.mapCache = cache.isEnabled()
+        ? new OrderCache<>(cache.getMaxSize(), cache.getTtl(), maxStale, LinkedHashMap::new) : null;
+    this.orderCache = cache.isEnabled()
+        ? new OrderCache<>(cache.getMaxSize(), cache.getTtl(), maxStale, UnaryOperator.identity()) : null;
+    OrdersClientProperties.Hedging hedge = properties.getHedging();
+    this.hedging = hedge.isEnabled()
+        ? new HedgePolicy(hedge.getPercentile(), hedge.getInitialDelay(), hedge.getMinDelay(), hedge.getWindow())
+        : null;
+    if (metrics != null) {
+      metrics.bindPool(pool);
+      metrics.bindClient(this);
+      if (limiter != null) {
+        metrics.bindLimiter(limiter);
+      }
+    }
+  }
+
+  public OrdersConnectionPool pool() {
+    return pool;
+  }
+
+  /** Number of get calls served by joining an in-flight request; always 0 unless {@code orders.coalesce-gets} is on. */
+  public long coalescedGets() {
+    return (mapFlights == null ? 0 : mapFlights.coalescedCount())
+        + (orderFlights == null ? 0 : orderFlights.coalescedCount());
+  }
+
+  /** Combined counters of the order cache; all zero unless {@code orders.cache.enabled} is on. */
+  public OrderCache.Stats cacheStats() {
+    OrderCache.Stats none = new OrderCache.Stats(0, 0, 0, 0);
+    return (mapCache == null ? none : mapCache.stats())
+        .plus(orderCache == null ? none : orderCache.stats());
+  }
+
+  /** The hedging policy for GET calls, or {@code null} unless {@code orders.hedging.enabled} is on. */
+  public HedgePolicy hedging() {
+    return hedging;
+  }
+
+  /** The adaptive concurrency limiter, or {@code null} unless {@code orders.limiter.enabled} is on. */
+  public AdaptiveConcurrencyLimiter limiter() {
+    return limiter;
+  }
+
+  /** The load balancer, or {@code null} unless {@code orders.endpoints} lists more than one instance. */
+  public OrdersLoadBalancer balancer() {
+    return balancer;
+  }
+
+  @Override
+  public void destroy() {
+    if (patchBatcher != null) {
+      patchBatcher.dispose();
+    }
+    pool.dispose();
+    if (compressor != null) {
+      compressor.dispose();
+    }
+    if (metrics != null) {
+      metrics.close();
+    }
   }
 
   public Mono<List<Map>> listOrders(String status) {
-    return webClient.get()
+    return idempotent(() -> webClient.get()
         .uri(uri -> uri.path("/orders")
             .queryParamIfPresent("status", Optional.ofNullable(status))
             .build())
         .accept(MediaType.APPLICATION_JSON)
         .retrieve()
         .bodyToFlux(Map.class)
-        .collectList();
+        .collectList());
   }
 
+  /**
+   * With {@code orders.coalesce-gets} on, concurrent callers for the same id share one response,
+   * including the same {@code Map} instance; treat it as read-only.
+   */
   public Mono<Map> getOrder(long id) {
-    return webClient.get()
+    return get(id, Map.class, mapFlights, mapCache);
+  }
+
+  private <V> Mono<V> get(long id, Class<V> type, SingleFlight<Long, V> flights, OrderCache<V> cache) {
+    Supplier<Mono<V>> call = cache == null ? () -> fetch(id, type) : () -> fetchCached(id, type, cache);
+    // the shared request runs under no caller's deadline; each caller's within() times out on its own
+    return flights == null ? call.get() : flights.execute(id, () -> OrdersDeadline.detached(call.get()));
+  }
+
+  private <V> Mono<V> fetch(long id, Class<V> type) {
+    return idempotent(() -> webClient.get()
         .uri("/orders/{id}", id)
         .accept(MediaType.APPLICATION_JSON)
         .retrieve()
-        .bodyToMono(Map.class);
+        .bodyToMono(type));
+  }
+
+  /** Hedges a GET when {@code orders.hedging.enabled} is on; must only wrap idempotent requests. */
+  private <T> Mono<T> idempotent(Supplier<Mono<T>> request) {
+    return hedging == null ? request.get() : hedging.hedge(request);
+  }
+
+  private <V> Mono<V> fetchCached(long id, Class<V> type, OrderCache<V> cache) {
+    return Mono.defer(() -> {
+      V fresh = cache.fresh(id);
+      if (fresh != null) {
+        return Mono.just(fresh);
+      }
+      OrderCache.Entry<V> stale = cache.stale(id);
+      long stamp = cache.stamp();
+      return idempotent(() -> webClient.get()
+          .uri("/orders/{id}", id)
+          .accept(MediaType.APPLICATION_JSON)
+          .headers(headers -> {
+            if (stale != null && stale.etag() != null) {
+              headers.setIfNoneMatch(stale.etag());
+            }
+          })
+          .exchangeToMono(response -> {
+            if (stale != null && response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+              return response.releaseBody().thenReturn(cache.revalidated(id, stale, stamp));
+            }
+            if (response.statusCode().is2xxSuccessful()) {
+              String etag = response.headers().asHttpHeaders().getETag();
+              return response.bodyToMono(type).map(value -> cache.store(id, etag, value, stamp));
+            }
+            return response.createError();
+          }));
+    });
+  }
+
+  /**
+   * Drops the cached order once a write for it settles, before the caller sees the result, so
+   * a read issued after the write returns never observes the old value.
+   */
+  private <T> Mono<T> invalidateAfter(long id, Mono<T> write) {
+    if (mapCache == null) {
+      return write;
+    }
+    return write
+        .doOnSuccess(result -> invalidate(id))
+        .doOnError(error -> invalidate(id))
+        .doOnCancel(() -> invalidate(id));
+  }
+
+  private void invalidate(long id) {
+    mapCache.invalidate(id);
+    orderCache.invalidate(id);
   }
 
   public Mono<Map> createOrder(Map body) {
-    return webClient.post()
-        .uri("/orders")
-        .contentType(MediaType.APPLICATION_JSON)
-        .bodyValue(body)
+    return json(webClient.post().uri("/orders"), body)
         .retrieve()
         .bodyToMono(Map.class);
   }
 
   public Mono<Map> putOrder(long id, Map body) {
-    return webClient.put()
-        .uri("/orders/{id}", id)
-        .contentType(MediaType.APPLICATION_JSON)
-        .bodyValue(body)
+    return json(webClient.put().uri("/orders/{id}", id), body)
         .retrieve()
-        .bodyToMono(Map.class);
+        .bodyToMono(Map.class)
+        .transform(write -> invalidateAfter(id, write));
   }
 
   public Mono<Map> patchOrder(long id, Map body) {
-    return webClient.patch()
-        .uri("/orders/{id}", id)
-        .contentType(MediaType.APPLICATION_JSON)
-        .bodyValue(body)
+    return json(webClient.patch().uri("/orders/{id}", id), body)
         .retrieve()
-        .bodyToMono(Map.class);
+        .bodyToMono(Map.class)
+        .transform(write -> invalidateAfter(id, write));
   }
 
   public Mono<Void> deleteOrder(long id) {
     return webClient.delete()
         .uri("/orders/{id}", id)
         .retrieve()
-        .bodyToMono(Void.class);
+        .bodyToMono(Void.class)
+        .transform(write -> invalidateAfter(id, write));
+  }
+
+  /**
+   * Sets a JSON request body, written straight into a pooled Netty buffer by {@link PooledJsonBody}.
+   * With {@code orders.compression.request} on, bodies over the threshold are compressed and sent
+   * with {@code Content-Encoding}.
+   */
+  private WebClient.RequestHeadersSpec<?> json(WebClient.RequestBodySpec request, Object body) {
+    return request.contentType(MediaType.APPLICATION_JSON)
+        .body(PooledJsonBody.of(body, compressor));
+  }
+
+  // --- Typed API: decodes straight into records through OrdersJson, no intermediate Map ---
+
+  public Mono<List<Order>> findOrders(String status) {
+    return idempotent(() -> webClient.get()
+        .uri(uri -> uri.path("/orders")
+            .queryParamIfPresent("status", Optional.ofNullable(status))
+            .build())
+        .accept(MediaType.APPLICATION_JSON)
+        .retrieve()
+        .bodyToFlux(Order.class)
+        .collectList());
+  }
+
+  /**
+   * Emits orders as they are parsed off the wire instead of collecting the whole array first.
+   * Accepts either a JSON array or {@code application/x-ndjson}; demand from the subscriber is
+   * propagated down to the connection, so a slow consumer stops further reads.
+   */
+  public Flux<Order> streamOrders(String status) {
+    return webClient.get()
+        .uri(uri -> uri.path("/orders")
+            .queryParamIfPresent("status", Optional.ofNullable(status))
+            .build())
+        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
+        .retrieve()
+        .bodyToFlux(Order.class);
+  }
+
+  /**
+   * Lists orders as {@code view} records, asking the provider for only the fields the view declares
+   * ({@code ?fields=id,status} for {@link OrderSummary}).
+   */
+  public <V extends OrderView> Mono<List<V>> findOrders(String status, Class<V> view) {
+    String fields = OrderProjection.of(view).fields();
+    return idempotent(() -> webClient.get()
+        .uri(uri -> uri.path("/orders")
+            .queryParamIfPresent("status", Optional.ofNullable(status))
+            .queryParam("fields", fields)
+            .build())
+        .accept(MediaType.APPLICATION_JSON)
+        .retrieve()
+        .bodyToFlux(view)
+        .collectList());
+  }
+
+  /** {@link #findOrder(long)} projected onto {@code view}; bypasses the cache and get coalescing. */
+  public <V extends OrderView> Mono<V> findOrder(long id, Class<V> view) {
+    String fields = OrderProjection.of(view).fields();
+    return idempotent(() -> webClient.get()
+        .uri(uri -> uri.path("/orders/{id}").queryParam("fields", fields).build(id))
+        .accept(MediaType.APPLICATION_JSON)
+        .retrieve()
+        .bodyToMono(view));
+  }
+
+  /** One page of orders; pass the previous page's {@link OrderPage#nextCursor()} as {@code cursor}. */
+  public Mono<OrderPage> findOrdersPage(String status, String cursor, int limit) {
+    return idempotent(() -> webClient.get()
+        .uri(uri -> uri.path("/orders")
+            .queryParamIfPresent("status", Optional.ofNullable(status))
+            .queryParam("limit", limit)
+            .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+            .build())
+        .accept(MediaType.APPLICATION_JSON)
+        .retrieve()
+        .toEntityList(Order.class)
+        .map(page -> new OrderPage(page.getBody(), page.getHeaders().getFirst("X-Next-Cursor"))));
+  }
+
+  /** {@link #pageOrders(String, int, int)} with {@code orders.paging.page-size} and {@code prefetch}. */
+  public Flux<Order> pageOrders(String status) {
+    return pageOrders(status, paging.getPageSize(), paging.getPrefetch());
+  }
+
+  /**
+   * Walks the whole collection page by page, following {@code X-Next-Cursor}. Nothing is fetched
+   * until subscription. While the subscriber works through one page, up to {@code prefetch} further
+   * pages are requested ahead; cancelling aborts the page in flight and fetches no more.
+   */
+  public Flux<Order> pageOrders(String status, int pageSize, int prefetch) {
+    if (pageSize < 1 || prefetch < 0) {
+      throw new IllegalArgumentException("pageSize must be positive and prefetch not negative");
+    }
+    // expand subscribes to the next page as soon as it emits the current one; a hidden Mono.just
+    // (no scalar shortcut) holds the request back until expand has demand. concatMap(.., 0) asks
+    // for the next page only once the current one is drained, so the limitRate buffer alone sets
+    // the read-ahead.
+    Flux<OrderPage> pages = findOrdersPage(status, null, pageSize)
+        .expand(page -> page.hasNext()
+            ? Mono.just(page.nextCursor()).hide().flatMap(cursor -> findOrdersPage(status, cursor, pageSize))
+            : Mono.empty());
+    return (prefetch == 0 ? pages : pages.limitRate(prefetch, 1))
+        .concatMap(page -> Flux.fromIterable(page.orders()), 0);
+  }
+
+  public Mono<Order> findOrder(long id) {
+    return get(id, Order.class, orderFlights, orderCache);
+  }
+
+  /**
+   * Resolves many ids over the shared pool with at most {@code maxConcurrency} requests in flight,
+   * emitting one result per id in the order the ids were given. HTTP error responses such as 404
+   * become failed {@link OrderResult}s instead of terminating the batch; transport errors still do.
+   */
+  public Flux<OrderResult> getOrders(Collection<Long> ids, int maxConcurrency) {
+    return Flux.fromIterable(ids)
+        .flatMapSequential(id -> findOrder(id)
+            .map(order -> OrderResult.found(id, order))
+            .onErrorResume(WebClientResponseException.class, ex ->
+                Mono.just(OrderResult.failed(id, ex.getStatusCode().value(), ApiError.from(ex)))),
+            maxConcurrency);
+  }
+
+  public Mono<Order> createOrder(OrderCreate body) {
+    return json(webClient.post().uri("/orders"), body)
+        .retrieve()
+        .bodyToMono(Order.class);
+  }
+
+  public Mono<Order> putOrder(long id, OrderUpdate body) {
+    return json(webClient.put().uri("/orders/{id}", id), body)
+        .retrieve()
+        .bodyToMono(Order.class)
+        .transform(write -> invalidateAfter(id, write));
+  }
+
+  /**
+   * With {@code orders.patch-batching.enabled}, the patch joins the current {@code PATCH /orders}
+   * batch instead of being sent on its own; errors are the same either way.
+   */
+  public Mono<Order> patchOrder(long id, OrderUpdate body) {
+    Mono<Order> write = patchBatcher != null
+        ? patchBatcher.submit(id, body)
+        : json(webClient.patch().uri("/orders/{id}", id), body).retrieve().bodyToMono(Order.class);
+    return write.transform(sent -> invalidateAfter(id, sent));
+  }
+
+  /**
+   * Applies all patches in one {@code PATCH /orders} request. Results come back in request order;
+   * a patch the provider rejects becomes a failed {@link OrderResult} rather than an error.
+   */
+  public Flux<OrderResult> patchOrders(List<OrderPatch> patches) {
+    Flux<OrderResult> results = json(webClient.patch().uri("/orders"), patches)
+        .retrieve()
+        .bodyToFlux(OrderResult.class);
+    if (mapCache == null) {
+      return results;
+    }
+    // before the terminal signal reaches the caller, as in invalidateAfter
+    Runnable invalidate = () -> patches.forEach(patch -> invalidate(patch.id()));
+    return results.doOnTerminate(invalidate).doOnCancel(invalidate);
   }
 }
@@ -0,0 +1,240 @@
+package com.example.orders;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Micrometer instrumentation for {@link OrdersClient}, applied as the outermost {@code WebClient}
+ * filter.
+ * <ul>
+ *   <li>{@code orders.client.requests}: timer per operation, status, outcome and exception, from
+ *   request start until the response body is fully read, with client-side percentiles and a
+ *   percentile histogram (HdrHistogram-backed)</li>
+ *   <li>{@code orders.client.request.size} / {@code orders.client.response.size}: body bytes per
+ *   operation</li>
+ *   <li>{@code orders.client.connection.acquire}: time to obtain a pooled (or new) connection</li>
+ *   <li>gauges and counters for the pool, limiter, cache and coalescing when those are enabled</li>
+ * </ul>
+ * Timers for successful status codes are cached per operation so the hot path does no meter
+ * lookup; only error paths go through the registry.
+ * <p>
+ * Every meter carries a {@code client} tag, so several clients can share one registry, and
+ * {@link #close()} removes them again when the client is destroyed.
+ */
+public class OrdersClientMetrics implements ExchangeFilterFunction {
+
+  enum Operation {
+    LIST, GET, CREATE, PUT, PATCH, PATCH_BATCH, DELETE, OTHER;
+
+    final String tag = name().toLowerCase(Locale.ROOT);
+
+    static Operation of(ClientRequest request) {
+      boolean collection = request.url().getPath().endsWith("/orders");
+      HttpMethod method = request.method();
+      if (HttpMethod.GET.equals(method)) {
+        return collection ? LIST : GET;
+      }
+      if (HttpMethod.POST.equals(method)) {
+        return collection ? CREATE : OTHER;
+      }
+      if (collection) {
+        return HttpMethod.PATCH.equals(method) ? PATCH_BATCH : OTHER;
+      }
+      if (HttpMethod.PUT.equals(method)) {
+        return PUT;
+      }
+      if (HttpMethod.PATCH.equals(method)) {
+        return PATCH;
+      }
+      return HttpMethod.DELETE.equals(method) ? DELETE : OTHER;
+    }
+  }
+
+  private static final String REQUESTS = "orders.client.requests";
+  private static final int STATUS_CODES = 600;
+
+  private final MeterRegistry registry;
+  private final Tags tags;
+  private final Set<Meter> meters = ConcurrentHashMap.newKeySet();
+  private final Timer acquire;
+  private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>(Operation.values().length * STATUS_CODES);
+  private final DistributionSummary[] requestSize = new DistributionSummary[Operation.values().length];
+  private final DistributionSummary[] responseSize = new DistributionSummary[Operation.values().length];
+
+  /** @param client value of the {@code client} tag on every meter */
+  public OrdersClientMetrics(MeterRegistry registry, String client) {
+    this.registry = registry;
+    this.tags = Tags.of("client", client);
+    this.acquire = track(Timer.builder("orders.client.connection.acquire")
+        .description("Time to obtain a connection from the pool, including connect for new ones")
+        .tags(tags)
+        .publishPercentiles(0.5, 0.99)
+        .register(registry));
+    for (Operation operation : Operation.values()) {
+      requestSize[operation.ordinal()] = track(DistributionSummary.builder("orders.client.request.size")
+          .baseUnit("bytes")
+          .tags(tags)
+          .tag("operation", operation.tag)
+          .register(registry));
+      responseSize[operation.ordinal()] = track(DistributionSummary.builder("orders.client.response.size")
+          .baseUnit("bytes")
+          .tags(tags)
+          .tag("operation", operation.tag)
+          .register(registry));
+    }
+  }
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    return Mono.defer(() -> {
+      Operation operation = Operation.of(request);
+      long start = System.nanoTime();
+      LongAdder sent = new LongAdder();
+      return next.exchange(countingRequest(request, sent))
+          .map(response -> countingResponse(response, operation, start, sent))
+          .doOnError(error -> {
+            requestSize[operation.ordinal()].record(sent.sum());
+            timer(operation, "NONE", "UNKNOWN", error.getClass().getSimpleName())
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+          })
+          .doOnCancel(() -> timer(operation, "CANCELLED", "UNKNOWN", "none")
+              .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    });
+  }
+
+  void recordAcquire(long nanos) {
+    acquire.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  void bindPool(OrdersConnectionPool pool) {
+    track(Gauge.builder("orders.client.pool.active", pool, OrdersConnectionPool::active).tags(tags).register(registry));
+    track(Gauge.builder("orders.client.pool.idle", pool, OrdersConnectionPool::idle).tags(tags).register(registry));
+    track(Gauge.builder("orders.client.pool.pending", pool, OrdersConnectionPool::pending).tags(tags).register(registry));
+  }
+
+  void bindLimiter(AdaptiveConcurrencyLimiter limiter) {
+    track(Gauge.builder("orders.client.limiter.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+        .tags(tags).register(registry));
+    track(Gauge.builder("orders.client.limiter.in.flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+        .tags(tags).register(registry));
+    track(FunctionCounter.builder("orders.client.limiter.rejected", limiter, AdaptiveConcurrencyLimiter::rejectedCount)
+        .tags(tags).register(registry));
+  }
+
+  void bindClient(OrdersClient client) {
+    track(FunctionCounter.builder("orders.client.gets.coalesced", client, OrdersClient::coalescedGets)
+        .tags(tags).register(registry));
+    track(FunctionCounter.builder("orders.client.cache.hits", client, c -> c.cacheStats().hits())
+        .tags(tags).register(registry));
+    track(FunctionCounter.builder("orders.client.cache.misses", client, c -> c.cacheStats().misses())
+        .tags(tags).register(registry));
+    track(FunctionCounter.builder("orders.client.cache.evictions", client, c -> c.cacheStats().evictions())
+        .tags(tags).register(registry));
+    track(FunctionCounter.builder("orders.client.cache.revalidations", client, c -> c.cacheStats().revalidations())
+        .tags(tags).register(registry));
+  }
+
+  /** Removes this client's meters from the registry. */
+  void close() {
+    meters.forEach(registry::remove);
+    meters.clear();
+  }
+
+  private <M extends Meter> M track(M meter) {
+    meters.add(meter);
+    return meter;
+  }
+
+  private static ClientRequest countingRequest(ClientRequest request, LongAdder sent) {
+    return ClientRequest.from(request)
+        .body((message, context) -> request.body().insert(new ClientHttpRequestDecorator(message) {
+          @Override
+          public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(body instanceof Mono<? extends DataBuffer> mono
+                ? mono.doOnNext(buffer -> sent.add(buffer.readableByteCount()))
+                : Flux.from(body).doOnNext(buffer -> sent.add(buffer.readableByteCount())));
+          }
+        }, context))
+        .build();
+  }
+
+  private ClientResponse countingResponse(ClientResponse response, Operation operation, long start, LongAdder sent) {
+    int status = response.statusCode().value();
+    long[] received = new long[1];
+    AtomicBoolean recorded = new AtomicBoolean();
+    // Recorded before the terminal signal travels downstream, so callers that block see the sample.
+    Runnable record = () -> {
+      if (recorded.compareAndSet(false, true)) {
+        requestSize[operation.ordinal()].record(sent.sum());
+        responseSize[operation.ordinal()].record(received[0]);
+        timer(operation, status).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    };
+    return response.mutate()
+        .body(body -> body
+            .doOnNext(buffer -> received[0] += buffer.readableByteCount())
+            .doOnTerminate(record)
+            .doOnCancel(record))
+        .build();
+  }
+
+  private Timer timer(Operation operation, int status) {
+    if (status < 0 || status >= STATUS_CODES) {
+      return timer(operation, String.valueOf(status), "UNKNOWN", "none");
+    }
+    int slot = operation.ordinal() * STATUS_CODES + status;
+    Timer timer = timers.get(slot);
+    if (timer == null) {
+      timer = timer(operation, String.valueOf(status), outcome(status), "none");
+      timers.set(slot, timer);
+    }
+    return timer;
+  }
+
+  private Timer timer(Operation operation, String status, String outcome, String exception) {
+    return track(Timer.builder(REQUESTS)
+        .description("Orders provider calls, from request start until the response body is read")
+        .tags(tags)
+        .tag("operation", operation.tag)
+        .tag("status", status)
+        .tag("outcome", outcome)
+        .tag("exception", exception)
+        .publishPercentiles(0.5, 0.9, 0.99)
+        .publishPercentileHistogram()
+        .register(registry));
+  }
+
+  private static String outcome(int status) {
+    return switch (status / 100) {
+      case 1 -> "INFORMATIONAL";
+      case 2 -> "SUCCESS";
+      case 3 -> "REDIRECTION";
+      case 4 -> "CLIENT_ERROR";
+      case 5 -> "SERVER_ERROR";
+      default -> "UNKNOWN";
+    };
+  }
+}
@@ -0,0 +1,565 @@
+package com.example.orders;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Connection settings for {@link OrdersClient}, bound from {@code orders.*}.
+ * <pre>
+ * orders.base-url=http://orders:8080
+ * orders.protocols=H2C,HTTP11
+ * orders.pool.max-connections=200
+ * orders.pool.pending-acquire-max-count=2000
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "orders")
+public class OrdersClientProperties {
+
+  private String baseUrl = "http://localhost:4010";
+
+  /** Provider instances to balance over; when empty, every request goes to {@code base-url}. */
+  private List<String> endpoints = new ArrayList<>();
+
+  /** {@code HTTP11}, {@code H2C} or both (h2c with HTTP/1.1 upgrade fallback). */
+  private Set<HttpProtocol> protocols = EnumSet.of(HttpProtocol.HTTP11);
+
+  private boolean keepAlive = true;
+
+  private Duration connectTimeout = Duration.ofSeconds(5);
+
+  /** Time allowed between request sent and response headers received; {@code null} disables it. */
+  private Duration responseTimeout = Duration.ofSeconds(30);
+
+  /** Share one in-flight request between concurrent {@code getOrder}/{@code findOrder} calls for the same id. */
+  private boolean coalesceGets = false;
+
+  /** Order fetched once at startup, so the first real call finds an open connection and warm codecs. */
+  private Long warmUpOrderId;
+
+  private final Pool pool = new Pool();
+
+  private final Cache cache = new Cache();
+
+  private final Hedging hedging = new Hedging();
+
+  private final Limiter limiter = new Limiter();
+
+  private final Metrics metrics = new Metrics();
+
+  private final Paging paging = new Paging();
+
+  private final Compression compression = new Compression();
+
+  private final LoadBalancer loadBalancer = new LoadBalancer();
+
+  private final PatchBatching patchBatching = new PatchBatching();
+
+  /**
+   * Defaults for code paths that are not Spring-managed: everything at its default, with
+   * {@code orders.baseUrl} read from the system property like the original constructor did.
+   */
+  public static OrdersClientProperties fromSystemProperties() {
+    OrdersClientProperties properties = new OrdersClientProperties();
+    properties.setBaseUrl(System.getProperty("orders.baseUrl", properties.getBaseUrl()));
+    return properties;
+  }
+
+  public String getBaseUrl() {
+    return baseUrl;
+  }
+
+  public void setBaseUrl(String baseUrl) {
+    this.baseUrl = baseUrl;
+  }
+
+  public List<String> getEndpoints() {
+    return endpoints;
+  }
+
+  public void setEndpoints(List<String> endpoints) {
+    this.endpoints = endpoints;
+  }
+
+  public Set<HttpProtocol> getProtocols() {
+    return protocols;
+  }
+
+  public void setProtocols(Set<HttpProtocol> protocols) {
+    this.protocols = protocols;
+  }
+
+  public boolean isKeepAlive() {
+    return keepAlive;
+  }
+
+  public void setKeepAlive(boolean keepAlive) {
+    this.keepAlive = keepAlive;
+  }
+
+  public Duration getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  public void setConnectTimeout(Duration connectTimeout) {
+    this.connectTimeout = connectTimeout;
+  }
+
+  public Duration getResponseTimeout() {
+    return responseTimeout;
+  }
+
+  public void setResponseTimeout(Duration responseTimeout) {
+    this.responseTimeout = responseTimeout;
+  }
+
+  public boolean isCoalesceGets() {
+    return coalesceGets;
+  }
+
+  public void setCoalesceGets(boolean coalesceGets) {
+    this.coalesceGets = coalesceGets;
+  }
+
+  public Long getWarmUpOrderId() {
+    return warmUpOrderId;
+  }
+
+  public void setWarmUpOrderId(Long warmUpOrderId) {
+    this.warmUpOrderId = warmUpOrderId;
+  }
+
+  public Pool getPool() {
+    return pool;
+  }
+
+  public Cache getCache() {
+    return cache;
+  }
+
+  public Hedging getHedging() {
+    return hedging;
+  }
+
+  public Limiter getLimiter() {
+    return limiter;
+  }
+
+  public Metrics getMetrics() {
+    return metrics;
+  }
+
+  public Paging getPaging() {
+    return paging;
+  }
+
+  public Compression getCompression() {
+    return compression;
+  }
+
+  public LoadBalancer getLoadBalancer() {
+    return loadBalancer;
+  }
+
+  public PatchBatching getPatchBatching() {
+    return patchBatching;
+  }
+
+  public static class Pool {
+
+    private int maxConnections = 100;
+
+    /** Callers allowed to wait for a connection once the pool is exhausted; {@code -1} is unbounded. */
+    private int pendingAcquireMaxCount = 1_000;
+
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    /** Interval of the background idle-eviction sweep; {@link Duration#ZERO} evicts only on acquire. */
+    private Duration evictInBackground = Duration.ofSeconds(30);
+
+    public int getMaxConnections() {
+      return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+      this.maxConnections = maxConnections;
+    }
+
+    public int getPendingAcquireMaxCount() {
+      return pendingAcquireMaxCount;
+    }
+
+    public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+      this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+    }
+
+    public Duration getPendingAcquireTimeout() {
+      return pendingAcquireTimeout;
+    }
+
+    public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+      this.pendingAcquireTimeout = pendingAcquireTimeout;
+    }
+
+    public Duration getMaxIdleTime() {
+      return maxIdleTime;
+    }
+
+    public void setMaxIdleTime(Duration maxIdleTime) {
+      this.maxIdleTime = maxIdleTime;
+    }
+
+    public Duration getMaxLifeTime() {
+      return maxLifeTime;
+    }
+
+    public void setMaxLifeTime(Duration maxLifeTime) {
+      this.maxLifeTime = maxLifeTime;
+    }
+
+    public Duration getEvictInBackground() {
+      return evictInBackground;
+    }
+
+    public void setEvictInBackground(Duration evictInBackground) {
+      this.evictInBackground = evictInBackground;
+    }
+  }
+
+  public static class Cache {
+
+    private boolean enabled = false;
+
+    private long maxSize = 10_000;
+
+    /** How long an entry is served without asking the provider; afterwards it is revalidated by ETag. */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    /**
+     * How long after {@code ttl} an entry is kept for revalidation before it expires; defaults to
+     * ten times {@code ttl}. Entries without an ETag expire at {@code ttl}.
+     */
+    private Duration maxStale;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public long getMaxSize() {
+      return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    public Duration getTtl() {
+      return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+      this.ttl = ttl;
+    }
+
+    public Duration getMaxStale() {
+      return maxStale;
+    }
+
+    public void setMaxStale(Duration maxStale) {
+      this.maxStale = maxStale;
+    }
+  }
+
+  /** Backup requests for the idempotent GET operations; never applied to writes. */
+  public static class Hedging {
+
+    private boolean enabled = false;
+
+    /** Latency percentile of recent calls after which a backup request is sent. */
+    private double percentile = 95.0;
+
+    /** Hedge delay used until enough latency samples have been collected. */
+    private Duration initialDelay = Duration.ofMillis(100);
+
+    private Duration minDelay = Duration.ofMillis(5);
+
+    /** How often the hedge delay is recomputed from the latencies seen since the last refresh. */
+    private Duration window = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public double getPercentile() {
+      return percentile;
+    }
+
+    public void setPercentile(double percentile) {
+      this.percentile = percentile;
+    }
+
+    public Duration getInitialDelay() {
+      return initialDelay;
+    }
+
+    public void setInitialDelay(Duration initialDelay) {
+      this.initialDelay = initialDelay;
+    }
+
+    public Duration getMinDelay() {
+      return minDelay;
+    }
+
+    public void setMinDelay(Duration minDelay) {
+      this.minDelay = minDelay;
+    }
+
+    public Duration getWindow() {
+      return window;
+    }
+
+    public void setWindow(Duration window) {
+      this.window = window;
+    }
+  }
+
+  /** Adaptive limit on requests in flight; excess requests fail fast with {@link OrdersOverloadedException}. */
+  public static class Limiter {
+
+    private boolean enabled = false;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 1;
+
+    private int maxLimit = 200;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+      return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+      this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+      return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+      this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+      return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+      this.maxLimit = maxLimit;
+    }
+  }
+
+  /** Micrometer instrumentation; only takes effect when a {@code MeterRegistry} is available. */
+  public static class Metrics {
+
+    private boolean enabled = true;
+
+    /** The {@code client} tag on every meter; defaults to {@code base-url}. */
+    private String clientName;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public String getClientName() {
+      return clientName;
+    }
+
+    public void setClientName(String clientName) {
+      this.clientName = clientName;
+    }
+  }
+
+  /** Defaults for {@link OrdersClient#pageOrders(String)}. */
+  public static class Paging {
+
+    private int pageSize = 100;
+
+    /** Pages fetched ahead of the one being consumed. */
+    private int prefetch = 1;
+
+    public int getPageSize() {
+      return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+      this.pageSize = pageSize;
+    }
+
+    public int getPrefetch() {
+      return prefetch;
+    }
+
+    public void setPrefetch(int prefetch) {
+      this.prefetch = prefetch;
+    }
+  }
+
+  /** {@code Content-Encoding} for bodies in both directions. */
+  public static class Compression {
+
+    /** Send {@code Accept-Encoding: gzip, deflate} and decompress responses transparently. */
+    private boolean response = true;
+
+    /** Encoding for request bodies of at least {@code request-threshold} bytes. */
+    private RequestCompressor.Encoding request = RequestCompressor.Encoding.NONE;
+
+    private int requestThreshold = 1024;
+
+    /** Deflate level for request bodies, 1 (fastest) to 9 (smallest). */
+    private int level = 6;
+
+    public boolean isResponse() {
+      return response;
+    }
+
+    public void setResponse(boolean response) {
+      this.response = response;
+    }
+
+    public RequestCompressor.Encoding getRequest() {
+      return request;
+    }
+
+    public void setRequest(RequestCompressor.Encoding request) {
+      this.request = request;
+    }
+
+    public int getRequestThreshold() {
+      return requestThreshold;
+    }
+
+    public void setRequestThreshold(int requestThreshold) {
+      this.requestThreshold = requestThreshold;
+    }
+
+    public int getLevel() {
+      return level;
+    }
+
+    public void setLevel(int level) {
+      this.level = level;
+    }
+  }
+
+  /** Endpoint choice and passive outlier ejection when {@code endpoints} lists more than one instance. */
+  public static class LoadBalancer {
+
+    private OrdersLoadBalancer.Strategy strategy = OrdersLoadBalancer.Strategy.LEAST_OUTSTANDING;
+
+    /** 5xx responses, timeouts or refused connections in a row that eject an endpoint. */
+    private int consecutiveFailures = 5;
+
+    /** Base ejection period, multiplied by the number of times the endpoint has been ejected. */
+    private Duration ejectionTime = Duration.ofSeconds(30);
+
+    private int maxEjectionPercent = 50;
+
+    public OrdersLoadBalancer.Strategy getStrategy() {
+      return strategy;
+    }
+
+    public void setStrategy(OrdersLoadBalancer.Strategy strategy) {
+      this.strategy = strategy;
+    }
+
+    public int getConsecutiveFailures() {
+      return consecutiveFailures;
+    }
+
+    public void setConsecutiveFailures(int consecutiveFailures) {
+      this.consecutiveFailures = consecutiveFailures;
+    }
+
+    public Duration getEjectionTime() {
+      return ejectionTime;
+    }
+
+    public void setEjectionTime(Duration ejectionTime) {
+      this.ejectionTime = ejectionTime;
+    }
+
+    public int getMaxEjectionPercent() {
+      return maxEjectionPercent;
+    }
+
+    public void setMaxEjectionPercent(int maxEjectionPercent) {
+      this.maxEjectionPercent = maxEjectionPercent;
+    }
+  }
+
+  /** Coalescing of typed {@code patchOrder} calls into {@code PATCH /orders} batches. */
+  public static class PatchBatching {
+
+    private boolean enabled = false;
+
+    /** Patches per batch; a full batch is sent at once. */
+    private int maxSize = 100;
+
+    /** How long the first patch of a batch waits for others to join. */
+    private Duration maxDelay = Duration.ofMillis(5);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getMaxSize() {
+      return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    public Duration getMaxDelay() {
+      return maxDelay;
+    }
+
+    public void setMaxDelay(Duration maxDelay) {
+      this.maxDelay = maxDelay;
+    }
+  }
+}
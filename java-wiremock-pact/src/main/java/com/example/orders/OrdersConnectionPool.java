@@ -0,0 +1,181 @@
+package com.example.orders;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.http.client.reactive.ClientHttpResponseDecorator;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Owns the Reactor Netty connection pool behind an {@link OrdersClient} and exposes its gauges.
+ * Reactor Netty keeps one pool per remote address; the gauges are summed across them.
+ */
+public class OrdersConnectionPool implements ConnectionProvider.MeterRegistrar {
+
+  private final ConnectionProvider provider;
+  private final ReactorClientHttpConnector connector;
+  private final Map<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+
+  public OrdersConnectionPool(OrdersClientProperties properties) {
+    this(properties, null);
+  }
+
+  /** @param acquireListener receives the nanos spent obtaining each connection, or {@code null} */
+  public OrdersConnectionPool(OrdersClientProperties properties, LongConsumer acquireListener) {
+    this(properties, acquireListener, UnaryOperator.identity());
+  }
+
+  /** @param customizer applied to the Reactor Netty client after the settings from {@code properties} */
+  OrdersConnectionPool(OrdersClientProperties properties, LongConsumer acquireListener,
+      UnaryOperator<HttpClient> customizer) {
+    OrdersClientProperties.Pool pool = properties.getPool();
+    this.provider = ConnectionProvider.builder("orders-client")
+        .maxConnections(pool.getMaxConnections())
+        .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+        .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+        .maxIdleTime(pool.getMaxIdleTime())
+        .maxLifeTime(pool.getMaxLifeTime())
+        .evictInBackground(pool.getEvictInBackground())
+        .metrics(true, () -> this)
+        .build();
+
+    HttpClient httpClient = HttpClient.create(provider)
+        .protocol(properties.getProtocols().toArray(HttpProtocol[]::new))
+        .keepAlive(properties.isKeepAlive())
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+        .compress(properties.getCompression().isResponse());
+    if (properties.getCompression().isResponse()) {
+      // compress(true) alone only asks for gzip; Netty's decompressor handles deflate too
+      httpClient = httpClient.headers(headers -> headers.set(HttpHeaderNames.ACCEPT_ENCODING, "gzip, deflate"));
+    }
+    if (acquireListener != null) {
+      httpClient = httpClient.mapConnect(connect -> Mono.defer(() -> {
+        long start = System.nanoTime();
+        return connect.doOnNext(connection -> acquireListener.accept(System.nanoTime() - start));
+      }));
+    }
+    if (properties.getResponseTimeout() != null) {
+      httpClient = httpClient.responseTimeout(properties.getResponseTimeout());
+    }
+    httpClient = customizer.apply(httpClient);
+    // loads the event loops, native transport and resolver now, not on the first call's deadline
+    httpClient.warmup().block();
+    this.connector = new CancelSafeConnector(httpClient.doOnResponse(CancelSafeConnector::claim));
+  }
+
+  public ReactorClientHttpConnector connector() {
+    return connector;
+  }
+
+  /** Connections currently checked out by in-flight requests. */
+  public int active() {
+    return pools.values().stream().mapToInt(ConnectionPoolMetrics::acquiredSize).sum();
+  }
+
+  /** Open connections sitting in the pool, ready for reuse. */
+  public int idle() {
+    return pools.values().stream().mapToInt(ConnectionPoolMetrics::idleSize).sum();
+  }
+
+  /** Requests waiting for a connection because the pool is at {@code maxConnections}. */
+  public int pending() {
+    return pools.values().stream().mapToInt(ConnectionPoolMetrics::pendingAcquireSize).sum();
+  }
+
+  public void dispose() {
+    provider.dispose();
+  }
+
+  @Override
+  public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+    pools.put(id, metrics);
+  }
+
+  @Override
+  public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+    pools.remove(id);
+  }
+
+  /**
+   * Releases responses whose exchange ends just as they arrive.
+   * <p>
+   * Spring drains the body of a response that is cancelled after it has been handed over, and
+   * Reactor Netty drops a response whose request was cancelled before it arrived. A cancel (a
+   * deadline, a response timeout, a losing hedged attempt) that lands while the event loop is
+   * handing the response to Spring falls between the two. So does a connection error that fails
+   * the exchange after the request went out, when the response still arrives. Nobody reads or
+   * cancels such a body, and its content stays in the connection's inbound queue. Each exchange
+   * therefore races its end against the response through one reference, and whichever side comes
+   * second drains the body.
+   * <p>
+   * When the cancel lands just after the response was handed over, Spring has already released
+   * the body while the caller's decoding still subscribes to it on its way out. That subscription
+   * fails into a cancelled subscriber, where Reactor would log it as a dropped error, so it ends
+   * empty instead.
+   */
+  private static final class CancelSafeConnector extends ReactorClientHttpConnector {
+
+    private static final Object DELIVERED = new Object();
+    private static final Object ABANDONED = new Object();
+
+    CancelSafeConnector(HttpClient httpClient) {
+      super(httpClient);
+    }
+
+    @Override
+    public Mono<ClientHttpResponse> connect(HttpMethod method, URI uri,
+        Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+      AtomicReference<Object> exchange = new AtomicReference<>();
+      return super.connect(method, uri, requestCallback)
+          .doOnNext(response -> exchange.set(DELIVERED))
+          .<ClientHttpResponse>map(response -> new ClientHttpResponseDecorator(response) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+              return super.getBody().onErrorResume(IllegalStateException.class,
+                  error -> exchange.get() == ABANDONED ? Flux.empty() : Flux.error(error));
+            }
+          })
+          .doOnError(error -> abandon(exchange))
+          .doOnCancel(() -> abandon(exchange))
+          .contextWrite(context -> context.put(CancelSafeConnector.class, exchange));
+    }
+
+    static void claim(HttpClientResponse response, Connection connection) {
+      AtomicReference<Object> exchange = response.currentContextView().getOrDefault(CancelSafeConnector.class, null);
+      if (exchange != null && !exchange.compareAndSet(null, connection)) {
+        drain(connection);
+      }
+    }
+
+    private static void abandon(AtomicReference<Object> exchange) {
+      if (exchange.getAndSet(ABANDONED) instanceof Connection connection) {
+        drain(connection);
+      }
+    }
+
+    // Reactor Netty releases each buffer after handing it on; a second subscriber just gets an error
+    private static void drain(Connection connection) {
+      connection.inbound().receive().subscribe(buffer -> { }, error -> { });
+    }
+  }
+}
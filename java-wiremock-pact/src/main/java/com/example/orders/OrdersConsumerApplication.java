@@ -1,11 +1,39 @@
 package com.example.orders;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.Map;
 
 @SpringBootApplication
+@EnableConfigurationProperties(OrdersClientProperties.class)
+@ImportRuntimeHints(OrdersRuntimeHints.class)
 public class OrdersConsumerApplication {
+
+  private static final Logger log = LoggerFactory.getLogger(OrdersConsumerApplication.class);
+
   public static void main(String[] args) {
     SpringApplication.run(OrdersConsumerApplication.class, args);
   }
+
+  /**
+   * Fetches {@code orders.warm-up-order-id}, when set, before the application reports ready. Checked
+   * at run time rather than with a condition, which AOT processing would fix at build time.
+   */
+  @Bean
+  ApplicationRunner ordersWarmUp(OrdersClient client, OrdersClientProperties properties) {
+    return args -> {
+      Long id = properties.getWarmUpOrderId();
+      if (id != null) {
+        Map order = client.getOrder(id).block();
+        log.info("Orders warm-up: getOrder({}) returned status {}", id, order.get("status"));
+      }
+    };
+  }
 }
@@ -0,0 +1,139 @@
+package com.example.orders;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * A total time budget for one logical call, however many requests it takes.
+ * <pre>
+ * OrdersDeadline.within(Duration.ofMillis(300), client.findOrder(id).retry(2))
+ * </pre>
+ * The deadline travels in the Reactor context, so every attempt under it (retries, hedged
+ * backups) shares the same budget. Each request sends the time left as
+ * {@value #HEADER} and gets it as its Netty response timeout. When the budget runs out, the whole
+ * call fails with {@link OrdersDeadlineExceededException}. The in-flight exchange is cancelled,
+ * which closes its connection and returns the slot to the pool right away. A nested deadline
+ * never extends an outer one.
+ */
+public final class OrdersDeadline {
+
+  public static final String HEADER = "X-Request-Timeout-Ms";
+
+  private static final Object KEY = OrdersDeadline.class;
+
+  private final long expiresAtNanos;
+  private final Duration budget;
+
+  private OrdersDeadline(long expiresAtNanos, Duration budget) {
+    this.expiresAtNanos = expiresAtNanos;
+    this.budget = budget;
+  }
+
+  public static <T> Mono<T> within(Duration budget, Mono<T> call) {
+    return Mono.deferContextual(context -> {
+      OrdersDeadline deadline = start(budget, context);
+      return call.timeout(deadline.left(), Mono.error(() -> deadline.exceeded()))
+          .contextWrite(withDeadline(deadline));
+    });
+  }
+
+  /** As {@link #within(Duration, Mono)}; the budget covers the whole stream, not each element. */
+  public static <T> Flux<T> within(Duration budget, Flux<T> call) {
+    return Flux.deferContextual(context -> {
+      OrdersDeadline deadline = start(budget, context);
+      return call.take(deadline.left())
+          .concatWith(Mono.defer(() -> deadline.isExpired() ? Mono.error(deadline.exceeded()) : Mono.empty()))
+          .contextWrite(withDeadline(deadline));
+    });
+  }
+
+  /**
+   * Runs {@code call} without the caller's deadline. Use this for work that callers with different
+   * budgets share. Each caller's own {@link #within} timeout still bounds how long it waits for the
+   * shared result, so one caller's short budget never fails the others.
+   */
+  static <T> Mono<T> detached(Mono<T> call) {
+    return call.contextWrite(context -> context.delete(KEY));
+  }
+
+  /** Runs {@code call} under {@code deadline}, which was started by another caller's {@link #within}. */
+  static <T> Mono<T> attach(OrdersDeadline deadline, Mono<T> call) {
+    return call.contextWrite(withDeadline(deadline));
+  }
+
+  /** The deadline the current call runs under, if any. */
+  public static Optional<OrdersDeadline> current(ContextView context) {
+    return context.getOrEmpty(KEY);
+  }
+
+  /** Time left; zero or negative once expired. */
+  public Duration remaining() {
+    return Duration.ofNanos(expiresAtNanos - System.nanoTime());
+  }
+
+  public boolean isExpired() {
+    return expiresAtNanos - System.nanoTime() <= 0;
+  }
+
+  /** The budget this deadline was created with. */
+  public Duration budget() {
+    return budget;
+  }
+
+  /**
+   * Sends the remaining budget with each request, bounds its response wait by it, and fails
+   * without sending once it is spent. Registered by {@link OrdersClient}.
+   */
+  static ExchangeFilterFunction filter() {
+    return (ClientRequest request, ExchangeFunction next) -> Mono.deferContextual(context -> {
+      OrdersDeadline deadline = context.<OrdersDeadline>getOrEmpty(KEY).orElse(null);
+      if (deadline == null) {
+        return next.exchange(request);
+      }
+      Duration remaining = deadline.remaining();
+      if (remaining.toMillis() < 1) {
+        return Mono.<ClientResponse>error(deadline.exceeded());
+      }
+      return next.exchange(ClientRequest.from(request)
+          .header(HEADER, Long.toString(remaining.toMillis()))
+          .httpRequest(http -> {
+            if (http.getNativeRequest() instanceof HttpClientRequest netty) {
+              netty.responseTimeout(remaining);
+            }
+          })
+          .build())
+          // the response timeout can fire a moment before the deadline's own timer
+          .onErrorMap(error -> deadline.isExpired(), error -> deadline.exceeded());
+    });
+  }
+
+  private static OrdersDeadline start(Duration budget, ContextView context) {
+    long expiresAt = System.nanoTime() + budget.toNanos();
+    OrdersDeadline outer = context.<OrdersDeadline>getOrEmpty(KEY).orElse(null);
+    return outer != null && outer.expiresAtNanos - expiresAt <= 0 ? outer : new OrdersDeadline(expiresAt, budget);
+  }
+
+  private static Function<Context, Context> withDeadline(OrdersDeadline deadline) {
+    return context -> context.put(KEY, deadline);
+  }
+
+  private Duration left() {
+    Duration remaining = remaining();
+    return remaining.isNegative() ? Duration.ZERO : remaining;
+  }
+
+  private OrdersDeadlineExceededException exceeded() {
+    return new OrdersDeadlineExceededException(budget);
+  }
+}
@@ -0,0 +1,21 @@
+package com.example.orders;
+
+import java.time.Duration;
+
+/**
+ * Raised when an {@link OrdersDeadline} expires before the call completes; any request still in
+ * flight has been cancelled by then.
+ */
+public class OrdersDeadlineExceededException extends RuntimeException {
+
+  private final Duration budget;
+
+  public OrdersDeadlineExceededException(Duration budget) {
+    super("Orders call did not complete within its deadline of " + budget.toMillis() + " ms", null, false, false);
+    this.budget = budget;
+  }
+
+  public Duration getBudget() {
+    return budget;
+  }
+}
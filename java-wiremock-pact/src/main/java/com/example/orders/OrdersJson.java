@@ -0,0 +1,364 @@
+package com.example.orders;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.Deserializers;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.http.codec.ClientCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written streaming (de)serializers for the typed order records.
+ * <p>
+ * Each codec walks the token stream directly, so decoding an {@link Order} allocates the record
+ * and its strings and nothing else: no intermediate {@code LinkedHashMap}, no boxed numbers and
+ * no reflective bean introspection. Unknown fields are skipped without being materialized.
+ */
+public final class OrdersJson {
+
+  private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json()
+      .modulesToInstall(module())
+      .build();
+
+  private OrdersJson() {
+  }
+
+  public static ObjectMapper objectMapper() {
+    return MAPPER;
+  }
+
+  /**
+   * Registers the order codecs on a {@code WebClient.Builder}, e.g. {@code builder.codecs(OrdersJson::configure)}.
+   * The untyped {@code Map} API keeps working as it goes through the same {@link ObjectMapper}.
+   */
+  public static void configure(ClientCodecConfigurer configurer) {
+    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(MAPPER));
+    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(MAPPER));
+  }
+
+  public static SimpleModule module() {
+    SimpleModule module = new SimpleModule("OrdersJson") {
+      @Override
+      public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        context.addDeserializers(new Deserializers.Base() {
+          @Override
+          public JsonDeserializer<?> findBeanDeserializer(JavaType type, DeserializationConfig config,
+              BeanDescription beanDesc) {
+            return OrderView.class.isAssignableFrom(type.getRawClass())
+                ? new OrderViewDeserializer(type.getRawClass()) : null;
+          }
+        });
+      }
+    };
+    module.addDeserializer(Order.class, new OrderDeserializer());
+    module.addDeserializer(Item.class, new ItemDeserializer());
+    module.addDeserializer(ApiError.class, new ApiErrorDeserializer());
+    module.addDeserializer(OrderCreate.class, new OrderCreateDeserializer());
+    module.addSerializer(OrderCreate.class, new OrderCreateSerializer());
+    module.addSerializer(OrderUpdate.class, new OrderUpdateSerializer());
+    module.addSerializer(Item.class, new ItemSerializer());
+    module.addSerializer(OrderPatch.class, new OrderPatchSerializer());
+    module.addDeserializer(OrderResult.class, new OrderResultDeserializer());
+    return module;
+  }
+
+  /**
+   * Positions the parser on the first field name of the current object, accepting both
+   * {@code START_OBJECT} and {@code FIELD_NAME} as the entry token.
+   */
+  static JsonToken firstField(JsonParser p, Class<?> type, DeserializationContext ctxt) throws IOException {
+    JsonToken t = p.currentToken();
+    if (t == JsonToken.START_OBJECT) {
+      t = p.nextToken();
+    }
+    if (t != JsonToken.FIELD_NAME && t != JsonToken.END_OBJECT) {
+      ctxt.handleUnexpectedToken(type, p);
+    }
+    return t;
+  }
+
+  static Order.Status status(JsonParser p, DeserializationContext ctxt) throws IOException {
+    if (p.currentToken() == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    String text = p.getText();
+    try {
+      return Order.Status.valueOf(text);
+    } catch (IllegalArgumentException ex) {
+      throw ctxt.weirdStringException(text, Order.Status.class, "not one of the declared Order statuses");
+    }
+  }
+
+  static final class OrderDeserializer extends StdDeserializer<Order> {
+
+    OrderDeserializer() {
+      super(Order.class);
+    }
+
+    @Override
+    public Order deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      long id = 0;
+      String customerName = null;
+      Order.Status status = null;
+      double totalAmount = 0;
+      for (JsonToken t = firstField(p, Order.class, ctxt); t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+        String name = p.currentName();
+        p.nextToken();
+        switch (name) {
+          case "id" -> id = p.getLongValue();
+          case "customerName" -> customerName = p.getValueAsString();
+          case "status" -> status = status(p, ctxt);
+          case "totalAmount" -> totalAmount = p.getDoubleValue();
+          default -> p.skipChildren();
+        }
+      }
+      return new Order(id, customerName, status, totalAmount);
+    }
+  }
+
+  /**
+   * Decodes any {@link OrderView} record. Fields the view does not declare are skipped like
+   * unknown ones, so a full {@code Order} body decodes into a view without materializing the rest.
+   */
+  static final class OrderViewDeserializer extends StdDeserializer<Object> {
+
+    private final OrderProjection projection;
+
+    OrderViewDeserializer(Class<?> view) {
+      super(view);
+      this.projection = OrderProjection.of(view);
+    }
+
+    @Override
+    public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      Object[] args = projection.newArguments();
+      for (JsonToken t = firstField(p, handledType(), ctxt); t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+        String name = p.currentName();
+        p.nextToken();
+        OrderProjection.Field field = switch (name) {
+          case "id" -> OrderProjection.Field.ID;
+          case "customerName" -> OrderProjection.Field.CUSTOMER_NAME;
+          case "status" -> OrderProjection.Field.STATUS;
+          case "totalAmount" -> OrderProjection.Field.TOTAL_AMOUNT;
+          default -> null;
+        };
+        int slot = field == null ? -1 : projection.slot(field);
+        if (slot < 0) {
+          p.skipChildren();
+          continue;
+        }
+        args[slot] = switch (field) {
+          case ID -> p.getLongValue();
+          case CUSTOMER_NAME -> p.getValueAsString();
+          case STATUS -> status(p, ctxt);
+          case TOTAL_AMOUNT -> p.getDoubleValue();
+        };
+      }
+      return projection.create(args);
+    }
+  }
+
+  static final class ItemDeserializer extends StdDeserializer<Item> {
+
+    ItemDeserializer() {
+      super(Item.class);
+    }
+
+    @Override
+    public Item deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      String sku = null;
+      int qty = 0;
+      double unitPrice = 0;
+      for (JsonToken t = firstField(p, Item.class, ctxt); t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+        String name = p.currentName();
+        p.nextToken();
+        switch (name) {
+          case "sku" -> sku = p.getValueAsString();
+          case "qty" -> qty = p.getIntValue();
+          case "unitPrice" -> unitPrice = p.getDoubleValue();
+          default -> p.skipChildren();
+        }
+      }
+      return new Item(sku, qty, unitPrice);
+    }
+  }
+
+  static final class OrderCreateDeserializer extends StdDeserializer<OrderCreate> {
+
+    private final ItemDeserializer items = new ItemDeserializer();
+
+    OrderCreateDeserializer() {
+      super(OrderCreate.class);
+    }
+
+    @Override
+    public OrderCreate deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      String customerName = null;
+      List<Item> itemList = null; // a record without items stays invalid instead of becoming "items":[]
+      for (JsonToken t = firstField(p, OrderCreate.class, ctxt); t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+        String name = p.currentName();
+        JsonToken value = p.nextToken();
+        switch (name) {
+          case "customerName" -> customerName = p.getValueAsString();
+          case "items" -> {
+            if (value != JsonToken.START_ARRAY) {
+              ctxt.handleUnexpectedToken(List.class, p);
+            }
+            List<Item> read = new ArrayList<>();
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+              read.add(items.deserialize(p, ctxt));
+            }
+            itemList = read;
+          }
+          default -> p.skipChildren();
+        }
+      }
+      return new OrderCreate(customerName, itemList);
+    }
+  }
+
+  static final class ApiErrorDeserializer extends StdDeserializer<ApiError> {
+
+    ApiErrorDeserializer() {
+      super(ApiError.class);
+    }
+
+    @Override
+    public ApiError deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      String code = null;
+      String message = null;
+      for (JsonToken t = firstField(p, ApiError.class, ctxt); t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+        String name = p.currentName();
+        p.nextToken();
+        switch (name) {
+          case "code" -> code = p.getValueAsString();
+          case "message" -> message = p.getValueAsString();
+          default -> p.skipChildren();
+        }
+      }
+      return new ApiError(code, message);
+    }
+  }
+
+  /** One {@code OrderPatchResult} of a {@code PATCH /orders} batch. */
+  static final class OrderResultDeserializer extends StdDeserializer<OrderResult> {
+
+    OrderResultDeserializer() {
+      super(OrderResult.class);
+    }
+
+    @Override
+    public OrderResult deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      long id = 0;
+      int status = 0;
+      Order order = null;
+      ApiError error = null;
+      for (JsonToken t = firstField(p, OrderResult.class, ctxt); t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+        String name = p.currentName();
+        JsonToken value = p.nextToken();
+        switch (name) {
+          case "id" -> id = p.getLongValue();
+          case "httpStatus" -> status = p.getIntValue();
+          case "order" -> order = value == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Order.class);
+          case "error" -> error = value == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, ApiError.class);
+          default -> p.skipChildren();
+        }
+      }
+      return new OrderResult(id, order, status, error);
+    }
+  }
+
+  static final class OrderCreateSerializer extends StdSerializer<OrderCreate> {
+
+    OrderCreateSerializer() {
+      super(OrderCreate.class);
+    }
+
+    @Override
+    public void serialize(OrderCreate value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartObject();
+      gen.writeStringField("customerName", value.customerName());
+      List<Item> items = value.items();
+      if (items != null) {
+        gen.writeArrayFieldStart("items");
+        for (int i = 0; i < items.size(); i++) {
+          writeItem(items.get(i), gen);
+        }
+        gen.writeEndArray();
+      }
+      gen.writeEndObject();
+    }
+  }
+
+  static final class OrderUpdateSerializer extends StdSerializer<OrderUpdate> {
+
+    OrderUpdateSerializer() {
+      super(OrderUpdate.class);
+    }
+
+    @Override
+    public void serialize(OrderUpdate value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartObject();
+      if (value.customerName() != null) {
+        gen.writeStringField("customerName", value.customerName());
+      }
+      if (value.status() != null) {
+        gen.writeStringField("status", value.status().name());
+      }
+      gen.writeEndObject();
+    }
+  }
+
+  static final class OrderPatchSerializer extends StdSerializer<OrderPatch> {
+
+    OrderPatchSerializer() {
+      super(OrderPatch.class);
+    }
+
+    @Override
+    public void serialize(OrderPatch value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartObject();
+      gen.writeNumberField("id", value.id());
+      gen.writeFieldName("patch");
+      provider.defaultSerializeValue(value.patch(), gen);
+      gen.writeEndObject();
+    }
+  }
+
+  static final class ItemSerializer extends StdSerializer<Item> {
+
+    ItemSerializer() {
+      super(Item.class);
+    }
+
+    @Override
+    public void serialize(Item value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      writeItem(value, gen);
+    }
+  }
+
+  static void writeItem(Item item, JsonGenerator gen) throws IOException {
+    gen.writeStartObject();
+    gen.writeStringField("sku", item.sku());
+    gen.writeNumberField("qty", item.qty());
+    gen.writeNumberField("unitPrice", item.unitPrice());
+    gen.writeEndObject();
+  }
+}
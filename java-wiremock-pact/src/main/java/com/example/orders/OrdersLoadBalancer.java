@@ -0,0 +1,213 @@
+package com.example.orders;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spreads requests over several Orders provider instances, applied as a {@code WebClient} filter
+ * so every attempt (including each hedged one) picks its own endpoint.
+ * <p>
+ * {@link Strategy#LEAST_OUTSTANDING} sends each request to the endpoint with the fewest requests
+ * in flight; {@link Strategy#POWER_OF_TWO_CHOICES} compares two endpoints drawn at random, which
+ * avoids every client herding onto the same momentarily idle instance. Either way a slow instance
+ * accumulates outstanding requests and so receives less new traffic.
+ * <p>
+ * Passive outlier ejection: after {@code consecutiveFailures} 5xx responses, timeouts or refused
+ * connections in a row, an endpoint is taken out of rotation for {@code ejectionTime} times the
+ * number of times it has been ejected. At most {@code maxEjectionPercent} of the endpoints (and
+ * never the last one) are out at once. Failures of a call whose {@link OrdersDeadline} has run out
+ * are not counted: the caller's budget, not the endpoint, cut them short.
+ */
+public class OrdersLoadBalancer implements ExchangeFilterFunction {
+
+  public enum Strategy {
+    LEAST_OUTSTANDING, POWER_OF_TWO_CHOICES
+  }
+
+  private static final int MAX_EJECTION_MULTIPLIER = 10;
+
+  private final String baseUrl;
+  private final Endpoint[] endpoints;
+  private final Strategy strategy;
+  private final int consecutiveFailures;
+  private final long ejectionNanos;
+  private final int maxEjected;
+  private final AtomicInteger next = new AtomicInteger();
+
+  /**
+   * @param baseUrl the base URL the {@code WebClient} was built with; it is replaced by the chosen
+   *     endpoint, so all endpoints must serve the API under the same path
+   */
+  public OrdersLoadBalancer(String baseUrl, List<String> endpoints, Strategy strategy, int consecutiveFailures,
+      Duration ejectionTime, int maxEjectionPercent) {
+    if (endpoints.isEmpty()) {
+      throw new IllegalArgumentException("At least one Orders endpoint is required");
+    }
+    this.baseUrl = trimSlash(baseUrl);
+    this.endpoints = endpoints.stream().map(url -> new Endpoint(trimSlash(url))).toArray(Endpoint[]::new);
+    this.strategy = strategy;
+    this.consecutiveFailures = consecutiveFailures;
+    this.ejectionNanos = ejectionTime.toNanos();
+    this.maxEjected = Math.min(this.endpoints.length - 1, this.endpoints.length * maxEjectionPercent / 100);
+  }
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    return Mono.deferContextual(context -> {
+      Endpoint endpoint = choose(System.nanoTime());
+      endpoint.outstanding.incrementAndGet();
+      endpoint.requests.increment();
+      ClientRequest routed = ClientRequest.from(request).url(route(request.url(), endpoint)).build();
+      Mono<ClientResponse> exchange = next.exchange(routed)
+          .doOnNext(response -> onResult(endpoint, response.statusCode().is5xxServerError()))
+          .doOnError(error -> {
+            // a timeout the caller's own deadline set says nothing about the endpoint
+            if (!OrdersDeadline.current(context).map(OrdersDeadline::isExpired).orElse(false)) {
+              onResult(endpoint, isOutlierError(error));
+            }
+          });
+      // outstanding until the body is read, so an endpoint slow to stream bodies looks busy
+      return ResponseBodies.whenBodyDone(exchange, endpoint.outstanding::decrementAndGet);
+    });
+  }
+
+  /** The endpoints in configuration order, with their live counters. */
+  public List<Endpoint> endpoints() {
+    return List.of(endpoints);
+  }
+
+  private Endpoint choose(long now) {
+    int n = endpoints.length;
+    if (n == 1) {
+      return endpoints[0];
+    }
+    if (strategy == Strategy.POWER_OF_TWO_CHOICES) {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int first = random.nextInt(n);
+      Endpoint a = pick(first, now);
+      Endpoint b = pick((first + 1 + random.nextInt(n - 1)) % n, now); // a distinct second draw
+      return b.outstanding.get() < a.outstanding.get() ? b : a;
+    }
+    // rotate the scan start so ties do not all land on the first endpoint
+    int start = Math.floorMod(next.getAndIncrement(), n);
+    Endpoint best = null;
+    for (int i = 0; i < n; i++) {
+      Endpoint candidate = endpoints[(start + i) % n];
+      if (!candidate.isEjected(now) && (best == null || candidate.outstanding.get() < best.outstanding.get())) {
+        best = candidate;
+      }
+    }
+    return best != null ? best : endpoints[start];
+  }
+
+  /** The endpoint at {@code index}, or the next one in rotation that is not ejected. */
+  private Endpoint pick(int index, long now) {
+    for (int i = 0; i < endpoints.length; i++) {
+      Endpoint candidate = endpoints[(index + i) % endpoints.length];
+      if (!candidate.isEjected(now)) {
+        return candidate;
+      }
+    }
+    return endpoints[index];
+  }
+
+  private URI route(URI url, Endpoint endpoint) {
+    String target = url.toString();
+    return target.startsWith(baseUrl) ? URI.create(endpoint.url + target.substring(baseUrl.length())) : url;
+  }
+
+  private void onResult(Endpoint endpoint, boolean failed) {
+    if (!failed) {
+      endpoint.consecutiveFailures.set(0);
+      return;
+    }
+    if (endpoint.consecutiveFailures.incrementAndGet() >= consecutiveFailures) {
+      eject(endpoint, System.nanoTime());
+    }
+  }
+
+  private synchronized void eject(Endpoint endpoint, long now) {
+    if (endpoint.isEjected(now)) {
+      return;
+    }
+    int ejected = 0;
+    for (Endpoint e : endpoints) {
+      if (e.isEjected(now)) {
+        ejected++;
+      }
+    }
+    if (ejected >= maxEjected) {
+      return;
+    }
+    endpoint.ejections++;
+    endpoint.ejectedUntil = now + ejectionNanos * Math.min(endpoint.ejections, MAX_EJECTION_MULTIPLIER);
+    endpoint.consecutiveFailures.set(0);
+  }
+
+  private static boolean isOutlierError(Throwable error) {
+    for (Throwable t = error; t != null; t = t.getCause()) {
+      if (t instanceof TimeoutException || t instanceof io.netty.handler.timeout.TimeoutException
+          || t instanceof ConnectException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String trimSlash(String url) {
+    return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+  }
+
+  public static final class Endpoint {
+
+    private final String url;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long ejectedUntil;
+    private volatile int ejections;
+
+    Endpoint(String url) {
+      this.url = url;
+    }
+
+    public String url() {
+      return url;
+    }
+
+    public int outstanding() {
+      return outstanding.get();
+    }
+
+    /** Requests routed here so far. */
+    public long requests() {
+      return requests.sum();
+    }
+
+    /** How many times this endpoint has been ejected. */
+    public int ejections() {
+      return ejections;
+    }
+
+    public boolean isEjected() {
+      return isEjected(System.nanoTime());
+    }
+
+    boolean isEjected(long now) {
+      long until = ejectedUntil;
+      return until != 0 && now - until < 0;
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.example.orders;
+
+/**
+ * Raised without touching the network when {@link AdaptiveConcurrencyLimiter} is already at its
+ * current limit. Callers should back off or degrade rather than retry immediately.
+ */
+public class OrdersOverloadedException extends RuntimeException {
+
+  private final int limit;
+
+  public OrdersOverloadedException(int limit) {
+    super("Orders provider concurrency limit of " + limit + " reached", null, false, false);
+    this.limit = limit;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+}
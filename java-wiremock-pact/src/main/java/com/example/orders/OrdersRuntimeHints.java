@@ -0,0 +1,40 @@
+package com.example.orders;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Reflection hints for an AOT-processed or native {@link OrdersConsumerApplication}.
+ * <p>
+ * The typed records are decoded by the codecs in {@link OrdersJson}, but Jackson still introspects
+ * them when it resolves a codec, and the {@code Map} API and {@code ApiError} bodies go through
+ * ordinary data binding. {@link OrderView} records are built through their canonical constructor
+ * by {@link OrderProjection}. Views declared outside this module need the same hints; register
+ * them with {@link #registerView(RuntimeHints, Class)} from the application's own registrar.
+ */
+public class OrdersRuntimeHints implements RuntimeHintsRegistrar {
+
+  private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    bindings.registerReflectionHints(hints.reflection(),
+        Order.class, OrderCreate.class, OrderUpdate.class, OrderPatch.class, OrderResult.class, Item.class, ApiError.class);
+    registerView(hints, OrderSummary.class);
+    // BlockingOrdersClient looks this up so the module can stay on release 17
+    hints.reflection().registerTypeIfPresent(classLoader, "java.util.concurrent.Executors",
+        type -> type.withMethod("newVirtualThreadPerTaskExecutor", List.of(), ExecutableMode.INVOKE));
+  }
+
+  /** Hints for decoding {@code view} with {@link OrdersClient#findOrder(long, Class)} and friends. */
+  public static void registerView(RuntimeHints hints, Class<? extends OrderView> view) {
+    // record components are read through their accessors; the canonical constructor may be non-public
+    hints.reflection().registerType(view, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+        MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+  }
+}
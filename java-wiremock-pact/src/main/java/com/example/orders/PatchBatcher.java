@@ -0,0 +1,175 @@
+package com.example.orders;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Gathers individual {@code patchOrder} calls into {@code PATCH /orders} batches. A batch goes
+ * out when it holds {@code maxSize} patches or {@code maxDelay} after its first patch, whichever
+ * comes first, and each caller's {@code Mono} gets its own item of the response.
+ * <p>
+ * A failed item becomes the same {@link WebClientResponseException} a single {@code PATCH
+ * /orders/{id}} would have raised, so {@link ApiError#from} still works. A caller that cancels
+ * after its patch was queued does not take it back out of the batch.
+ * <p>
+ * A batch runs under the earliest {@link OrdersDeadline} among its callers, so it is sent with the
+ * shortest budget any of them has left. Patches still waiting when the batcher is disposed fail
+ * without being sent.
+ */
+final class PatchBatcher {
+
+  private record Pending(OrderPatch patch, MonoSink<Order> sink, @Nullable OrdersDeadline deadline) {
+  }
+
+  private final int maxSize;
+  private final Duration maxDelay;
+  private final Function<List<OrderPatch>, Mono<List<OrderResult>>> send;
+  private List<Pending> batch;
+  private Disposable timer;
+  private boolean disposed;
+
+  PatchBatcher(int maxSize, Duration maxDelay, Function<List<OrderPatch>, Mono<List<OrderResult>>> send) {
+    this.maxSize = maxSize;
+    this.maxDelay = maxDelay;
+    this.send = send;
+  }
+
+  Mono<Order> submit(long id, OrderUpdate patch) {
+    return Mono.create(sink -> {
+      Pending pending = new Pending(new OrderPatch(id, patch), sink,
+          OrdersDeadline.current(sink.contextView()).orElse(null));
+      List<Pending> full = null;
+      synchronized (this) {
+        if (disposed) {
+          sink.error(destroyed());
+          return;
+        }
+        if (batch == null) {
+          List<Pending> opened = new ArrayList<>(maxSize);
+          batch = opened;
+          timer = Schedulers.parallel().schedule(() -> flushOnTimer(opened), maxDelay.toNanos(),
+              TimeUnit.NANOSECONDS);
+        }
+        batch.add(pending);
+        if (batch.size() >= maxSize) {
+          full = take();
+        }
+      }
+      if (full != null) {
+        dispatch(full);
+      }
+    });
+  }
+
+  /** Fails the patches waiting for a batch and refuses new ones. */
+  void dispose() {
+    List<Pending> waiting;
+    synchronized (this) {
+      disposed = true;
+      waiting = batch != null ? take() : null;
+    }
+    if (waiting != null) {
+      fail(waiting, destroyed());
+    }
+  }
+
+  private void flushOnTimer(List<Pending> opened) {
+    List<Pending> due;
+    synchronized (this) {
+      due = batch == opened ? take() : null; // else it already went out full
+    }
+    if (due != null) {
+      dispatch(due);
+    }
+  }
+
+  private List<Pending> take() {
+    List<Pending> taken = batch;
+    batch = null;
+    timer.dispose();
+    timer = null;
+    return taken;
+  }
+
+  private void dispatch(List<Pending> pending) {
+    List<OrderPatch> patches = new ArrayList<>(pending.size());
+    OrdersDeadline earliest = null;
+    for (Pending p : pending) {
+      patches.add(p.patch());
+      OrdersDeadline deadline = p.deadline();
+      if (deadline != null && (earliest == null || deadline.remaining().compareTo(earliest.remaining()) < 0)) {
+        earliest = deadline;
+      }
+    }
+    Mono<List<OrderResult>> request = send.apply(patches);
+    if (earliest != null) {
+      request = OrdersDeadline.attach(earliest, request);
+    }
+    request.subscribe(results -> {
+      if (results.size() != pending.size()) {
+        fail(pending, new IllegalStateException(
+            "PATCH /orders answered " + results.size() + " results for " + pending.size() + " patches"));
+        return;
+      }
+      for (int i = 0; i < results.size(); i++) {
+        OrderResult result = results.get(i);
+        MonoSink<Order> sink = pending.get(i).sink();
+        if (result.order() != null) {
+          sink.success(result.order());
+        } else {
+          sink.error(asException(result));
+        }
+      }
+    }, error -> fail(pending, error));
+  }
+
+  private static IllegalStateException destroyed() {
+    return new IllegalStateException("OrdersClient was destroyed before the patch was sent");
+  }
+
+  private static void fail(List<Pending> pending, Throwable error) {
+    for (Pending p : pending) {
+      p.sink().error(error);
+    }
+  }
+
+  private static WebClientResponseException asException(OrderResult result) {
+    byte[] body;
+    try {
+      body = result.error() == null ? new byte[0] : OrdersJson.objectMapper().writeValueAsBytes(result.error());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    HttpHeaders headers = new HttpHeaders();
+    if (body.length > 0) {
+      headers.setContentType(MediaType.APPLICATION_JSON); // so ApiError.from decodes it like a real error body
+    }
+    HttpStatus status = HttpStatus.resolve(result.status());
+    WebClientResponseException ex = WebClientResponseException.create(result.status(),
+        status != null ? status.getReasonPhrase() : "", headers, body, StandardCharsets.UTF_8);
+    ex.setBodyDecodeFunction(type -> {
+      try {
+        return OrdersJson.objectMapper().readValue(body, OrdersJson.objectMapper().constructType(type.getType()));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    return ex;
+  }
+}
@@ -0,0 +1,108 @@
+package com.example.orders;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses request bodies for {@code Content-Encoding: gzip} or {@code deflate}.
+ * <p>
+ * {@code GZIPOutputStream} allocates a {@link Deflater}, with its native zlib state, per stream.
+ * This class keeps a small pool of them instead and writes the gzip header and trailer itself, so
+ * a steady stream of writes reuses the same few deflaters. Bodies under the threshold are sent as
+ * they are: for small JSON documents the framing costs more than compression saves.
+ */
+public class RequestCompressor {
+
+  public enum Encoding {
+    NONE, GZIP, DEFLATE
+  }
+
+  // RFC 1952 header: magic, CM=deflate, no flags, no mtime, no extra flags, OS unknown
+  private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+  private final Encoding encoding;
+  private final int level;
+  private final int threshold;
+  private final BlockingQueue<Deflater> pool;
+
+  /**
+   * @param level     1 (fastest) to 9 (smallest)
+   * @param threshold smallest body, in bytes, that is compressed
+   */
+  public RequestCompressor(Encoding encoding, int level, int threshold) {
+    if (encoding == Encoding.NONE) {
+      throw new IllegalArgumentException("encoding must be GZIP or DEFLATE");
+    }
+    this.encoding = encoding;
+    this.level = level;
+    this.threshold = threshold;
+    this.pool = new ArrayBlockingQueue<>(2 * Runtime.getRuntime().availableProcessors());
+  }
+
+  /** The {@code Content-Encoding} value for compressed bodies. */
+  public String contentEncoding() {
+    return encoding == Encoding.GZIP ? "gzip" : "deflate";
+  }
+
+  public boolean shouldCompress(int length) {
+    return length >= threshold;
+  }
+
+  public byte[] compress(byte[] body) {
+    Deflater deflater = pool.poll();
+    if (deflater == null) {
+      // gzip wraps raw deflate data itself; "deflate" is the zlib format (RFC 1950)
+      deflater = new Deflater(level, encoding == Encoding.GZIP);
+    }
+    try {
+      deflater.setInput(body);
+      deflater.finish();
+      boolean gzip = encoding == Encoding.GZIP;
+      byte[] out = new byte[body.length / 2 + 64];
+      int length = 0;
+      if (gzip) {
+        System.arraycopy(GZIP_HEADER, 0, out, 0, GZIP_HEADER.length);
+        length = GZIP_HEADER.length;
+      }
+      while (!deflater.finished()) {
+        if (length == out.length) {
+          out = Arrays.copyOf(out, out.length * 2);
+        }
+        length += deflater.deflate(out, length, out.length - length);
+      }
+      if (gzip) {
+        if (length + 8 > out.length) {
+          out = Arrays.copyOf(out, length + 8);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        writeIntLe(out, length, (int) crc.getValue());
+        writeIntLe(out, length + 4, body.length);
+        length += 8;
+      }
+      return length == out.length ? out : Arrays.copyOf(out, length);
+    } finally {
+      deflater.reset();
+      if (!pool.offer(deflater)) {
+        deflater.end();
+      }
+    }
+  }
+
+  /** Releases the native memory of the pooled deflaters. */
+  public void dispose() {
+    for (Deflater deflater = pool.poll(); deflater != null; deflater = pool.poll()) {
+      deflater.end();
+    }
+  }
+
+  private static void writeIntLe(byte[] out, int offset, int value) {
+    out[offset] = (byte) value;
+    out[offset + 1] = (byte) (value >>> 8);
+    out[offset + 2] = (byte) (value >>> 16);
+    out[offset + 3] = (byte) (value >>> 24);
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.orders;
+
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lets exchange filters track a request until its response body is done, not just until the
+ * headers arrive: a streamed or large body holds its connection for as long as it is read.
+ */
+final class ResponseBodies {
+
+  private ResponseBodies() {
+  }
+
+  /**
+   * Runs {@code done} once: when the response body completes, fails or is cancelled (releasing an
+   * unread body counts), or when the exchange itself fails, is cancelled or yields no response.
+   */
+  static Mono<ClientResponse> whenBodyDone(Mono<ClientResponse> exchange, Runnable done) {
+    AtomicBoolean pending = new AtomicBoolean(true);
+    Runnable once = () -> {
+      if (pending.getAndSet(false)) {
+        done.run();
+      }
+    };
+    return exchange
+        // before the terminal signal travels on, so a caller that has its value sees the release
+        .map(response -> response.mutate().body(body -> body.doOnTerminate(once).doOnCancel(once)).build())
+        .doOnSuccess(response -> {
+          if (response == null) {
+            once.run();
+          }
+        })
+        .doOnError(error -> once.run())
+        .doOnCancel(once);
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.orders;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one in-flight {@link Mono}.
+ * <p>
+ * The first caller for a key installs a shared Mono; callers arriving while it is still running
+ * subscribe to that same Mono instead of starting their own call. The entry is removed as soon as
+ * the call completes, errors or is cancelled by all subscribers, so results are never cached
+ * beyond the lifetime of the request.
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+  private final LongAdder coalesced = new LongAdder();
+
+  public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+    return Mono.defer(() -> {
+      Mono<V> existing = inFlight.get(key);
+      if (existing != null) {
+        coalesced.increment();
+        return existing;
+      }
+      Mono<V> flight = newFlight(key, call);
+      existing = inFlight.putIfAbsent(key, flight);
+      if (existing != null) {
+        coalesced.increment();
+        return existing;
+      }
+      return flight;
+    });
+  }
+
+  /** Calls that joined an existing flight instead of issuing their own. */
+  public long coalescedCount() {
+    return coalesced.sum();
+  }
+
+  public int inFlightCount() {
+    return inFlight.size();
+  }
+
+  private Mono<V> newFlight(K key, Supplier<Mono<V>> call) {
+    AtomicReference<Mono<V>> self = new AtomicReference<>();
+    Mono<V> flight = Mono.defer(call)
+        .doFinally(signal -> inFlight.remove(key, self.get()))
+        .share();
+    self.set(flight);
+    return flight;
+  }
+}
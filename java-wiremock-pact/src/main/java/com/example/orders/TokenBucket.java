@@ -0,0 +1,51 @@
+package com.example.orders;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its "virtual scheduling" form: instead of counting tokens it keeps
+ * the time at which the next token becomes available, and each caller reserves the next slot
+ * with a single CAS. Callers are delayed, never rejected.
+ */
+public class TokenBucket {
+
+  private final long intervalNanos;
+  private final long burstNanos;
+  private final AtomicLong nextFree;
+
+  /**
+   * @param permitsPerSecond sustained rate
+   * @param burst            permits that may be taken back to back after the bucket sat idle
+   */
+  public TokenBucket(double permitsPerSecond, int burst) {
+    if (permitsPerSecond <= 0 || burst < 1) {
+      throw new IllegalArgumentException("permitsPerSecond must be > 0 and burst >= 1");
+    }
+    this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+    this.burstNanos = (burst - 1) * intervalNanos;
+    this.nextFree = new AtomicLong(System.nanoTime() - burstNanos);
+  }
+
+  /** Reserves one permit and returns how long the caller has to wait before using it. */
+  public Duration reserve() {
+    long now = System.nanoTime();
+    while (true) {
+      long next = nextFree.get();
+      long slot = Math.max(next, now - burstNanos);
+      if (nextFree.compareAndSet(next, slot + intervalNanos)) {
+        return Duration.ofNanos(Math.max(0, slot - now));
+      }
+    }
+  }
+
+  /** Completes once a permit is available; the permit is reserved at subscription time. */
+  public Mono<Void> acquire() {
+    return Mono.defer(() -> {
+      Duration wait = reserve();
+      return wait.isZero() ? Mono.empty() : Mono.delay(wait).then();
+    });
+  }
+}
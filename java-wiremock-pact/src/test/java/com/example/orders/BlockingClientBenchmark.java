@@ -0,0 +1,148 @@
+package com.example.orders;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 10,000 concurrent callers each doing one {@code findOrder} against a provider that answers after
+ * {@value #LATENCY_MS} ms, in three setups: the reactive client with {@code flatMap}, the
+ * {@link BlockingOrdersClient} on a pool of {@value #PLATFORM_THREADS} platform threads, and the
+ * blocking client on one virtual thread per caller (Java 21+ only). Reports throughput and the
+ * peak number of live JVM threads.
+ * Run on demand: {@code mvn test -Dtest=BlockingClientBenchmark -Dcodegen.skip=true}.
+ */
+public class BlockingClientBenchmark {
+
+  private static final int CALLERS = 10_000;
+  private static final int CONNECTIONS = 500;
+  private static final int PLATFORM_THREADS = 200;
+  private static final long LATENCY_MS = 50;
+  private static final byte[] ORDER = """
+      {"id":1,"customerName":"Alice","status":"NEW","totalAmount":120.5}""".getBytes(StandardCharsets.UTF_8);
+
+  private static DisposableServer provider;
+  private static OrdersClient client;
+  private static BlockingOrdersClient blocking;
+
+  @BeforeAll
+  static void start() {
+    provider = HttpServer.create()
+        .host("127.0.0.1")
+        .port(0)
+        .route(routes -> routes.get("/orders/{id}", (request, response) -> response
+            .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+            .header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(ORDER.length))
+            .sendByteArray(Mono.delay(Duration.ofMillis(LATENCY_MS)).thenReturn(ORDER))))
+        .bindNow();
+    OrdersClientProperties properties = new OrdersClientProperties();
+    properties.setBaseUrl("http://127.0.0.1:" + provider.port());
+    properties.getPool().setMaxConnections(CONNECTIONS);
+    properties.getPool().setPendingAcquireMaxCount(-1);
+    properties.getPool().setPendingAcquireTimeout(Duration.ofMinutes(1));
+    client = new OrdersClient(WebClientConfig.builder(), properties);
+    // room for every caller: this measures the threading model, not the backpressure
+    blocking = new BlockingOrdersClient(client, CALLERS, Duration.ofMinutes(1));
+    run("warm-up", () -> reactive(1_000));
+  }
+
+  @AfterAll
+  static void stop() {
+    client.destroy();
+    provider.disposeNow();
+  }
+
+  @Test
+  void reactiveFlatMap() {
+    run("reactive flatMap", () -> reactive(CALLERS));
+  }
+
+  @Test
+  void blockingOnPlatformThreads() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(PLATFORM_THREADS);
+    try {
+      run("blocking, " + PLATFORM_THREADS + " platform threads", () -> blocking(pool));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void blockingOnVirtualThreads() throws Exception {
+    assumeTrue(BlockingOrdersClient.virtualThreadsAvailable(), "virtual threads need Java 21+");
+    ExecutorService perCaller = BlockingOrdersClient.newCallerExecutor(PLATFORM_THREADS);
+    try {
+      run("blocking, virtual thread per caller", () -> blocking(perCaller));
+    } finally {
+      perCaller.shutdownNow();
+    }
+  }
+
+  private static int reactive(int callers) {
+    AtomicInteger ok = new AtomicInteger();
+    Flux.range(0, callers)
+        .flatMap(i -> client.findOrder(i), callers)
+        .doOnNext(order -> ok.incrementAndGet())
+        .blockLast();
+    return ok.get();
+  }
+
+  private static int blocking(ExecutorService callers) {
+    List<Future<Order>> calls = new ArrayList<>(CALLERS);
+    for (int i = 0; i < CALLERS; i++) {
+      long id = i;
+      calls.add(callers.submit(() -> blocking.findOrder(id)));
+    }
+    int ok = 0;
+    for (Future<Order> call : calls) {
+      try {
+        if (call.get() != null) {
+          ok++;
+        }
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    return ok;
+  }
+
+  private interface Setup {
+    int run() throws Exception;
+  }
+
+  private static void run(String name, Setup setup) {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    threads.resetPeakThreadCount();
+    long start = System.nanoTime();
+    int ok;
+    try {
+      ok = setup.run();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+    long nanos = System.nanoTime() - start;
+    System.out.printf("%-40s %,6d calls in %,5d ms = %,7.0f req/s, peak JVM threads %d%n",
+        name, ok, nanos / 1_000_000, ok * 1e9 / nanos, threads.getPeakThreadCount());
+    assertThat(ok).isPositive();
+    assertThat(blocking.inFlight()).isZero();
+  }
+}
@@ -0,0 +1,155 @@
+package com.example.orders;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes on the wire and client CPU per request for {@code orders.compression.*}:
+ * <ul>
+ *   <li>requests: {@code createOrder} with 1 to 1000 items, uncompressed, gzip and deflate. The
+ *   exchange is in memory, so the body is serialized, compressed and written on the calling thread
+ *   and its thread CPU time is the client's whole cost</li>
+ *   <li>responses: gzip size and inflate cost of {@code GET /orders} arrays of 10 to 10000 orders</li>
+ * </ul>
+ * Run on demand: {@code mvn test -Dtest=CompressionBenchmark}.
+ */
+public class CompressionBenchmark {
+
+  private static final int[] ITEMS = {1, 10, 100, 1_000};
+  private static final int[] ORDERS = {10, 100, 1_000, 10_000};
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+  private static final String CREATED = """
+      {"id":2,"customerName":"Bob","status":"NEW","totalAmount":100.0}
+      """;
+
+  @Test
+  void requestBodies() {
+    System.out.println("request  items  encoding        wire bytes   cpu us/request");
+    for (int items : ITEMS) {
+      OrderCreate body = new OrderCreate("Bob", IntStream.range(0, items)
+          .mapToObj(i -> new Item("SKU-" + i, 1 + i % 5, 9.99 + i))
+          .toList());
+      long plain = 0;
+      for (RequestCompressor.Encoding encoding : RequestCompressor.Encoding.values()) {
+        long[] result = run(encoding, body, Math.max(200, 20_000 / items));
+        System.out.printf("         %5d  %-8s  %,16d   %,14.1f%n", items, encoding, result[0], result[1] / 1_000.0);
+        if (encoding == RequestCompressor.Encoding.NONE) {
+          plain = result[0];
+        } else if (items >= 10) {
+          assertThat(result[0]).isLessThan(plain / 2);
+        }
+      }
+    }
+  }
+
+  @Test
+  void responseBodies() throws IOException {
+    RequestCompressor gzip = new RequestCompressor(RequestCompressor.Encoding.GZIP, 6, 0);
+    System.out.println("response orders  json bytes   gzip bytes   inflate us/response");
+    for (int orders : ORDERS) {
+      byte[] json = OrderDecodingBenchmark.ordersArray(orders);
+      byte[] compressed = gzip.compress(json);
+      int rounds = Math.max(20, 200_000 / orders);
+      for (int i = 0; i < rounds; i++) { // warm-up
+        inflate(compressed);
+      }
+      long start = THREADS.getCurrentThreadCpuTime();
+      for (int i = 0; i < rounds; i++) {
+        assertThat(inflate(compressed)).isEqualTo(json.length);
+      }
+      long cpu = (THREADS.getCurrentThreadCpuTime() - start) / rounds;
+      System.out.printf("         %6d  %,10d   %,10d   %,19.1f%n", orders, json.length, compressed.length, cpu / 1_000.0);
+      assertThat(compressed.length).isLessThan(json.length / 4);
+    }
+    gzip.dispose();
+  }
+
+  /** @return mean bytes written per request and client CPU nanos per request */
+  private static long[] run(RequestCompressor.Encoding encoding, OrderCreate body, int requests) {
+    ExchangeStrategies strategies = ExchangeStrategies.builder().codecs(OrdersJson::configure).build();
+    AtomicLong wireBytes = new AtomicLong();
+    BodyInserter.Context context = new BodyInserter.Context() {
+      @Override
+      public List<HttpMessageWriter<?>> messageWriters() {
+        return strategies.messageWriters();
+      }
+
+      @Override
+      public Optional<ServerHttpRequest> serverRequest() {
+        return Optional.empty();
+      }
+
+      @Override
+      public Map<String, Object> hints() {
+        return Map.of();
+      }
+    };
+    ExchangeFunction inMemory = request -> {
+      MockClientHttpRequest sent = new MockClientHttpRequest(request.method(), request.url());
+      return request.body().insert(sent, context)
+          .then(Mono.defer(() -> DataBufferUtils.join(sent.getBody())))
+          .map(buffer -> {
+            wireBytes.addAndGet(buffer.readableByteCount());
+            DataBufferUtils.release(buffer);
+            return ClientResponse.create(HttpStatus.CREATED, strategies)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(CREATED)
+                .build();
+          });
+    };
+    OrdersClientProperties properties = new OrdersClientProperties();
+    properties.getCompression().setRequest(encoding);
+    properties.getCompression().setRequestThreshold(0);
+    OrdersClient client = new OrdersClient(WebClientConfig.builder().exchangeFunction(inMemory), properties);
+    try {
+      for (int i = 0; i < requests; i++) { // warm-up
+        client.createOrder(body).block();
+      }
+      wireBytes.set(0);
+      long start = THREADS.getCurrentThreadCpuTime();
+      for (int i = 0; i < requests; i++) {
+        assertThat(client.createOrder(body).block().id()).isEqualTo(2L);
+      }
+      long cpu = THREADS.getCurrentThreadCpuTime() - start;
+      return new long[] {wireBytes.get() / requests, cpu / requests};
+    } finally {
+      client.destroy();
+    }
+  }
+
+  private static int inflate(byte[] gzip) throws IOException {
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip), 8192)) {
+      byte[] buffer = new byte[8192];
+      int total = 0;
+      for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+        total += read;
+      }
+      return total;
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.orders;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of bulk {@code getOrders} vs the {@code getOrder(id).block()} loop it replaces,
+ * against a WireMock stub with a small fixed latency.
+ * Run on demand: {@code mvn test -Dtest=GetOrdersBenchmark}.
+ */
+public class GetOrdersBenchmark {
+
+  private static final int IDS = 500;
+  private static final int LATENCY_MS = 5;
+
+  @RegisterExtension
+  static SharedOrdersWireMock wiremock = new SharedOrdersWireMock();
+
+  @Test
+  void bulkVsSequential() {
+    wiremock.stubFor(get(urlPathMatching("/bulk/orders/\\d+"))
+            .willReturn(okJson("""
+        {"id":1,"customerName":"Alice","status":"NEW","totalAmount":120.5}
+        """).withFixedDelay(LATENCY_MS)));
+
+    OrdersClientProperties properties = new OrdersClientProperties();
+    properties.setBaseUrl(wiremock.baseUrl("/bulk"));
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), properties);
+    List<Long> ids = LongStream.rangeClosed(1, IDS).boxed().toList();
+
+    try {
+      sequential(client, ids); // warm-up
+      long sequentialNanos = sequential(client, ids);
+      for (int concurrency : new int[] {8, 32, 64}) {
+        bulk(client, ids, concurrency); // warm-up
+        long bulkNanos = bulk(client, ids, concurrency);
+        System.out.printf("getOrders(maxConcurrency=%d): %,.0f ids/s (%.1fx sequential)%n",
+            concurrency, rate(bulkNanos), (double) sequentialNanos / bulkNanos);
+      }
+      System.out.printf("sequential getOrder().block(): %,.0f ids/s%n", rate(sequentialNanos));
+    } finally {
+      client.destroy();
+    }
+  }
+
+  private static long sequential(OrdersClient client, List<Long> ids) {
+    long start = System.nanoTime();
+    for (long id : ids) {
+      client.getOrder(id).block();
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static long bulk(OrdersClient client, List<Long> ids, int concurrency) {
+    long start = System.nanoTime();
+    long found = client.getOrders(ids, concurrency).filter(OrderResult::isFound).count().block();
+    long elapsed = System.nanoTime() - start;
+    assertThat(found).isEqualTo(ids.size());
+    return elapsed;
+  }
+
+  private static double rate(long nanos) {
+    return IDS * 1e9 / nanos;
+  }
+}
@@ -0,0 +1,179 @@
+package com.example.orders;
+
+import com.github.tomakehurst.wiremock.common.url.PathTemplate;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.matching.MatchResult;
+import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.store.StubMappingStore;
+import com.github.tomakehurst.wiremock.stubbing.SortedConcurrentMappingSet;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.SubEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * WireMock stub store that finds candidate stubs by method and path instead of matching every
+ * stub against every request:
+ * <ul>
+ *   <li>{@code urlPath}/{@code url} stubs: hash lookup on {@code "METHOD /path"}</li>
+ *   <li>{@code urlPathTemplate}, {@code urlPathPattern} and {@code urlPattern} stubs: grouped by
+ *   method and template/regex, so each distinct template is tested once per request</li>
+ *   <li>anything else (any URL): always a candidate</li>
+ * </ul>
+ * Candidates then go through WireMock's full {@link RequestPattern#match} in WireMock's own order
+ * (priority, then newest first), so the selected stub is the same as with the default store.
+ */
+class IndexedStubMappingStore implements StubMappingStore {
+
+  private static final Comparator<StubMapping> WIREMOCK_ORDER = (a, b) -> {
+    int priority = a.comparePriorityWith(b);
+    return priority != 0 ? priority : Long.compare(b.getInsertionIndex(), a.getInsertionIndex());
+  };
+
+  private record Group(RequestMethod method, Predicate<String> path, boolean fullUrl, Set<StubMapping> stubs) {
+  }
+
+  // assigns insertion indexes and keeps getAll() in WireMock order
+  private final SortedConcurrentMappingSet all = new SortedConcurrentMappingSet();
+  private final Map<UUID, StubMapping> byId = new ConcurrentHashMap<>();
+  private final Map<String, Set<StubMapping>> exact = new ConcurrentHashMap<>();
+  private final Map<String, Group> groups = new ConcurrentHashMap<>();
+  private final Set<StubMapping> unindexed = ConcurrentHashMap.newKeySet();
+
+  @Override
+  public Stream<StubMapping> getAll() {
+    return all.stream();
+  }
+
+  @Override
+  public Optional<StubMapping> get(UUID id) {
+    return Optional.ofNullable(byId.get(id));
+  }
+
+  @Override
+  public Stream<StubMapping> findAllMatchingRequest(Request request, Map<String, RequestMatcherExtension> customMatchers,
+      Consumer<SubEvent> subEventConsumer) {
+    String url = request.getUrl();
+    int query = url.indexOf('?');
+    String path = query < 0 ? url : url.substring(0, query);
+    RequestMethod method = request.getMethod();
+
+    List<StubMapping> candidates = new ArrayList<>(unindexed);
+    addAll(candidates, exact.get(key(method, path)));
+    addAll(candidates, exact.get(key(RequestMethod.ANY, path)));
+    for (Group group : groups.values()) {
+      if ((group.method().equals(RequestMethod.ANY) || group.method().equals(method))
+          && group.path().test(group.fullUrl() ? url : path)) {
+        candidates.addAll(group.stubs());
+      }
+    }
+    candidates.sort(WIREMOCK_ORDER);
+    return candidates.stream()
+        .filter(stub -> {
+          MatchResult result = stub.getRequest().match(request, customMatchers);
+          result.getSubEvents().forEach(subEventConsumer);
+          return result.isExactMatch();
+        });
+  }
+
+  @Override
+  public void add(StubMapping stub) {
+    all.add(stub);
+    byId.put(stub.getId(), stub);
+    index(stub);
+  }
+
+  @Override
+  public void replace(StubMapping existing, StubMapping updated) {
+    if (all.replace(existing, updated)) {
+      unindex(existing);
+      byId.remove(existing.getId());
+      byId.put(updated.getId(), updated);
+      index(updated);
+    }
+  }
+
+  @Override
+  public void remove(StubMapping stub) {
+    if (all.remove(stub)) {
+      byId.remove(stub.getId());
+      unindex(stub);
+    }
+  }
+
+  @Override
+  public void clear() {
+    all.clear();
+    byId.clear();
+    exact.clear();
+    groups.clear();
+    unindexed.clear();
+  }
+
+  private void index(StubMapping stub) {
+    RequestPattern pattern = stub.getRequest();
+    RequestMethod method = pattern.getMethod() == null ? RequestMethod.ANY : pattern.getMethod();
+    String exactPath = exactPath(pattern);
+    if (exactPath != null) {
+      exact.computeIfAbsent(key(method, exactPath), k -> ConcurrentHashMap.newKeySet()).add(stub);
+    } else if (pattern.getUrlPathTemplate() != null) {
+      group(method, "template", pattern.getUrlPathTemplate(), false,
+          new PathTemplate(pattern.getUrlPathTemplate())::matches).add(stub);
+    } else if (pattern.getUrlPathPattern() != null) {
+      group(method, "path-regex", pattern.getUrlPathPattern(), false,
+          Pattern.compile(pattern.getUrlPathPattern()).asMatchPredicate()).add(stub);
+    } else if (pattern.getUrlPattern() != null) {
+      group(method, "url-regex", pattern.getUrlPattern(), true,
+          Pattern.compile(pattern.getUrlPattern()).asMatchPredicate()).add(stub);
+    } else {
+      unindexed.add(stub);
+    }
+  }
+
+  private void unindex(StubMapping stub) {
+    unindexed.remove(stub);
+    exact.values().forEach(stubs -> stubs.remove(stub));
+    groups.values().forEach(group -> group.stubs().remove(stub));
+  }
+
+  private Set<StubMapping> group(RequestMethod method, String kind, String expression, boolean fullUrl,
+      Predicate<String> matcher) {
+    return groups.computeIfAbsent(method.getName() + " " + kind + " " + expression,
+        k -> new Group(method, matcher, fullUrl, ConcurrentHashMap.newKeySet())).stubs();
+  }
+
+  private static String exactPath(RequestPattern pattern) {
+    if (pattern.getUrlPath() != null) {
+      return pattern.getUrlPath();
+    }
+    String url = pattern.getUrl();
+    if (url == null) {
+      return null;
+    }
+    int query = url.indexOf('?');
+    return query < 0 ? url : url.substring(0, query);
+  }
+
+  private static String key(RequestMethod method, String path) {
+    return method.getName() + " " + path;
+  }
+
+  private static void addAll(List<StubMapping> candidates, Set<StubMapping> stubs) {
+    if (stubs != null) {
+      candidates.addAll(stubs);
+    }
+  }
+}
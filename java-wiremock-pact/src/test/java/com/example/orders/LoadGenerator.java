@@ -0,0 +1,234 @@
+package com.example.orders;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Drives a weighted mix of calls in one of two ways:
+ * <ul>
+ *   <li>open loop: requests start on a fixed schedule regardless of how many are still in flight;
+ *   latency is measured from the <em>intended</em> start, so a stall is charged to every request
+ *   that should have started during it (no coordinated omission)</li>
+ *   <li>closed loop: a fixed number of workers each wait for their previous call; latencies are
+ *   corrected with HdrHistogram's expected-interval back-fill, using the mean latency seen during
+ *   warm-up as the interval</li>
+ * </ul>
+ * Both also keep the uncorrected service time for comparison.
+ */
+final class LoadGenerator {
+
+  record Operation(String name, int weight, Supplier<Mono<?>> call) {
+  }
+
+  private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+  private final List<Operation> mix;
+  private final int totalWeight;
+  private final int maxOutstanding;
+
+  /** @param maxOutstanding open-loop requests allowed in flight before new ones are counted as {@code dropped} */
+  LoadGenerator(List<Operation> mix, int maxOutstanding) {
+    this.mix = List.copyOf(mix);
+    this.totalWeight = mix.stream().mapToInt(Operation::weight).sum();
+    this.maxOutstanding = maxOutstanding;
+  }
+
+  /**
+   * Parses {@code name:weight,...} against the available operations, e.g.
+   * {@code get:70,list:20,create:4,put:3,patch:2,delete:1}.
+   */
+  static List<Operation> mix(String spec, Map<String, Supplier<Mono<?>>> operations) {
+    return Arrays.stream(spec.split(","))
+        .map(String::trim)
+        .map(entry -> {
+          String[] parts = entry.split(":");
+          Supplier<Mono<?>> call = operations.get(parts[0]);
+          if (call == null || parts.length != 2) {
+            throw new IllegalArgumentException("Unknown mix entry '" + entry + "', expected one of "
+                + operations.keySet() + " as name:weight");
+          }
+          return new Operation(parts[0], Integer.parseInt(parts[1]), call);
+        })
+        .toList();
+  }
+
+  LoadReport runOpen(double ratePerSecond, Duration warmup, Duration duration) {
+    open(ratePerSecond, warmup, new Tallies());
+    Tallies tallies = new Tallies();
+    long elapsed = open(ratePerSecond, duration, tallies);
+    return tallies.report("open", ratePerSecond, elapsed);
+  }
+
+  LoadReport runClosed(int concurrency, Duration warmup, Duration duration) {
+    Tallies warm = new Tallies();
+    closed(concurrency, warmup, warm, 0);
+    long expectedIntervalMicros = (long) warm.all.service.getMean();
+    Tallies tallies = new Tallies();
+    long elapsed = closed(concurrency, duration, tallies, expectedIntervalMicros);
+    return tallies.report("closed", concurrency, elapsed);
+  }
+
+  private long open(double ratePerSecond, Duration duration, Tallies tallies) {
+    long intervalNanos = (long) (1e9 / ratePerSecond);
+    long start = System.nanoTime();
+    long end = start + duration.toNanos();
+    AtomicInteger outstanding = new AtomicInteger();
+    for (long i = 0; ; i++) {
+      long intended = start + i * intervalNanos;
+      if (intended >= end) {
+        break;
+      }
+      long wait;
+      while ((wait = intended - System.nanoTime()) > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      Operation operation = next();
+      Tally tally = tallies.of(operation);
+      if (outstanding.get() >= maxOutstanding) {
+        tallies.error(tally, "dropped");
+        continue;
+      }
+      outstanding.incrementAndGet();
+      long sent = System.nanoTime();
+      Mono.defer(operation.call())
+          .doFinally(signal -> outstanding.decrementAndGet())
+          .subscribe(
+              value -> { },
+              error -> tallies.failure(tally, error, intended, sent, 0),
+              () -> tallies.complete(tally, intended, sent, 0));
+    }
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+    return System.nanoTime() - start;
+  }
+
+  private long closed(int concurrency, Duration duration, Tallies tallies, long expectedIntervalMicros) {
+    ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+    long start = System.nanoTime();
+    long end = start + duration.toNanos();
+    try {
+      for (int w = 0; w < concurrency; w++) {
+        workers.execute(() -> {
+          while (System.nanoTime() < end) {
+            Operation operation = next();
+            Tally tally = tallies.of(operation);
+            long sent = System.nanoTime();
+            try {
+              operation.call().get().block();
+              tallies.complete(tally, sent, sent, expectedIntervalMicros);
+            } catch (RuntimeException e) {
+              tallies.failure(tally, e, sent, sent, expectedIntervalMicros);
+            }
+          }
+        });
+      }
+      workers.shutdown();
+      workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      workers.shutdownNow();
+    }
+    return System.nanoTime() - start;
+  }
+
+  private Operation next() {
+    int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+    for (Operation operation : mix) {
+      pick -= operation.weight();
+      if (pick < 0) {
+        return operation;
+      }
+    }
+    throw new IllegalStateException("empty mix");
+  }
+
+  private static final class Tally {
+    final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    final Histogram service = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    final LongAdder count = new LongAdder();
+    final LongAdder errors = new LongAdder();
+
+    void record(long latencyMicros, long serviceMicros, long expectedIntervalMicros) {
+      count.increment();
+      latency.recordValueWithExpectedInterval(Math.min(latencyMicros, MAX_LATENCY_MICROS), expectedIntervalMicros);
+      service.recordValue(Math.min(serviceMicros, MAX_LATENCY_MICROS));
+    }
+  }
+
+  private final class Tallies {
+    final Tally all = new Tally();
+    final Map<String, Tally> byOperation = new ConcurrentHashMap<>();
+    final Map<String, LongAdder> errorKinds = new ConcurrentHashMap<>();
+
+    Tally of(Operation operation) {
+      return byOperation.computeIfAbsent(operation.name(), name -> new Tally());
+    }
+
+    void complete(Tally tally, long intended, long sent, long expectedIntervalMicros) {
+      long now = System.nanoTime();
+      long latency = TimeUnit.NANOSECONDS.toMicros(now - intended);
+      long service = TimeUnit.NANOSECONDS.toMicros(now - sent);
+      tally.record(latency, service, expectedIntervalMicros);
+      all.record(latency, service, expectedIntervalMicros);
+    }
+
+    void failure(Tally tally, Throwable error, long intended, long sent, long expectedIntervalMicros) {
+      complete(tally, intended, sent, expectedIntervalMicros);
+      error(tally, error instanceof WebClientResponseException response
+          ? String.valueOf(response.getStatusCode().value())
+          : error.getClass().getSimpleName());
+    }
+
+    void error(Tally tally, String kind) {
+      for (Tally t : List.of(tally, all)) {
+        t.errors.increment();
+        if (kind.equals("dropped")) {
+          t.count.increment();
+        }
+      }
+      errorKinds.computeIfAbsent(kind, k -> new LongAdder()).increment();
+    }
+
+    LoadReport report(String mode, double target, long elapsedNanos) {
+      double seconds = elapsedNanos / 1e9;
+      Map<String, LoadReport.OperationStats> operations = new LinkedHashMap<>();
+      for (Operation operation : mix) {
+        Tally tally = byOperation.get(operation.name());
+        if (tally != null) {
+          operations.put(operation.name(), stats(tally));
+        }
+      }
+      Map<String, Long> errors = new TreeMap<>();
+      errorKinds.forEach((kind, count) -> errors.put(kind, count.sum()));
+      return new LoadReport(mode, target, seconds, all.count.sum() / seconds, stats(all), operations, errors);
+    }
+
+    private LoadReport.OperationStats stats(Tally tally) {
+      long count = tally.count.sum();
+      long errors = tally.errors.sum();
+      return new LoadReport.OperationStats(count, errors, count == 0 ? 0 : (double) errors / count,
+          LoadReport.Latency.of(tally.latency), LoadReport.Latency.of(tally.service));
+    }
+  }
+}
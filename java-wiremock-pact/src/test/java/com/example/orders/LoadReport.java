@@ -0,0 +1,82 @@
+package com.example.orders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Result of a {@link LoadGenerator} run, written as JSON for tooling and as a self-contained HTML
+ * page for people. Latencies are in milliseconds; {@code latency} is coordinated-omission
+ * corrected, {@code serviceTime} is the raw time each call took once sent.
+ */
+record LoadReport(String mode, double target, double seconds, double achievedRate, OperationStats total,
+    Map<String, OperationStats> operations, Map<String, Long> errors) {
+
+  record OperationStats(long count, long errors, double errorRate, Latency latency, Latency serviceTime) {
+  }
+
+  record Latency(double p50, double p90, double p99, double p999, double max) {
+
+    static Latency of(Histogram micros) {
+      return new Latency(ms(micros.getValueAtPercentile(50)), ms(micros.getValueAtPercentile(90)),
+          ms(micros.getValueAtPercentile(99)), ms(micros.getValueAtPercentile(99.9)), ms(micros.getMaxValue()));
+    }
+
+    private static double ms(long micros) {
+      return micros / 1000.0;
+    }
+  }
+
+  void write(Path directory, String name) throws IOException {
+    Files.createDirectories(directory);
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+        .writeValue(directory.resolve(name + ".json").toFile(), this);
+    Files.writeString(directory.resolve(name + ".html"), html());
+  }
+
+  String summary() {
+    return String.format("%s loop, target %s: %,d requests in %.1fs (%.0f/s), errors %.2f%%, "
+            + "p50 %.2fms p99 %.2fms p99.9 %.2fms (service time p99 %.2fms)",
+        mode, "open".equals(mode) ? String.format("%.0f/s", target) : String.format("%.0f workers", target),
+        total.count(), seconds, achievedRate, total.errorRate() * 100,
+        total.latency().p50(), total.latency().p99(), total.latency().p999(), total.serviceTime().p99());
+  }
+
+  private String html() {
+    StringBuilder rows = new StringBuilder();
+    operations.forEach((name, stats) -> rows.append(row(name, stats)));
+    rows.append(row("total", total));
+    StringBuilder errorRows = new StringBuilder();
+    errors.forEach((kind, count) -> errorRows.append("<tr><td>").append(kind).append("</td><td>")
+        .append(count).append("</td></tr>\n"));
+    return """
+        <!DOCTYPE html>
+        <html><head><meta charset="utf-8"><title>OrdersClient load report</title>
+        <style>body{font-family:sans-serif}table{border-collapse:collapse}td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}</style>
+        </head><body>
+        <h1>OrdersClient load report</h1>
+        <p>%s</p>
+        <h2>Latency (ms), corrected / service time</h2>
+        <table>
+        <tr><th>operation</th><th>count</th><th>errors</th><th>p50</th><th>p90</th><th>p99</th><th>p99.9</th><th>max</th><th>service p99</th></tr>
+        %s</table>
+        <h2>Errors</h2>
+        <table><tr><th>kind</th><th>count</th></tr>
+        %s</table>
+        </body></html>
+        """.formatted(summary(), rows, errorRows);
+  }
+
+  private static String row(String name, OperationStats stats) {
+    Latency l = stats.latency();
+    return String.format("<tr><td>%s</td><td>%d</td><td>%.2f%%</td><td>%.2f</td><td>%.2f</td><td>%.2f</td>"
+            + "<td>%.2f</td><td>%.2f</td><td>%.2f</td></tr>%n",
+        name, stats.count(), stats.errorRate() * 100, l.p50(), l.p90(), l.p99(), l.p999(), l.max(),
+        stats.serviceTime().p99());
+  }
+}
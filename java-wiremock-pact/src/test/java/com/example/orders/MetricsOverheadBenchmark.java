@@ -0,0 +1,57 @@
+package com.example.orders;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-call cost of {@link OrdersClientMetrics} on a GET + decode, with the network replaced by an
+ * in-memory exchange so the filter's own overhead is not lost in I/O noise.
+ * Run on demand: {@code mvn test -Dtest=MetricsOverheadBenchmark}.
+ */
+public class MetricsOverheadBenchmark {
+
+  private static final int CALLS = 200_000;
+  private static final String ORDER = """
+      {"id":1,"customerName":"Alice","status":"NEW","totalAmount":120.5}
+      """;
+
+  @Test
+  void filterOverhead() {
+    ExchangeFunction inMemory = request -> Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.OK)
+        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .body(ORDER)
+        .build());
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    WebClient plain = WebClient.builder().exchangeFunction(inMemory).codecs(OrdersJson::configure).build();
+    WebClient metered = WebClient.builder().exchangeFunction(inMemory).codecs(OrdersJson::configure)
+        .filter(new OrdersClientMetrics(registry, "benchmark"))
+        .build();
+
+    for (int round = 0; round < 3; round++) { // the first rounds are warm-up
+      long plainNanos = run(plain);
+      long meteredNanos = run(metered);
+      System.out.printf("round %d: plain %,d ns/call, metered %,d ns/call, overhead %,d ns/call%n",
+          round, plainNanos / CALLS, meteredNanos / CALLS, (meteredNanos - plainNanos) / CALLS);
+    }
+    assertThat(registry.get("orders.client.requests").tag("operation", "get").timer().count())
+        .isEqualTo(3L * CALLS);
+  }
+
+  private static long run(WebClient webClient) {
+    long start = System.nanoTime();
+    for (int i = 0; i < CALLS; i++) {
+      Order order = webClient.get().uri("/orders/{id}", 1).retrieve().bodyToMono(Order.class).block();
+      assertThat(order.id()).isEqualTo(1L);
+    }
+    return System.nanoTime() - start;
+  }
+}
@@ -0,0 +1,61 @@
+package com.example.orders;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderCacheTest {
+
+  private final OrderCache<String> cache = new OrderCache<>(100, Duration.ofMinutes(1), Duration.ofMinutes(10), UnaryOperator.identity());
+
+  @Test
+  void writeToAnotherIdDoesNotDropAnInFlightRead() {
+    long stamp = cache.stamp();
+    cache.invalidate(2);
+    cache.store(1, "\"v1\"", "order 1", stamp);
+
+    assertThat(cache.fresh(1)).isEqualTo("order 1");
+  }
+
+  @Test
+  void writeToTheSameIdDropsAnInFlightRead() {
+    long stamp = cache.stamp();
+    cache.invalidate(1);
+    cache.store(1, "\"v1\"", "order 1 before the write", stamp);
+    assertThat(cache.fresh(1)).isNull();
+
+    // a read started after the write is stored
+    cache.store(1, "\"v2\"", "order 1", cache.stamp());
+    assertThat(cache.fresh(1)).isEqualTo("order 1");
+  }
+
+  @Test
+  void revalidationAfterAWriteIsNotStored() {
+    cache.store(1, "\"v1\"", "order 1", cache.stamp());
+    OrderCache.Entry<String> stale = cache.stale(1);
+    long stamp = cache.stamp();
+    cache.invalidate(1);
+
+    assertThat(cache.revalidated(1, stale, stamp)).isEqualTo("order 1");
+    assertThat(cache.stale(1)).isNull();
+  }
+
+  @Test
+  void staleEntriesExpire_andEntriesWithoutAnETagAsSoonAsTheyAreStale() throws InterruptedException {
+    OrderCache<String> shortLived =
+        new OrderCache<>(100, Duration.ofMillis(20), Duration.ofMillis(500), UnaryOperator.identity());
+    shortLived.store(1, "\"v1\"", "order 1", shortLived.stamp());
+    shortLived.store(2, null, "order 2", shortLived.stamp());
+
+    Thread.sleep(100);
+    assertThat(shortLived.fresh(1)).isNull();
+    assertThat(shortLived.stale(1)).isNotNull(); // still there to revalidate
+    assertThat(shortLived.stale(2)).isNull();
+
+    Thread.sleep(600);
+    assertThat(shortLived.stale(1)).isNull();
+  }
+}
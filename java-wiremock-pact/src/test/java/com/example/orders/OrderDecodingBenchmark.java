@@ -0,0 +1,119 @@
+package com.example.orders;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import reactor.core.publisher.Flux;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes allocated per decoded order, raw {@code Map} vs typed {@link Order}.
+ * Not part of the default test run (no {@code *Test} suffix); run it on demand with
+ * {@code mvn test -Dtest=OrderDecodingBenchmark -Dcodegen.skip=true}.
+ */
+public class OrderDecodingBenchmark {
+
+  private static final int ORDERS = 10_000;
+  private static final int ROUNDS = 20;
+
+  private final com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  @Test
+  void bytesAllocatedPerOrder() {
+    byte[] json = ordersArray(ORDERS);
+    Jackson2JsonDecoder decoder = new Jackson2JsonDecoder(OrdersJson.objectMapper());
+
+    long mapBytes = measure(decoder, json, Map.class);
+    long orderBytes = measure(decoder, json, Order.class);
+
+    System.out.printf("decode Map   : %,d bytes/order%n", mapBytes);
+    System.out.printf("decode Order : %,d bytes/order%n", orderBytes);
+    assertThat(orderBytes).isLessThan(mapBytes);
+  }
+
+  @Test
+  void sparseFieldsetShrinksPayloadAndDecode() {
+    byte[] full = ordersArray(ORDERS);
+    byte[] sparse = summariesArray(ORDERS);
+    Jackson2JsonDecoder decoder = new Jackson2JsonDecoder(OrdersJson.objectMapper());
+
+    long fullBytes = measure(decoder, full, Order.class);
+    long fullNanos = nanosPerOrder(decoder, full, Order.class);
+    long skippedBytes = measure(decoder, full, OrderSummary.class);
+    long skippedNanos = nanosPerOrder(decoder, full, OrderSummary.class);
+    long sparseBytes = measure(decoder, sparse, OrderSummary.class);
+    long sparseNanos = nanosPerOrder(decoder, sparse, OrderSummary.class);
+
+    System.out.printf("payload        : full %,d bytes, fields=id,status %,d bytes (%.0f%%)%n",
+        full.length, sparse.length, 100.0 * sparse.length / full.length);
+    System.out.printf("Order        <- full   : %,4d ns/order, %,4d bytes/order%n", fullNanos, fullBytes);
+    System.out.printf("OrderSummary <- full   : %,4d ns/order, %,4d bytes/order%n", skippedNanos, skippedBytes);
+    System.out.printf("OrderSummary <- sparse : %,4d ns/order, %,4d bytes/order%n", sparseNanos, sparseBytes);
+    assertThat(sparse.length).isLessThan(full.length / 2);
+    assertThat(sparseBytes).isLessThan(fullBytes);
+  }
+
+  private long nanosPerOrder(Jackson2JsonDecoder decoder, byte[] json, Class<?> type) {
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < ROUNDS; i++) {
+      long start = System.nanoTime();
+      decode(decoder, json, type);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best / ORDERS;
+  }
+
+  private long measure(Jackson2JsonDecoder decoder, byte[] json, Class<?> type) {
+    for (int i = 0; i < ROUNDS; i++) { // warm-up
+      decode(decoder, json, type);
+    }
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < ROUNDS; i++) {
+      long before = threads.getCurrentThreadAllocatedBytes();
+      decode(decoder, json, type);
+      best = Math.min(best, threads.getCurrentThreadAllocatedBytes() - before);
+    }
+    return best / ORDERS;
+  }
+
+  private static void decode(Jackson2JsonDecoder decoder, byte[] json, Class<?> type) {
+    DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(json);
+    long count = decoder.decode(Flux.just(buffer), ResolvableType.forClass(type), MediaType.APPLICATION_JSON, Map.of())
+        .count()
+        .block();
+    assertThat(count).isEqualTo(ORDERS);
+  }
+
+  static byte[] ordersArray(int n) {
+    StringBuilder sb = new StringBuilder(n * 80).append('[');
+    for (int i = 0; i < n; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append("{\"id\":").append(i + 1)
+          .append(",\"customerName\":\"Customer ").append(i)
+          .append("\",\"status\":\"NEW\",\"totalAmount\":").append(100 + i % 50).append(".5}");
+    }
+    return sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  static byte[] summariesArray(int n) {
+    StringBuilder sb = new StringBuilder(n * 30).append('[');
+    for (int i = 0; i < n; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append("{\"id\":").append(i + 1).append(",\"status\":\"NEW\"}");
+    }
+    return sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+  }
+}
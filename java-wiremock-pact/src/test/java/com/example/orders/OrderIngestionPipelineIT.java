@@ -0,0 +1,92 @@
+package com.example.orders;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderIngestionPipelineIT {
+
+  @RegisterExtension
+  static SharedOrdersWireMock wiremock = new SharedOrdersWireMock();
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void importsFile_rateLimited_withDeadLetters() throws IOException {
+    wiremock.stubFor(post(urlPathEqualTo("/ingestion/orders"))
+            .willReturn(aResponse().withStatus(201)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("""
+            {"id":10,"customerName":"Bob","status":"NEW","totalAmount":100.0}
+            """)));
+    wiremock.stubFor(post(urlPathEqualTo("/ingestion/orders"))
+            .withRequestBody(matchingJsonPath("$.customerName", equalTo("Dup")))
+            .willReturn(aResponse().withStatus(409)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("""
+            {"code":"CONFLICT","message":"Version conflict"}
+            """)));
+    wiremock.stubFor(post(urlPathEqualTo("/ingestion/orders"))
+            .withRequestBody(notContaining("\"items\""))
+            .willReturn(aResponse().withStatus(400)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("""
+            {"code":"BAD_REQUEST","message":"Invalid input"}
+            """)));
+
+    // 200 records: 4 without items (400), 8 more duplicates (409)
+    Path file = dir.resolve("orders.jsonl");
+    Files.write(file, IntStream.range(0, 200).mapToObj(i -> {
+      if (i % 50 == 49) {
+        return "{\"customerName\":\"NoItems\"}";
+      }
+      String name = i % 20 == 19 ? "Dup" : "Customer " + i;
+      return "{\"customerName\":\"" + name + "\",\"items\":[{\"sku\":\"SKU1\",\"qty\":2,\"unitPrice\":50.0}]}";
+    }).toList());
+
+    OrdersClientProperties properties = new OrdersClientProperties();
+    properties.setBaseUrl(wiremock.baseUrl("/ingestion"));
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), properties);
+    List<OrderIngestionPipeline.DeadLetter> deadLetters = new CopyOnWriteArrayList<>();
+    OrderIngestionPipeline pipeline = new OrderIngestionPipeline(client, 8, 400, deadLetters::add);
+    List<OrderIngestionPipeline.Stats> progress = new CopyOnWriteArrayList<>();
+
+    try {
+      pipeline.progress(Duration.ofMillis(100)).subscribe(progress::add);
+      long start = System.nanoTime();
+      OrderIngestionPipeline.Stats stats = pipeline.run(OrderIngestionPipeline.readJsonLines(file)).block();
+      long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+      assertThat(stats.created()).isEqualTo(188);
+      assertThat(stats.deadLettered()).isEqualTo(12);
+      assertThat(deadLetters).extracting(OrderIngestionPipeline.DeadLetter::status)
+              .containsOnly(400, 409);
+      assertThat(deadLetters).filteredOn(d -> d.status() == 409)
+              .allSatisfy(d -> assertThat(d.error().code()).isEqualTo("CONFLICT"));
+      assertThat(deadLetters).filteredOn(d -> d.status() == 400)
+              .hasSize(4)
+              .allSatisfy(d -> assertThat(d.record().items()).isNull()); // sent as is, not as "items":[]
+      wiremock.verify(200, postRequestedFor(urlPathEqualTo("/ingestion/orders")));
+
+      // 400 records/s with a burst of 8: 200 records cannot finish much sooner than 0.48 s
+      assertThat(elapsedMs).isGreaterThanOrEqualTo(450);
+      assertThat(stats.recordsPerSecond()).isPositive().isLessThanOrEqualTo(450.0);
+      assertThat(stats.p99()).isPositive();
+      assertThat(progress).isNotEmpty();
+    } finally {
+      client.destroy();
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.orders;
+
+import io.netty.channel.ChannelOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrdersClientCancellationIT {
+
+  @RegisterExtension
+  static SharedOrdersWireMock wiremock = new SharedOrdersWireMock();
+
+  @Test
+  void callsCancelledAsTheirResponseArrives_releaseTheBody() throws InterruptedException {
+    wiremock.stubFor(get(urlPathMatching("/orders/7\\d+"))
+        .willReturn(okJson("""
+        {"id":7001,"customerName":"Alice","status":"NEW","totalAmount":10.0}
+        """).withFixedDelay(20)));
+    PooledJsonBodyTest.TrackingAllocator allocator = new PooledJsonBodyTest.TrackingAllocator();
+    OrdersConnectionPool pool = new OrdersConnectionPool(properties(), null,
+        http -> http.option(ChannelOption.ALLOCATOR, allocator));
+    WebClient web = WebClient.builder().baseUrl(wiremock.baseUrl()).clientConnector(pool.connector()).build();
+    List<Throwable> dropped = new CopyOnWriteArrayList<>();
+    Hooks.onErrorDropped(dropped::add);
+    try {
+      // the race is narrow: spread the timeouts around the response so some cancels land as it is handed over
+      Flux.range(0, 2_000)
+          .flatMap(i -> web.get().uri("/orders/7{id}", i).retrieve().bodyToMono(Order.class)
+              .timeout(Duration.ofMillis(20 + i % 20))
+              .onErrorResume(error -> Mono.empty()), 16)
+          .blockLast();
+      pool.dispose();
+    } finally {
+      Hooks.resetOnErrorDropped();
+    }
+
+    // a body nobody drained would still hold its buffer after its connection closed
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (allocator.allocated.stream().anyMatch(buffer -> buffer.refCnt() > 0) && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(allocator.allocated).isNotEmpty().allSatisfy(buffer -> assertThat(buffer.refCnt()).isZero());
+    assertThat(dropped).isEmpty();
+  }
+
+  private static OrdersClientProperties properties() {
+    OrdersClientProperties properties = new OrdersClientProperties();
+    properties.setBaseUrl(wiremock.baseUrl());
+    properties.getCompression().setResponse(false); // the decompressor would copy the body out of our allocator
+    return properties;
+  }
+}
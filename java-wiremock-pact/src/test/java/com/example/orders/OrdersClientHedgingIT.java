@@ -0,0 +1,95 @@
+package com.example.orders;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.parallel.Isolated;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Isolated // compares p99 latency with and without hedging
+public class OrdersClientHedgingIT {
+
+  private static final int CALLS = 600;
+
+  @RegisterExtension
+  static SharedOrdersWireMock wiremock = new SharedOrdersWireMock();
+
+  @BeforeEach
+  void setup() {
+    // median 20 ms with a long right tail: p99 of a single attempt is ~200 ms
+    wiremock.stubFor(get(urlPathMatching("/hedging/orders/\\d+"))
+            .willReturn(okJson("""
+        {"id":1,"customerName":"Alice","status":"NEW","totalAmount":120.5}
+        """).withLogNormalRandomDelay(20, 1.0)));
+    wiremock.stubFor(post(urlPathEqualTo("/hedging/orders"))
+            .willReturn(aResponse().withStatus(201)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("""
+            {"id":2,"customerName":"Bob","status":"NEW","totalAmount":100.0}
+            """)
+                    .withLogNormalRandomDelay(200, 0.1)));
+  }
+
+  @Test
+  void hedging_cutsP99() {
+    OrdersClient plain = client(false);
+    OrdersClient hedged = client(true);
+    try {
+      run(plain); // warm-up
+      run(hedged);
+      long plainP99 = run(plain).getValueAtPercentile(99);
+      long hedgedP99 = run(hedged).getValueAtPercentile(99);
+
+      System.out.printf("p99 getOrder: plain %d ms, hedged %d ms (delay %s, %d backups)%n",
+          plainP99, hedgedP99, hedged.hedging().currentDelay(), hedged.hedging().hedgedCount());
+      assertThat(hedgedP99).isLessThan(plainP99 * 3 / 4);
+      assertThat(hedged.hedging().hedgedCount()).isBetween(1L, (long) CALLS);
+    } finally {
+      plain.destroy();
+      hedged.destroy();
+    }
+  }
+
+  @Test
+  void hedging_neverAppliesToCreateOrder() {
+    OrdersClient hedged = client(true);
+    try {
+      hedged.createOrder(new OrderCreate("Bob", List.of(new Item("SKU1", 2, 50.0)))).block();
+      wiremock.verify(1, postRequestedFor(urlPathEqualTo("/hedging/orders")));
+      assertThat(hedged.hedging().hedgedCount()).isZero();
+    } finally {
+      hedged.destroy();
+    }
+  }
+
+  private static OrdersClient client(boolean hedging) {
+    OrdersClientProperties properties = new OrdersClientProperties();
+    properties.setBaseUrl(wiremock.baseUrl("/hedging"));
+    properties.getHedging().setEnabled(hedging);
+    properties.getHedging().setPercentile(90);
+    properties.getHedging().setInitialDelay(Duration.ofMillis(30));
+    properties.getHedging().setWindow(Duration.ofMillis(200));
+    return new OrdersClient(WebClientConfig.builder(), properties);
+  }
+
+  // low concurrency keeps a small box from becoming CPU-bound, which would hide the tail we hedge
+  private static Histogram run(OrdersClient client) {
+    Histogram latencyMs = new ConcurrentHistogram(3);
+    Flux.range(0, CALLS)
+        .flatMap(i -> {
+          long start = System.nanoTime();
+          return client.findOrder(i)
+              .doOnSuccess(o -> latencyMs.recordValue((System.nanoTime() - start) / 1_000_000));
+        }, 4)
+        .blockLast();
+    return latencyMs;
+  }
+}
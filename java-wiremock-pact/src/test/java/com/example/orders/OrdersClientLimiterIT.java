@@ -0,0 +1,118 @@
+package com.example.orders;
+
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.parallel.Isolated;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Isolated // compares p90 latency with and without the limiter
+public class OrdersClientLimiterIT {
+
+  private static final int CALLS = 400;
+  private static final int CALLERS = 100;
+
+  @RegisterExtension
+  static SharedOrdersWireMock wiremock = new SharedOrdersWireMock();
+
+  @BeforeEach
+  void setup() {
+    wiremock.stubFor(get(urlPathMatching("/limiter/orders/\\d+"))
+            .withServeEventListener(SharedOrdersWireMock.LoadSensitiveDelay.NAME, Parameters.empty())
+            .willReturn(okJson("""
+        {"id":1,"customerName":"Alice","status":"NEW","totalAmount":120.5}
+        """).withTransformers(SharedOrdersWireMock.LoadSensitiveDelay.NAME)));
+  }
+
+  @Test
+  void limiter_shrinksLimitAndShedsLoad_whenLatencyRisesWithConcurrency() {
+    OrdersClient unlimited = client(false);
+    OrdersClient limited = client(true);
+    try {
+      List<Throwable> unlimitedErrors = new CopyOnWriteArrayList<>();
+      List<Throwable> limitedErrors = new CopyOnWriteArrayList<>();
+      long unlimitedP90 = run(unlimited, unlimitedErrors).getValueAtPercentile(90);
+      long limitedP90 = run(limited, limitedErrors).getValueAtPercentile(90);
+      AdaptiveConcurrencyLimiter limiter = limited.limiter();
+
+      System.out.printf("p90 getOrder: unlimited %d ms, limited %d ms (limit %d, %d shed)%n",
+          unlimitedP90, limitedP90, limiter.limit(), limiter.rejectedCount());
+      assertThat(unlimitedErrors).isEmpty();
+      assertThat(limiter.limit()).isLessThan(50);
+      assertThat(limiter.rejectedCount()).isPositive();
+      assertThat(limitedErrors).hasSize((int) limiter.rejectedCount())
+              .allMatch(e -> e instanceof OrdersOverloadedException);
+      assertThat(limitedP90).isLessThan(unlimitedP90);
+      assertThat(limiter.inFlight()).isZero();
+    } finally {
+      unlimited.destroy();
+      limited.destroy();
+    }
+  }
+
+  @Test
+  void limiter_countsARequestUntilItsBodyHasBeenRead() throws Exception {
+    // headers at once, the body dribbled over 600 ms
+    wiremock.stubFor(get(urlPathEqualTo("/limiter/orders/9000"))
+            .willReturn(okJson("""
+        {"id":9000,"customerName":"Alice","status":"NEW","totalAmount":120.5}
+        """).withChunkedDribbleDelay(4, 600)));
+    OrdersClient limited = client(true);
+    try {
+      AdaptiveConcurrencyLimiter limiter = limited.limiter();
+      CompletableFuture<Order> order = limited.findOrder(9000).toFuture();
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (wiremock.findAll(getRequestedFor(urlPathEqualTo("/limiter/orders/9000"))).isEmpty()
+          && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      Thread.sleep(200); // headers are in, the body is still arriving
+
+      assertThat(order).isNotDone();
+      assertThat(limiter.inFlight()).isEqualTo(1);
+      assertThat(order.get(5, TimeUnit.SECONDS).id()).isEqualTo(9000L);
+      assertThat(limiter.inFlight()).isZero();
+    } finally {
+      limited.destroy();
+    }
+  }
+
+  private static OrdersClient client(boolean limited) {
+    OrdersClientProperties properties = new OrdersClientProperties();
+    properties.setBaseUrl(wiremock.baseUrl("/limiter"));
+    properties.getPool().setMaxConnections(CALLERS);
+    properties.getLimiter().setEnabled(limited);
+    properties.getLimiter().setInitialLimit(50);
+    properties.getLimiter().setMinLimit(2);
+    return new OrdersClient(WebClientConfig.builder(), properties);
+  }
+
+  /** Latency of successful calls; failures are collected, not rethrown. */
+  private static Histogram run(OrdersClient client, List<Throwable> errors) {
+    Histogram latencyMs = new ConcurrentHistogram(3);
+    Flux.range(0, CALLS)
+        .flatMap(i -> {
+          long start = System.nanoTime();
+          return client.findOrder(i)
+              .doOnSuccess(o -> latencyMs.recordValue((System.nanoTime() - start) / 1_000_000))
+              .onErrorResume(e -> {
+                errors.add(e);
+                return Mono.empty();
+              });
+        }, CALLERS)
+        .blockLast();
+    return latencyMs;
+  }
+}
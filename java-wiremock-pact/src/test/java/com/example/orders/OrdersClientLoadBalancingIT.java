@@ -0,0 +1,165 @@
+package com.example.orders;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Isolated // which instance counts as slow depends on response times
+public class OrdersClientLoadBalancingIT {
+
+  private static final int CALLS = 300;
+  private static final String ORDER = """
+      {"id":1,"customerName":"Alice","status":"NEW","totalAmount":120.5}
+      """;
+
+  @RegisterExtension
+  static WireMockExtension fast1 = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
+
+  @RegisterExtension
+  static WireMockExtension fast2 = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
+
+  @RegisterExtension
+  static WireMockExtension slow = WireMockExtension.newInstance().options(wireMockConfig().dynamicPort()).build();
+
+  @BeforeEach
+  void setup() {
+    fast1.stubFor(get(urlPathMatching("/orders/\\d+")).willReturn(okJson(ORDER).withFixedDelay(5)));
+    fast2.stubFor(get(urlPathMatching("/orders/\\d+")).willReturn(okJson(ORDER).withFixedDelay(5)));
+    slow.stubFor(get(urlPathMatching("/orders/\\d+")).willReturn(okJson(ORDER).withFixedDelay(300)));
+  }
+
+  @Test
+  void leastOutstanding_movesTrafficAwayFromTheSlowInstance() {
+    assertSlowInstanceStarved(OrdersLoadBalancer.Strategy.LEAST_OUTSTANDING);
+  }
+
+  @Test
+  void powerOfTwoChoices_movesTrafficAwayFromTheSlowInstance() {
+    assertSlowInstanceStarved(OrdersLoadBalancer.Strategy.POWER_OF_TWO_CHOICES);
+  }
+
+  @Test
+  void leastOutstanding_movesTrafficAwayFromAnInstanceSlowToSendBodies() {
+    // headers at once, the body dribbled over 300 ms: outstanding until the body has been read
+    slow.stubFor(get(urlPathMatching("/orders/\\d+")).willReturn(okJson(ORDER).withChunkedDribbleDelay(4, 300)));
+    assertSlowInstanceStarved(OrdersLoadBalancer.Strategy.LEAST_OUTSTANDING);
+  }
+
+  @Test
+  void serverErrors_ejectTheInstanceUntilTheEjectionTimeHasPassed() {
+    slow.stubFor(get(urlPathMatching("/orders/\\d+")).willReturn(aResponse().withStatus(500)
+        .withHeader("Content-Type", "application/json")
+        .withBody("""
+            {"code":"SERVER_ERROR","message":"Unexpected error"}
+            """)));
+    OrdersClientProperties properties = properties(OrdersLoadBalancer.Strategy.LEAST_OUTSTANDING);
+    properties.getLoadBalancer().setEjectionTime(Duration.ofSeconds(1));
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), properties);
+    try {
+      OrdersLoadBalancer.Endpoint failing = client.balancer().endpoints().get(2);
+      Flux.range(0, 30).concatMap(i -> client.findOrder(i).onErrorResume(e -> Mono.empty())).blockLast();
+
+      assertThat(failing.ejections()).isEqualTo(1);
+      assertThat(failing.isEjected()).isTrue();
+      assertThat(slow.getAllServeEvents()).hasSize(3); // round-robin ties: every third call until ejected
+
+      await(Duration.ofMillis(1_100));
+      assertThat(failing.isEjected()).isFalse();
+      Flux.range(0, 30).concatMap(i -> client.findOrder(i).onErrorResume(e -> Mono.empty())).blockLast();
+      assertThat(failing.ejections()).isEqualTo(2);
+    } finally {
+      client.destroy();
+    }
+  }
+
+  @Test
+  void timeouts_ejectTheInstance() {
+    OrdersClientProperties properties = properties(OrdersLoadBalancer.Strategy.POWER_OF_TWO_CHOICES);
+    properties.setResponseTimeout(Duration.ofMillis(100));
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), properties);
+    try {
+      OrdersLoadBalancer.Endpoint timingOut = client.balancer().endpoints().get(2);
+      Flux.range(0, 200).concatMap(i -> client.findOrder(i).onErrorResume(e -> Mono.empty())).blockLast();
+
+      assertThat(timingOut.ejections()).isEqualTo(1);
+      assertThat(timingOut.requests()).isEqualTo(3);
+    } finally {
+      client.destroy();
+    }
+  }
+
+  @Test
+  void timeoutsFromAnExpiredDeadline_doNotEjectTheInstance() {
+    OrdersLoadBalancer balancer = new OrdersLoadBalancer("http://orders",
+        List.of("http://a", "http://b", "http://c"), OrdersLoadBalancer.Strategy.LEAST_OUTSTANDING,
+        1, Duration.ofSeconds(10), 100);
+    // the response timeout that the deadline set fires after the budget is spent
+    ExchangeFunction timingOut = request -> Mono.fromCallable(() -> {
+      await(Duration.ofMillis(60));
+      throw ReadTimeoutException.INSTANCE;
+    });
+    ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://orders/orders/1")).build();
+
+    for (int i = 0; i < 3; i++) {
+      Mono<ClientResponse> call = OrdersDeadline.within(Duration.ofMillis(30), balancer.filter(request, timingOut));
+      assertThatThrownBy(call::block).isInstanceOf(ReadTimeoutException.class);
+    }
+
+    assertThat(balancer.endpoints()).allSatisfy(endpoint -> {
+      assertThat(endpoint.requests()).isEqualTo(1);
+      assertThat(endpoint.ejections()).isZero();
+    });
+  }
+
+  private static void assertSlowInstanceStarved(OrdersLoadBalancer.Strategy strategy) {
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), properties(strategy));
+    try {
+      Flux.range(0, CALLS).flatMap(client::findOrder, 12).blockLast();
+      List<OrdersLoadBalancer.Endpoint> endpoints = client.balancer().endpoints();
+
+      System.out.printf("%s: requests per endpoint %d / %d / %d (slow last)%n", strategy,
+          endpoints.get(0).requests(), endpoints.get(1).requests(), endpoints.get(2).requests());
+      assertThat(endpoints.stream().mapToLong(OrdersLoadBalancer.Endpoint::requests).sum()).isEqualTo(CALLS);
+      // an even split would give the slow instance a third of the calls
+      long fewestFast = Math.min(endpoints.get(0).requests(), endpoints.get(1).requests());
+      assertThat(endpoints.get(2).requests()).isLessThan(fewestFast / 2).isLessThan(CALLS / 6);
+      assertThat(slow.getAllServeEvents()).hasSize((int) endpoints.get(2).requests());
+    } finally {
+      client.destroy();
+    }
+  }
+
+  private static OrdersClientProperties properties(OrdersLoadBalancer.Strategy strategy) {
+    OrdersClientProperties properties = new OrdersClientProperties();
+    properties.setEndpoints(List.of(fast1.baseUrl(), fast2.baseUrl(), slow.baseUrl()));
+    properties.getLoadBalancer().setStrategy(strategy);
+    properties.getLoadBalancer().setConsecutiveFailures(3);
+    return properties;
+  }
+
+  private static void await(Duration duration) {
+    try {
+      Thread.sleep(duration.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -9,12 +9,19 @@ import au.com.dius.pact.consumer.junit5.PactTestFor;
 import au.com.dius.pact.core.model.PactSpecVersion;
 import au.com.dius.pact.core.model.RequestResponsePact;
 import au.com.dius.pact.core.model.annotations.Pact;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -23,6 +30,14 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 @PactTestFor(providerName = "OrdersProvider")
 public class OrdersClientPactTest {
 
+  // each client owns a connection pool with background eviction
+  private final List<OrdersClient> clients = new ArrayList<>();
+
+  @AfterEach
+  void destroyClients() {
+    clients.forEach(OrdersClient::destroy);
+  }
+
   @Pact(consumer = "OrdersConsumer")
   public RequestResponsePact pactListOrders(PactDslWithProvider builder) {
     return builder
@@ -42,12 +57,92 @@ public class OrdersClientPactTest {
   @Test
   @PactTestFor(pactMethod = "pactListOrders", pactVersion = PactSpecVersion.V3)
   void testListOrders(MockServer server) {
-    System.setProperty("orders.baseUrl", server.getUrl());
-    OrdersClient client = new OrdersClient(WebClientConfig.builder());
+    OrdersClient client = client(server);
     List<Map> orders = client.listOrders(null).block();
     assertThat(orders).isNotEmpty();
   }
 
+  @Pact(consumer = "OrdersConsumer")
+  public RequestResponsePact pactListOrdersPaged(PactDslWithProvider builder) {
+    return builder
+      .uponReceiving("list orders first page")
+        .path("/orders").method("GET").query("limit=2")
+      .willRespondWith()
+        .status(200)
+        .headers(Map.of("Content-Type", "application/json"))
+        .matchHeader("X-Next-Cursor", ".+", "c2")
+        .body(PactDslJsonArray.arrayMinMaxLike(1, 2, 2)
+          .numberType("id", 1)
+          .stringMatcher("status", "NEW|PROCESSING|COMPLETED|CANCELLED", "NEW")
+          .stringType("customerName", "Alice")
+          .decimalType("totalAmount", 120.5))
+      .uponReceiving("list orders last page")
+        .path("/orders").method("GET").query("limit=2&cursor=c2")
+      .willRespondWith()
+        .status(200)
+        .headers(Map.of("Content-Type", "application/json"))
+        .body(PactDslJsonArray.arrayMaxLike(2, 1)
+          .numberType("id", 3)
+          .stringMatcher("status", "NEW|PROCESSING|COMPLETED|CANCELLED", "NEW")
+          .stringType("customerName", "Carol")
+          .decimalType("totalAmount", 10.0))
+      .toPact();
+  }
+
+  @Test
+  @PactTestFor(pactMethod = "pactListOrdersPaged", pactVersion = PactSpecVersion.V3)
+  void testPageOrders(MockServer server) {
+    OrdersClient client = client(server);
+    List<Order> orders = client.pageOrders(null, 2, 1).collectList().block();
+    assertThat(orders).extracting(Order::id).containsExactly(1L, 1L, 3L);
+  }
+
+  @Pact(consumer = "OrdersConsumer")
+  public RequestResponsePact pactListOrdersFields(PactDslWithProvider builder) {
+    return builder
+      .uponReceiving("list orders with sparse fieldset id,status")
+        .path("/orders").method("GET").query("fields=id,status")
+      .willRespondWith()
+        .status(200)
+        .headers(Map.of("Content-Type", "application/json"))
+        .body(PactDslJsonArray.arrayMinLike(1)
+          .numberType("id", 1)
+          .stringMatcher("status", "NEW|PROCESSING|COMPLETED|CANCELLED", "NEW"))
+      .toPact();
+  }
+
+  @Test
+  @PactTestFor(pactMethod = "pactListOrdersFields", pactVersion = PactSpecVersion.V3)
+  void testFindOrdersSummary(MockServer server) {
+    OrdersClient client = client(server);
+    List<OrderSummary> orders = client.findOrders(null, OrderSummary.class).block();
+    assertThat(orders).containsExactly(new OrderSummary(1, Order.Status.NEW));
+  }
+
+  @Pact(consumer = "OrdersConsumer")
+  public RequestResponsePact pactGetOrderFields(PactDslWithProvider builder) {
+    return builder
+      .uponReceiving("get order with sparse fieldset id,customerName")
+        .path("/orders/1").method("GET").query("fields=id,customerName")
+      .willRespondWith()
+        .status(200)
+        .headers(Map.of("Content-Type", "application/json"))
+        .body(new PactDslJsonBody()
+          .numberType("id", 1)
+          .stringType("customerName", "Alice"))
+      .toPact();
+  }
+
+  record CustomerView(long id, String customerName) implements OrderView {
+  }
+
+  @Test
+  @PactTestFor(pactMethod = "pactGetOrderFields", pactVersion = PactSpecVersion.V3)
+  void testFindOrderView(MockServer server) {
+    OrdersClient client = client(server);
+    assertThat(client.findOrder(1, CustomerView.class).block()).isEqualTo(new CustomerView(1, "Alice"));
+  }
+
   @Pact(consumer = "OrdersConsumer")
   public RequestResponsePact pactGetOrderOk(PactDslWithProvider builder) {
     return builder
@@ -67,12 +162,20 @@ public class OrdersClientPactTest {
   @Test
   @PactTestFor(pactMethod = "pactGetOrderOk", pactVersion = PactSpecVersion.V3)
   void testGetOrderOk(MockServer server) {
-    System.setProperty("orders.baseUrl", server.getUrl());
-    OrdersClient client = new OrdersClient(WebClientConfig.builder());
+    OrdersClient client = client(server);
     Map order = client.getOrder(1).block();
     assertThat(order.get("id")).isEqualTo(1);
   }
 
+  @Test
+  @PactTestFor(pactMethod = "pactGetOrderOk", pactVersion = PactSpecVersion.V3)
+  void testFindOrderOk(MockServer server) {
+    OrdersClient client = client(server);
+    Order order = client.findOrder(1).block();
+    assertThat(order.id()).isEqualTo(1L);
+    assertThat(order.status()).isEqualTo(Order.Status.PROCESSING);
+  }
+
   @Pact(consumer = "OrdersConsumer")
   public RequestResponsePact pactGetOrderNotFound(PactDslWithProvider builder) {
     return builder
@@ -90,8 +193,7 @@ public class OrdersClientPactTest {
   @Test
   @PactTestFor(pactMethod = "pactGetOrderNotFound", pactVersion = PactSpecVersion.V3)
   void testGetOrderNotFound(MockServer server) {
-    System.setProperty("orders.baseUrl", server.getUrl());
-    OrdersClient client = new OrdersClient(WebClientConfig.builder());
+    OrdersClient client = client(server);
     assertThrows(Exception.class, () -> client.getOrder(9999).block());
   }
 
@@ -122,14 +224,42 @@ public class OrdersClientPactTest {
   @Test
   @PactTestFor(pactMethod = "pactCreateOrder201", pactVersion = PactSpecVersion.V3)
   void testCreateOrder201(MockServer server) {
-    System.setProperty("orders.baseUrl", server.getUrl());
-    OrdersClient client = new OrdersClient(WebClientConfig.builder());
+    OrdersClient client = client(server);
     Map body = Map.of("customerName","Bob",
                       "items", List.of(Map.of("sku","SKU1","qty",2,"unitPrice",50.0)));
     Map created = client.createOrder(body).block();
     assertThat(created.get("id")).isNotNull();
   }
 
+  @Pact(consumer = "OrdersConsumer")
+  public RequestResponsePact pactCreateOrderGzip201(PactDslWithProvider builder) {
+    return builder
+      .uponReceiving("create order with gzip request body")
+        .path("/orders").method("POST")
+        .headers(Map.of("Content-Type", "application/json", "Content-Encoding", "gzip"))
+        .matchHeader("Accept-Encoding", ".*gzip.*", "gzip, deflate")
+      .willRespondWith()
+        .status(201)
+        .headers(Map.of("Content-Type", "application/json"))
+        .body(new PactDslJsonBody()
+          .numberType("id", 2)
+          .stringType("customerName", "Bob")
+          .stringMatcher("status", "NEW|PROCESSING|COMPLETED|CANCELLED", "NEW")
+          .decimalType("totalAmount", 100.0))
+      .toPact();
+  }
+
+  @Test
+  @PactTestFor(pactMethod = "pactCreateOrderGzip201", pactVersion = PactSpecVersion.V3)
+  void testCreateOrderGzip201(MockServer server) {
+    OrdersClient client = client(server, properties -> {
+      properties.getCompression().setRequest(RequestCompressor.Encoding.GZIP);
+      properties.getCompression().setRequestThreshold(0);
+    });
+    Order created = client.createOrder(new OrderCreate("Bob", List.of(new Item("SKU1", 2, 50.0)))).block();
+    assertThat(created.id()).isEqualTo(2L);
+  }
+
   @Pact(consumer = "OrdersConsumer")
   public RequestResponsePact pactPutOrder409(PactDslWithProvider builder) {
     return builder
@@ -151,8 +281,7 @@ public class OrdersClientPactTest {
   @Test
   @PactTestFor(pactMethod = "pactPutOrder409", pactVersion = PactSpecVersion.V3)
   void testPutOrder409(MockServer server) {
-    System.setProperty("orders.baseUrl", server.getUrl());
-    OrdersClient client = new OrdersClient(WebClientConfig.builder());
+    OrdersClient client = client(server);
     assertThrows(Exception.class, () -> client.putOrder(2, Map.of("customerName","X","status","PROCESSING")).block());
   }
 
@@ -177,12 +306,95 @@ public class OrdersClientPactTest {
   @Test
   @PactTestFor(pactMethod = "pactPatchOrder200", pactVersion = PactSpecVersion.V3)
   void testPatchOrder200(MockServer server) {
-    System.setProperty("orders.baseUrl", server.getUrl());
-    OrdersClient client = new OrdersClient(WebClientConfig.builder());
+    OrdersClient client = client(server);
     Map resp = client.patchOrder(1, Map.of("status","COMPLETED")).block();
     assertThat(resp.get("status")).isEqualTo("COMPLETED");
   }
 
+  @Test
+  @PactTestFor(pactMethod = "pactPatchOrder200", pactVersion = PactSpecVersion.V3)
+  void testPatchOrderTyped200(MockServer server) {
+    OrdersClient client = client(server);
+    Order resp = client.patchOrder(1, OrderUpdate.status(Order.Status.COMPLETED)).block();
+    assertThat(resp.status()).isEqualTo(Order.Status.COMPLETED);
+  }
+
+  @Pact(consumer = "OrdersConsumer")
+  public RequestResponsePact pactPatchOrdersBatch(PactDslWithProvider builder) {
+    return builder
+      .uponReceiving("patch a batch of orders with per-item results")
+        .path("/orders").method("PATCH")
+        .headers(Map.of("Content-Type","application/json"))
+        .body(new PactDslJsonArray()
+          .object()
+            .numberValue("id", 1)
+            .object("patch").stringValue("status", "COMPLETED").closeObject()
+          .closeObject()
+          .object()
+            .numberValue("id", 404)
+            .object("patch").stringValue("status", "CANCELLED").closeObject()
+          .closeObject())
+      .willRespondWith()
+        .status(200)
+        .headers(Map.of("Content-Type","application/json"))
+        .body(new PactDslJsonArray()
+          .object()
+            .numberValue("id", 1)
+            .numberValue("httpStatus", 200)
+            .object("order")
+              .numberValue("id", 1)
+              .stringType("customerName", "Alice")
+              .stringValue("status", "COMPLETED")
+              .decimalType("totalAmount", 120.5)
+            .closeObject()
+          .closeObject()
+          .object()
+            .numberValue("id", 404)
+            .numberValue("httpStatus", 404)
+            .object("error")
+              .stringValue("code", "NOT_FOUND")
+              .stringType("message", "Order not found")
+            .closeObject()
+          .closeObject())
+      .toPact();
+  }
+
+  @Test
+  @PactTestFor(pactMethod = "pactPatchOrdersBatch", pactVersion = PactSpecVersion.V3)
+  void testPatchOrdersBatch(MockServer server) {
+    OrdersClient client = client(server);
+    List<OrderResult> results = client.patchOrders(List.of(
+        new OrderPatch(1, OrderUpdate.status(Order.Status.COMPLETED)),
+        new OrderPatch(404, OrderUpdate.status(Order.Status.CANCELLED)))).collectList().block();
+
+    assertThat(results).extracting(OrderResult::id).containsExactly(1L, 404L);
+    assertThat(results.get(0).order().status()).isEqualTo(Order.Status.COMPLETED);
+    assertThat(results.get(1).status()).isEqualTo(404);
+    assertThat(results.get(1).error().code()).isEqualTo("NOT_FOUND");
+  }
+
+  @Test
+  @PactTestFor(pactMethod = "pactPatchOrdersBatch", pactVersion = PactSpecVersion.V3)
+  void testPatchOrderCoalescedIntoBatch(MockServer server) {
+    OrdersClient client = client(server, properties -> {
+      properties.getPatchBatching().setEnabled(true);
+      properties.getPatchBatching().setMaxSize(2);
+      properties.getPatchBatching().setMaxDelay(Duration.ofSeconds(5));
+    });
+
+    // zip subscribes in order, so the batch fills as [1, 404] and goes out without waiting
+    Tuple2<Order, WebClientResponseException> results = Mono.zip(
+        client.patchOrder(1, OrderUpdate.status(Order.Status.COMPLETED)),
+        client.patchOrder(404, OrderUpdate.status(Order.Status.CANCELLED))
+            .then(Mono.<WebClientResponseException>empty())
+            .onErrorResume(WebClientResponseException.class, Mono::just))
+        .block(Duration.ofSeconds(2));
+
+    assertThat(results.getT1().status()).isEqualTo(Order.Status.COMPLETED);
+    assertThat(results.getT2().getStatusCode().value()).isEqualTo(404);
+    assertThat(ApiError.from(results.getT2())).isEqualTo(new ApiError("NOT_FOUND", "Order not found"));
+  }
+
   @Pact(consumer = "OrdersConsumer")
   public RequestResponsePact pactDelete204(PactDslWithProvider builder) {
     return builder
@@ -196,8 +408,21 @@ public class OrdersClientPactTest {
   @Test
   @PactTestFor(pactMethod = "pactDelete204", pactVersion = PactSpecVersion.V3)
   void testDelete204(MockServer server) {
-    System.setProperty("orders.baseUrl", server.getUrl());
-    OrdersClient client = new OrdersClient(WebClientConfig.builder());
+    OrdersClient client = client(server);
     client.deleteOrder(3).block();
   }
+
+  private OrdersClient client(MockServer server) {
+    return client(server, properties -> {
+    });
+  }
+
+  private OrdersClient client(MockServer server, Consumer<OrdersClientProperties> customizer) {
+    OrdersClientProperties properties = new OrdersClientProperties();
+    properties.setBaseUrl(server.getUrl());
+    customizer.accept(properties);
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), properties);
+    clients.add(client);
+    return client;
+  }
 }
@@ -1,105 +1,760 @@
 package com.example.orders;
 
-import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.reactivestreams.Subscription;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.zip.Inflater;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
-import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class OrdersClientWireMockIT {
 
+  // base stubs: src/test/resources/wiremock/mappings, loaded once per JVM
   @RegisterExtension
-  static WireMockExtension wiremock = WireMockExtension.newInstance()
-          .options(wireMockConfig().port(4010))
-          .build();
+  static SharedOrdersWireMock wiremock = new SharedOrdersWireMock();
 
   private OrdersClient client;
 
   @BeforeEach
   void setup() {
-    System.setProperty("orders.baseUrl", "http://localhost:4010");
-    client = new OrdersClient(WebClientConfig.builder());
+    client = new OrdersClient(WebClientConfig.builder(), properties());
+  }
+
+  @AfterEach
+  void destroy() {
+    client.destroy();
+  }
+
+  @Test
+  void listOrders_OK() {
+    assertThat(client.listOrders(null).block()).isNotEmpty();
+  }
 
-    // --- LIST ORDERS ---
+  @Test
+  void streamOrders_largeArray_decodesWithinBoundedBuffer() {
+    byte[] body = OrderDecodingBenchmark.ordersArray(50_000); // ~4 MB
     wiremock.stubFor(get(urlPathEqualTo("/orders"))
+            .withQueryParam("status", equalTo("NEW"))
+            .willReturn(aResponse()
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(body)));
+
+    // A 64 KB cap on buffered bytes would fail any decode that materializes the whole array.
+    OrdersClient bounded = new OrdersClient(WebClientConfig.builder()
+            .codecs(c -> c.defaultCodecs().maxInMemorySize(64 * 1024)), properties());
+    try {
+      long count = bounded.streamOrders("NEW")
+              .limitRate(256)
+              .count()
+              .block();
+      assertThat(count).isEqualTo(50_000);
+      assertThat(body.length).isGreaterThan(64 * 1024 * 50);
+    } finally {
+      bounded.destroy();
+    }
+  }
+
+  @Test
+  void streamOrders_firstOrderBeforeBodyCompletes() {
+    wiremock.stubFor(get(urlPathEqualTo("/orders"))
+            .withQueryParam("status", equalTo("PROCESSING"))
+            .willReturn(aResponse()
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(OrderDecodingBenchmark.ordersArray(2_000))
+                    .withChunkedDribbleDelay(20, 2_000)));
+
+    // identity encoding: Jetty's gzip handler would otherwise buffer the dribbled body
+    OrdersClient uncompressed = new OrdersClient(WebClientConfig.builder()
+            .defaultHeader("Accept-Encoding", "identity"), properties());
+    try {
+      long start = System.nanoTime();
+      Order first = uncompressed.streamOrders("PROCESSING").blockFirst();
+      long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+      assertThat(first.id()).isEqualTo(1L);
+      assertThat(elapsedMs).isLessThan(1_500);
+    } finally {
+      uncompressed.destroy();
+    }
+  }
+
+  @Test
+  void streamOrders_ndjson() {
+    wiremock.stubFor(get(urlPathEqualTo("/orders"))
+            .withQueryParam("status", equalTo("COMPLETED"))
+            .withHeader("Accept", containing("application/x-ndjson"))
+            .willReturn(aResponse()
+                    .withHeader("Content-Type", "application/x-ndjson")
+                    .withBody("""
+                {"id":1,"customerName":"Alice","status":"COMPLETED","totalAmount":120.5}
+                {"id":2,"customerName":"Bob","status":"COMPLETED","totalAmount":100.0}
+                """)));
+
+    assertThat(client.streamOrders("COMPLETED").map(Order::id).collectList().block())
+            .containsExactly(1L, 2L);
+  }
+
+  @Test
+  void getOrder_OK() {
+    assertThat(client.getOrder(1).block().get("id")).isEqualTo(1);
+  }
+
+  @Test
+  void getOrder_1kConcurrent_onBoundedPool() {
+    wiremock.stubFor(get(urlPathEqualTo("/orders/7"))
+            .willReturn(okJson("""
+        {"id":7,"customerName":"Alice","status":"NEW","totalAmount":10.0}
+        """).withFixedDelay(20)));
+
+    OrdersClientProperties properties = properties();
+    properties.getPool().setMaxConnections(50);
+    properties.getPool().setPendingAcquireMaxCount(1_000);
+    OrdersClient pooled = new OrdersClient(WebClientConfig.builder(), properties);
+    OrdersConnectionPool pool = pooled.pool();
+    AtomicInteger maxActive = new AtomicInteger();
+    AtomicInteger maxPending = new AtomicInteger();
+
+    try {
+      List<Map> orders = Flux.range(0, 1_000)
+              .flatMap(i -> pooled.getOrder(7)
+                      .doOnNext(o -> {
+                        maxActive.accumulateAndGet(pool.active(), Math::max);
+                        maxPending.accumulateAndGet(pool.pending(), Math::max);
+                      }), 1_000)
+              .collectList()
+              .block();
+
+      assertThat(orders).hasSize(1_000);
+      assertThat(maxActive.get()).isBetween(1, 50);
+      assertThat(maxPending.get()).isPositive();
+      assertThat(pool.idle()).isBetween(1, 50);
+    } finally {
+      pooled.destroy();
+    }
+  }
+
+  @Test
+  void getOrder_coalescesConcurrentCallsPerId() {
+    wiremock.stubFor(get(urlPathMatching("/orders/10[0-9]"))
             .willReturn(okJson("""
-        [
-          {"id":1,"customerName":"Alice","status":"NEW","totalAmount":120.5}
-        ]
+        {"id":100,"customerName":"Alice","status":"NEW","totalAmount":10.0}
+        """).withFixedDelay(500)));
+
+    OrdersClientProperties properties = properties();
+    properties.setCoalesceGets(true);
+    OrdersClient coalescing = new OrdersClient(WebClientConfig.builder(), properties);
+
+    try {
+      for (int burst = 1; burst <= 2; burst++) {
+        int before = wiremock.findAll(getRequestedFor(urlPathMatching("/orders/10[0-9]"))).size();
+        Long completed = Flux.range(0, 10_000)
+                .flatMap(i -> coalescing.getOrder(100 + i % 10), 10_000)
+                .count()
+                .block();
+
+        assertThat(completed).isEqualTo(10_000);
+        assertThat(wiremock.findAll(getRequestedFor(urlPathMatching("/orders/10[0-9]"))).size() - before)
+                .isBetween(10, 20);
+      }
+      assertThat(coalescing.coalescedGets()).isGreaterThanOrEqualTo(2 * (10_000 - 20));
+    } finally {
+      coalescing.destroy();
+    }
+  }
+
+  @Test
+  void findOrder_cache_hitRevalidateAndInvalidate() {
+    wiremock.stubFor(get(urlPathEqualTo("/orders/5"))
+            .willReturn(okJson("""
+        {"id":5,"customerName":"Alice","status":"NEW","totalAmount":10.0}
+        """).withHeader("ETag", "\"v1\"")));
+    wiremock.stubFor(get(urlPathEqualTo("/orders/5"))
+            .withHeader("If-None-Match", equalTo("\"v1\""))
+            .willReturn(aResponse().withStatus(304).withHeader("ETag", "\"v1\"")));
+    wiremock.stubFor(patch(urlPathEqualTo("/orders/5"))
+            .willReturn(okJson("""
+        {"id":5,"customerName":"Alice","status":"COMPLETED","totalAmount":10.0}
         """)));
 
-    // --- GET ORDER ---
-    wiremock.stubFor(get(urlPathEqualTo("/orders/1"))
+    OrdersClientProperties properties = properties();
+    properties.getCache().setEnabled(true);
+    properties.getCache().setTtl(Duration.ofMillis(200));
+    OrdersClient caching = new OrdersClient(WebClientConfig.builder(), properties);
+
+    try {
+      caching.findOrder(5).block();                        // miss
+      assertThat(caching.findOrder(5).block().id()).isEqualTo(5L); // hit, no request
+      wiremock.verify(1, getRequestedFor(urlPathEqualTo("/orders/5")));
+
+      await(Duration.ofMillis(250));
+      caching.findOrder(5).block();                        // stale -> 304
+      wiremock.verify(1, getRequestedFor(urlPathEqualTo("/orders/5"))
+              .withHeader("If-None-Match", equalTo("\"v1\"")));
+
+      caching.patchOrder(5, OrderUpdate.status(Order.Status.COMPLETED)).block();
+      caching.findOrder(5).block();                        // invalidated -> full GET
+      wiremock.verify(2, getRequestedFor(urlPathEqualTo("/orders/5"))
+              .withoutHeader("If-None-Match"));
+
+      assertThat(caching.cacheStats()).isEqualTo(new OrderCache.Stats(1, 3, 0, 1));
+    } finally {
+      caching.destroy();
+    }
+  }
+
+  @Test
+  void patchOrders_cache_invalidatedBeforeTheCallerHearsBack() {
+    wiremock.stubFor(get(urlPathEqualTo("/orders/41"))
+            .willReturn(okJson("""
+        {"id":41,"customerName":"Alice","status":"NEW","totalAmount":10.0}
+        """)));
+    wiremock.stubFor(patch(urlPathEqualTo("/orders"))
+            .withRequestBody(matchingJsonPath("$[0].id", equalTo("41")))
             .willReturn(okJson("""
-        {"id":1,"customerName":"Alice","status":"PROCESSING","totalAmount":120.5}
+        [{"id":41,"httpStatus":200,"order":{"id":41,"customerName":"Alice","status":"COMPLETED","totalAmount":10.0}}]
         """)));
 
-    wiremock.stubFor(get(urlPathEqualTo("/orders/9999"))
-            .willReturn(notFound()));
+    OrdersClientProperties properties = properties();
+    properties.getCache().setEnabled(true);
+    OrdersClient caching = new OrdersClient(WebClientConfig.builder(), properties);
 
-    // --- POST CREATE ORDER (valid) ---
-    wiremock.stubFor(post(urlPathEqualTo("/orders"))
-            .withRequestBody(matchingJsonPath("$.items"))
-            .willReturn(aResponse()
-                    .withStatus(201)
-                    .withHeader("Content-Type","application/json")
-                    .withBody("""
-            {
-              "id": 10,
-              "customerName": "Bob",
-              "items": [
-                { "sku": "SKU1", "qty": 2, "unitPrice": 50.0 }
-              ],
-              "status": "NEW",
-              "totalAmount": 100.0
-            }
-            """)
-            ));
-
-    // --- POST CREATE ORDER (invalid -> 400) ---
-    wiremock.stubFor(post(urlPathEqualTo("/orders"))
-            .withRequestBody(notMatching(".*items.*"))
-            .willReturn(badRequest()));
-
-    // --- PUT UPDATE ORDER ---
-    wiremock.stubFor(put(urlPathEqualTo("/orders/1"))
+    try {
+      caching.findOrder(41).block();
+      caching.patchOrders(List.of(new OrderPatch(41, OrderUpdate.status(Order.Status.COMPLETED))))
+          .thenMany(caching.findOrder(41)) // reads as soon as the patch completes
+          .blockLast();
+
+      wiremock.verify(2, getRequestedFor(urlPathEqualTo("/orders/41")));
+    } finally {
+      caching.destroy();
+    }
+  }
+
+  @Test
+  void getOrder_cache_evictsBeyondMaxSize() {
+    wiremock.stubFor(get(urlPathMatching("/orders/2[0-9]"))
             .willReturn(okJson("""
-        {"id":1,"customerName":"Alice","status":"PROCESSING","totalAmount":120.5}
+        {"id":20,"customerName":"Alice","status":"NEW","totalAmount":10.0}
         """)));
 
-    wiremock.stubFor(put(urlPathEqualTo("/orders/2"))
-            .willReturn(aResponse().withStatus(409)
-                    .withHeader("Content-Type","application/json")
-                    .withBody("""
-            {"code":"CONFLICT","message":"Version conflict"}
-            """)));
+    OrdersClientProperties properties = properties();
+    properties.getCache().setEnabled(true);
+    properties.getCache().setMaxSize(5);
+    OrdersClient caching = new OrdersClient(WebClientConfig.builder(), properties);
+
+    try {
+      for (int id = 20; id < 30; id++) {
+        caching.getOrder(id).block();
+      }
+      // which five survive is up to W-TinyLFU; only the count is fixed
+      assertThat(caching.cacheStats().evictions()).isEqualTo(5);
+    } finally {
+      caching.destroy();
+    }
+  }
 
-    // --- PATCH ---
-    wiremock.stubFor(patch(urlPathEqualTo("/orders/1"))
+  @Test
+  void getOrder_cache_copiesMapsInAndOut() {
+    wiremock.stubFor(get(urlPathEqualTo("/orders/31"))
             .willReturn(okJson("""
-        {"id":1,"customerName":"Alice","status":"COMPLETED","totalAmount":120.5}
+        {"id":31,"customerName":"Alice","status":"NEW","totalAmount":10.0}
         """)));
 
-    // --- DELETE ---
-    wiremock.stubFor(delete(urlPathEqualTo("/orders/3"))
-            .willReturn(noContent()));
+    OrdersClientProperties properties = properties();
+    properties.getCache().setEnabled(true);
+    OrdersClient caching = new OrdersClient(WebClientConfig.builder(), properties);
+
+    try {
+      caching.getOrder(31).block().put("customerName", "mutated after a miss");
+      Map hit = caching.getOrder(31).block();
+      assertThat(hit.get("customerName")).isEqualTo("Alice");
+      hit.put("customerName", "mutated after a hit");
+
+      assertThat(caching.getOrder(31).block().get("customerName")).isEqualTo("Alice");
+      assertThat(caching.cacheStats().hits()).isEqualTo(2);
+      wiremock.verify(1, getRequestedFor(urlPathEqualTo("/orders/31")));
+    } finally {
+      caching.destroy();
+    }
   }
 
+
   @Test
-  void listOrders_OK() {
-    assertThat(client.listOrders(null).block()).isNotEmpty();
+  void pageOrders_followsCursorsToTheLastPage() {
+    stubPages("all", 3);
+
+    List<Order> orders = client.pageOrders("all", 10, 1).collectList().block();
+
+    assertThat(orders).extracting(Order::id).containsExactlyElementsOf(
+        LongStream.rangeClosed(1, 25).boxed().toList());
+    assertThat(pageRequests("all")).isEqualTo(3);
   }
 
   @Test
-  void getOrder_OK() {
-    assertThat(client.getOrder(1).block().get("id")).isEqualTo(1);
+  void pageOrders_prefetchesWhileConsumingAndStopsOnCancel() {
+    stubPages("cancel", 3);
+    AtomicInteger received = new AtomicInteger();
+    BaseSubscriber<Order> consumer = new BaseSubscriber<>() {
+      @Override
+      protected void hookOnSubscribe(Subscription subscription) {
+        request(1);
+      }
+
+      @Override
+      protected void hookOnNext(Order order) {
+        received.incrementAndGet(); // holds on to page 1 without asking for more
+      }
+    };
+
+    client.pageOrders("cancel", 10, 1).subscribe(consumer);
+
+    // page 2 is fetched while the consumer still sits on the first order of page 1, page 3 is not
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (pageRequests("cancel") < 2 && System.nanoTime() < deadline) {
+      await(Duration.ofMillis(10));
+    }
+    await(Duration.ofMillis(200));
+    assertThat(received).hasValue(1);
+    assertThat(pageRequests("cancel")).isEqualTo(2);
+
+    consumer.cancel();
+    await(Duration.ofMillis(300));
+    assertThat(pageRequests("cancel")).isEqualTo(2);
+  }
+
+  @Test
+  void createOrder_gzipsBodiesFromThresholdOn() {
+    OrdersClientProperties properties = properties();
+    properties.getCompression().setRequest(RequestCompressor.Encoding.GZIP);
+    properties.getCompression().setRequestThreshold(512);
+    OrdersClient compressing = new OrdersClient(WebClientConfig.builder(), properties);
+    try {
+      compressing.createOrder(new OrderCreate("gzip-small", List.of(new Item("SKU1", 1, 1.0)))).block();
+      compressing.createOrder(new OrderCreate("gzip-large", items(40))).block();
+
+      // WireMock inflates gzip request bodies before matching
+      wiremock.verify(1, postRequestedFor(urlPathEqualTo("/orders"))
+          .withoutHeader("Content-Encoding")
+          .withRequestBody(matchingJsonPath("$.customerName", equalTo("gzip-small"))));
+      wiremock.verify(1, postRequestedFor(urlPathEqualTo("/orders"))
+          .withHeader("Content-Encoding", equalTo("gzip"))
+          .withRequestBody(matchingJsonPath("$.items[39].sku", equalTo("SKU-39"))));
+    } finally {
+      compressing.destroy();
+    }
+  }
+
+  @Test
+  void putOrder_deflateBodyInflatesToTheJsonSent() throws Exception {
+    wiremock.stubFor(put(urlPathEqualTo("/orders/7"))
+        .withHeader("Content-Encoding", equalTo("deflate"))
+        .willReturn(okJson("""
+        {"id":7,"customerName":"deflate","status":"NEW","totalAmount":1.0}
+        """)));
+    OrdersClientProperties properties = properties();
+    properties.getCompression().setRequest(RequestCompressor.Encoding.DEFLATE);
+    properties.getCompression().setRequestThreshold(0);
+    OrdersClient compressing = new OrdersClient(WebClientConfig.builder(), properties);
+    try {
+      compressing.putOrder(7, new OrderUpdate("deflate", Order.Status.NEW)).block();
+
+      byte[] sent = wiremock.findAll(putRequestedFor(urlPathEqualTo("/orders/7"))).get(0).getBody();
+      Inflater inflater = new Inflater();
+      inflater.setInput(sent);
+      byte[] json = new byte[256];
+      int length = inflater.inflate(json);
+      assertThat(inflater.finished()).isTrue();
+      assertThat(new String(json, 0, length, StandardCharsets.UTF_8))
+          .isEqualTo("{\"customerName\":\"deflate\",\"status\":\"NEW\"}");
+    } finally {
+      compressing.destroy();
+    }
+  }
+
+  @Test
+  void findOrders_negotiatesCompressedResponses() {
+    // a status no other test in this class lists, so the shared journal holds only this request
+    wiremock.stubFor(get(urlPathEqualTo("/orders"))
+        .withQueryParam("status", equalTo("CANCELLED"))
+        .willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withBody(OrderDecodingBenchmark.ordersArray(1_000))));
+
+    assertThat(client.findOrders("CANCELLED").block()).hasSize(1_000);
+    wiremock.verify(1, getRequestedFor(urlPathEqualTo("/orders"))
+        .withQueryParam("status", equalTo("CANCELLED"))
+        .withHeader("Accept-Encoding", equalTo("gzip, deflate")));
+  }
+
+  @Test
+  void blocking_callsSynchronouslyAndRejectsBeyondMaxConcurrency() throws Exception {
+    wiremock.stubFor(get(urlPathEqualTo("/orders/8"))
+        .willReturn(okJson("""
+        {"id":8,"customerName":"Alice","status":"NEW","totalAmount":10.0}
+        """).withFixedDelay(500)));
+    BlockingOrdersClient blocking = new BlockingOrdersClient(client, 1, Duration.ofMillis(50));
+    ExecutorService callers = BlockingOrdersClient.newCallerExecutor(1);
+    try {
+      Future<Order> slow = callers.submit(() -> blocking.findOrder(8));
+      while (blocking.inFlight() == 0) {
+        await(Duration.ofMillis(5));
+      }
+
+      OrdersOverloadedException overloaded =
+          assertThrows(OrdersOverloadedException.class, () -> blocking.findOrder(1));
+      assertThat(overloaded.getLimit()).isEqualTo(1);
+      assertThat(slow.get(5, TimeUnit.SECONDS).id()).isEqualTo(8L);
+      assertThat(blocking.inFlight()).isZero();
+      assertThat(blocking.findOrder(1).customerName()).isEqualTo("Alice");
+    } finally {
+      callers.shutdownNow();
+    }
+  }
+
+  @Test
+  void blocking_pageOrdersHoldsAPermitUntilTheStreamEnds() {
+    stubPages("blocking", 3);
+    OrdersClientProperties properties = properties();
+    properties.getPaging().setPageSize(10);
+    OrdersClient paged = new OrdersClient(WebClientConfig.builder(), properties);
+    BlockingOrdersClient blocking = new BlockingOrdersClient(paged, 1, Duration.ofMillis(50));
+    try {
+      try (Stream<Order> orders = blocking.pageOrders("blocking")) {
+        assertThat(orders.findFirst()).isPresent();
+        assertThat(blocking.inFlight()).isEqualTo(1);
+        assertThrows(OrdersOverloadedException.class, () -> blocking.findOrder(1));
+      }
+      assertThat(blocking.inFlight()).isZero();
+
+      assertThat(blocking.pageOrders("blocking").toList()).hasSize(25); // read to the end, never closed
+      assertThat(blocking.inFlight()).isZero();
+    } finally {
+      paged.destroy();
+    }
+  }
+
+  @Test
+  void deadline_sendsRemainingBudgetAndCancelsTheStalledRequest() {
+    wiremock.stubFor(get(urlPathEqualTo("/orders/9"))
+        .willReturn(okJson("""
+        {"id":9,"customerName":"Alice","status":"NEW","totalAmount":10.0}
+        """).withFixedDelay(1_000)));
+
+    long start = System.nanoTime();
+    assertThrows(OrdersDeadlineExceededException.class,
+        () -> OrdersDeadline.within(Duration.ofMillis(200), client.findOrder(9)).block());
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+    assertThat(elapsedMs).isLessThan(1_000);
+    // a cold JVM can spend the whole budget before sending, and then nothing may go out at all
+    List<LoggedRequest> sent = journaled("/orders/9", 1);
+    assertThat(sent).hasSizeLessThanOrEqualTo(1);
+    if (!sent.isEmpty()) {
+      assertThat(Long.parseLong(sent.get(0).getHeader(OrdersDeadline.HEADER))).isBetween(1L, 200L);
+    }
+  }
+
+  @Test
+  void deadline_isOneBudgetAcrossRetries() {
+    wiremock.stubFor(get(urlPathEqualTo("/orders/11"))
+        .willReturn(aResponse().withStatus(500).withFixedDelay(250)));
+
+    long start = System.nanoTime();
+    assertThrows(OrdersDeadlineExceededException.class,
+        () -> OrdersDeadline.within(Duration.ofMillis(400), client.findOrder(11).retry(10)).block());
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+    // the retry only gets what the failed first attempt left over, and nothing is sent once it is spent
+    assertThat(elapsedMs).isLessThan(800);
+    await(Duration.ofMillis(300)); // let a second attempt's response finish too
+    List<LoggedRequest> sent = journaled("/orders/11", 1);
+    assertThat(sent).hasSizeBetween(1, 2);
+    if (sent.size() == 2) {
+      assertThat(Long.parseLong(sent.get(1).getHeader(OrdersDeadline.HEADER))).isLessThan(160L);
+    }
+  }
+
+  @Test
+  void deadline_sustainedTimeoutsDoNotLeakPooledConnections() {
+    wiremock.stubFor(get(urlPathEqualTo("/orders/12"))
+        .willReturn(okJson("""
+        {"id":12,"customerName":"Alice","status":"NEW","totalAmount":10.0}
+        """).withFixedDelay(1_000)));
+    OrdersClientProperties properties = properties();
+    properties.getPool().setMaxConnections(4);
+    properties.getPool().setPendingAcquireTimeout(Duration.ofMillis(300)); // a leaked slot fails the last call
+    OrdersClient pooled = new OrdersClient(WebClientConfig.builder(), properties);
+    OrdersConnectionPool pool = pooled.pool();
+    try {
+      AtomicInteger expired = new AtomicInteger();
+      Flux.range(0, 48)
+          .flatMap(i -> OrdersDeadline.within(Duration.ofMillis(100), pooled.findOrder(12))
+              .onErrorResume(OrdersDeadlineExceededException.class, e -> {
+                expired.incrementAndGet();
+                return Mono.empty();
+              }), 8)
+          .blockLast(Duration.ofSeconds(10));
+      assertThat(expired.get()).isEqualTo(48);
+
+      // disposing the subscriber cancels just the same
+      pooled.findOrder(12).subscribe().dispose();
+
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+      while ((pool.active() > 0 || pool.pending() > 0) && System.nanoTime() < deadline) {
+        await(Duration.ofMillis(10));
+      }
+      assertThat(pool.active()).isZero();
+      assertThat(pool.pending()).isZero();
+      assertThat(pooled.findOrder(1).block().id()).isEqualTo(1L);
+    } finally {
+      pooled.destroy();
+    }
+  }
+
+  @Test
+  void deadline_coalescedCallersEachKeepTheirOwnBudget() {
+    wiremock.stubFor(get(urlPathEqualTo("/orders/13"))
+        .willReturn(okJson("""
+        {"id":13,"customerName":"Alice","status":"NEW","totalAmount":10.0}
+        """).withFixedDelay(300)));
+    OrdersClientProperties properties = properties();
+    properties.setCoalesceGets(true);
+    OrdersClient coalescing = new OrdersClient(WebClientConfig.builder(), properties);
+    try {
+      // the short budget starts the flight, the long one joins it
+      CompletableFuture<Map> impatient =
+          OrdersDeadline.within(Duration.ofMillis(100), coalescing.getOrder(13)).toFuture();
+      Map order = OrdersDeadline.within(Duration.ofSeconds(5), coalescing.getOrder(13)).block();
+
+      assertThat(order.get("customerName")).isEqualTo("Alice");
+      assertThat(assertThrows(CompletionException.class, impatient::join))
+          .hasCauseInstanceOf(OrdersDeadlineExceededException.class);
+      assertThat(coalescing.coalescedGets()).isEqualTo(1);
+      List<LoggedRequest> sent = journaled("/orders/13", 1);
+      assertThat(sent).hasSize(1);
+      assertThat(sent.get(0).getHeader(OrdersDeadline.HEADER)).isNull();
+    } finally {
+      coalescing.destroy();
+    }
+  }
+
+  @Test
+  void patchOrder_batchedCallsLeaveTogetherAfterMaxDelay() {
+    wiremock.stubFor(patch(urlPathEqualTo("/orders"))
+        .willReturn(okJson("""
+        [{"id":21,"httpStatus":200,"order":{"id":21,"customerName":"A","status":"COMPLETED","totalAmount":1.0}},
+         {"id":22,"httpStatus":200,"order":{"id":22,"customerName":"B","status":"COMPLETED","totalAmount":2.0}},
+         {"id":23,"httpStatus":409,"error":{"code":"CONFLICT","message":"Version conflict"}}]
+        """)));
+    OrdersClientProperties properties = properties();
+    properties.getPatchBatching().setEnabled(true);
+    properties.getPatchBatching().setMaxDelay(Duration.ofMillis(50));
+    OrdersClient batching = new OrdersClient(WebClientConfig.builder(), properties);
+    try {
+      List<Object> outcomes = Flux.just(21L, 22L, 23L)
+          .flatMapSequential(id -> batching.patchOrder(id, OrderUpdate.status(Order.Status.COMPLETED))
+              .<Object>map(Order::customerName)
+              .onErrorResume(WebClientResponseException.class, ex -> Mono.just(ex.getStatusCode().value())))
+          .collectList()
+          .block();
+
+      assertThat(outcomes).containsExactly("A", "B", 409);
+      wiremock.verify(1, patchRequestedFor(urlPathEqualTo("/orders")).withRequestBody(equalToJson("""
+          [{"id":21,"patch":{"status":"COMPLETED"}},{"id":22,"patch":{"status":"COMPLETED"}},
+           {"id":23,"patch":{"status":"COMPLETED"}}]
+          """)));
+      wiremock.verify(0, patchRequestedFor(urlPathMatching("/orders/2[123]")));
+    } finally {
+      batching.destroy();
+    }
+  }
+
+  @Test
+  void patchOrder_batchRunsUnderTheEarliestCallersDeadline() {
+    wiremock.stubFor(patch(urlPathEqualTo("/orders"))
+        .withRequestBody(matchingJsonPath("$[0].id", equalTo("51")))
+        .willReturn(okJson("""
+        [{"id":51,"httpStatus":200,"order":{"id":51,"customerName":"A","status":"COMPLETED","totalAmount":1.0}},
+         {"id":52,"httpStatus":200,"order":{"id":52,"customerName":"B","status":"COMPLETED","totalAmount":2.0}}]
+        """)));
+    OrdersClientProperties properties = properties();
+    properties.getPatchBatching().setEnabled(true);
+    properties.getPatchBatching().setMaxSize(2);
+    properties.getPatchBatching().setMaxDelay(Duration.ofSeconds(5));
+    OrdersClient batching = new OrdersClient(WebClientConfig.builder(), properties);
+    try {
+      Mono<Order> patient = OrdersDeadline.within(Duration.ofSeconds(30),
+          batching.patchOrder(51, OrderUpdate.status(Order.Status.COMPLETED)));
+      Mono<Order> hurried = OrdersDeadline.within(Duration.ofSeconds(2),
+          batching.patchOrder(52, OrderUpdate.status(Order.Status.COMPLETED)));
+
+      assertThat(Flux.merge(patient, hurried).map(Order::customerName).collectList().block())
+          .containsExactlyInAnyOrder("A", "B");
+      List<LoggedRequest> sent = wiremock.findAll(patchRequestedFor(urlPathEqualTo("/orders"))
+          .withRequestBody(matchingJsonPath("$[0].id", equalTo("51"))));
+      assertThat(sent).hasSize(1);
+      assertThat(Long.parseLong(sent.get(0).getHeader(OrdersDeadline.HEADER))).isBetween(1L, 2_000L);
+    } finally {
+      batching.destroy();
+    }
+  }
+
+  @Test
+  void patchOrder_destroyFailsPatchesWaitingForABatch() {
+    OrdersClientProperties properties = properties();
+    properties.getPatchBatching().setEnabled(true);
+    properties.getPatchBatching().setMaxDelay(Duration.ofSeconds(5));
+    OrdersClient batching = new OrdersClient(WebClientConfig.builder(), properties);
+
+    CompletableFuture<Order> waiting = batching.patchOrder(61, OrderUpdate.status(Order.Status.COMPLETED)).toFuture();
+    batching.destroy();
+
+    assertThat(waiting).failsWithin(Duration.ofSeconds(1))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(IllegalStateException.class);
+    assertThrows(IllegalStateException.class,
+        () -> batching.patchOrder(62, OrderUpdate.status(Order.Status.COMPLETED)).block());
+    assertThat(wiremock.findAll(patchRequestedFor(urlPathEqualTo("/orders"))
+        .withRequestBody(matchingJsonPath("$[0].id", equalTo("61"))))).isEmpty();
+  }
+
+  // WireMock journals a request once its (delayed) response has been written
+  private static List<LoggedRequest> journaled(String path, int atLeast) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+    List<LoggedRequest> requests = wiremock.findAll(getRequestedFor(urlPathEqualTo(path)));
+    while (requests.size() < atLeast && System.nanoTime() < deadline) {
+      await(Duration.ofMillis(20));
+      requests = wiremock.findAll(getRequestedFor(urlPathEqualTo(path)));
+    }
+    return requests;
+  }
+
+  private static List<Item> items(int count) {
+    return IntStream.range(0, count).mapToObj(i -> new Item("SKU-" + i, 1 + i, 9.99)).toList();
+  }
+
+  // pages of 10 orders (the last one holds 5), keyed by a per-test status value so tests can count their own requests
+  private static void stubPages(String tag, int pages) {
+    for (int page = 1; page <= pages; page++) {
+      int first = (page - 1) * 10 + 1;
+      int count = page == pages ? 5 : 10;
+      StringBuilder body = new StringBuilder("[");
+      for (int id = first; id < first + count; id++) {
+        body.append(id == first ? "" : ",")
+            .append("{\"id\":").append(id).append(",\"customerName\":\"").append(tag)
+            .append("\",\"status\":\"NEW\",\"totalAmount\":1.0}");
+      }
+      var response = okJson(body.append(']').toString());
+      if (page < pages) {
+        response.withHeader("X-Next-Cursor", tag + (page + 1));
+      }
+      wiremock.stubFor(get(urlPathEqualTo("/orders"))
+          .withQueryParam("limit", equalTo("10"))
+          .withQueryParam("cursor", page == 1 ? absent() : equalTo(tag + page))
+          .withQueryParam("status", equalTo(tag))
+          .willReturn(response));
+    }
+  }
+
+  private static int pageRequests(String tag) {
+    return wiremock.findAll(getRequestedFor(urlPathEqualTo("/orders"))
+        .withQueryParam("status", equalTo(tag))).size();
+  }
+
+  private static OrdersClientProperties properties() {
+    OrdersClientProperties properties = new OrdersClientProperties();
+    properties.setBaseUrl(wiremock.baseUrl());
+    return properties;
+  }
+
+  private static void await(Duration duration) {
+    try {
+      Thread.sleep(duration.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  void metrics_recordLatencyStatusBytesAndAcquire() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    OrdersClient metered = new OrdersClient(WebClientConfig.builder(), properties(), registry);
+    try {
+      metered.findOrder(1).block();
+      assertThrows(Exception.class, () -> metered.getOrder(9999).block());
+      metered.createOrder(new OrderCreate("Bob", List.of(new Item("SKU1", 2, 50.0)))).block();
+
+      Timer ok = registry.get("orders.client.requests")
+          .tags("operation", "get", "status", "200", "outcome", "SUCCESS").timer();
+      assertThat(ok.count()).isEqualTo(1);
+      assertThat(ok.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+      assertThat(registry.get("orders.client.requests")
+          .tags("operation", "get", "status", "404", "outcome", "CLIENT_ERROR").timer().count()).isEqualTo(1);
+      assertThat(registry.get("orders.client.requests")
+          .tags("operation", "create", "status", "201").timer().count()).isEqualTo(1);
+      assertThat(registry.get("orders.client.request.size").tag("operation", "create").summary().totalAmount())
+          .isPositive();
+      assertThat(registry.get("orders.client.response.size").tag("operation", "get").summary().totalAmount())
+          .isPositive();
+      assertThat(registry.get("orders.client.connection.acquire").timer().count()).isGreaterThanOrEqualTo(3);
+      assertThat(registry.get("orders.client.pool.active").gauge().value()
+          + registry.get("orders.client.pool.idle").gauge().value()).isPositive();
+    } finally {
+      metered.destroy();
+    }
+  }
+
+  @Test
+  void metrics_tagEachClientAndAreRemovedOnDestroy() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    OrdersClientProperties named = properties();
+    named.getMetrics().setClientName("billing");
+    OrdersClient billing = new OrdersClient(WebClientConfig.builder(), named, registry);
+    OrdersClient unnamed = new OrdersClient(WebClientConfig.builder(), properties(), registry);
+    try {
+      billing.findOrder(1).block();
+      unnamed.findOrder(1).block();
+
+      assertThat(registry.get("orders.client.requests").tags("client", "billing", "operation", "get")
+          .timer().count()).isEqualTo(1);
+      assertThat(registry.get("orders.client.requests").tags("client", wiremock.baseUrl(), "operation", "get")
+          .timer().count()).isEqualTo(1);
+      assertThat(registry.get("orders.client.pool.active").gauges()).hasSize(2);
+    } finally {
+      billing.destroy();
+    }
+    try {
+      assertThat(registry.getMeters()).isNotEmpty()
+          .allSatisfy(meter -> assertThat(meter.getId().getTag("client")).isEqualTo(wiremock.baseUrl()));
+    } finally {
+      unnamed.destroy();
+    }
+    assertThat(registry.getMeters()).isEmpty();
   }
 
   @Test
@@ -107,6 +762,56 @@ public class OrdersClientWireMockIT {
     assertThrows(Exception.class, () -> client.getOrder(9999).block());
   }
 
+  @Test
+  void findOrder_OK() {
+    Order order = client.findOrder(1).block();
+    assertThat(order.id()).isEqualTo(1L);
+    assertThat(order.totalAmount()).isEqualTo(120.5);
+  }
+
+  @Test
+  void getOrders_preservesOrderAndReportsNotFound() {
+    wiremock.stubFor(get(urlPathEqualTo("/orders/404"))
+            .willReturn(aResponse().withStatus(404)
+                    .withHeader("Content-Type","application/json")
+                    .withBody("""
+            {"code":"NOT_FOUND","message":"Order not found"}
+            """)));
+
+    List<OrderResult> results = client.getOrders(List.of(1L, 9999L, 404L, 1L), 4).collectList().block();
+
+    assertThat(results).extracting(OrderResult::id).containsExactly(1L, 9999L, 404L, 1L);
+    assertThat(results).extracting(OrderResult::status).containsExactly(200, 404, 404, 200);
+    assertThat(results.get(0).order().customerName()).isEqualTo("Alice");
+    assertThat(results.get(1).error()).isNull();
+    assertThat(results.get(2).error()).isEqualTo(new ApiError("NOT_FOUND", "Order not found"));
+  }
+
+  @Test
+  void getOrders_nonJsonErrorBodiesStillFailOnlyTheirId() {
+    wiremock.stubFor(get(urlPathEqualTo("/orders/502"))
+        .willReturn(aResponse().withStatus(502)
+            .withHeader("Content-Type", "text/html")
+            .withBody("<html><body>Bad Gateway</body></html>")));
+    wiremock.stubFor(get(urlPathEqualTo("/orders/500"))
+        .willReturn(aResponse().withStatus(500)
+            .withHeader("Content-Type", "application/json")
+            .withBody("{\"code\":")));
+
+    List<OrderResult> results = client.getOrders(List.of(502L, 1L, 500L), 4).collectList().block();
+
+    assertThat(results).extracting(OrderResult::id).containsExactly(502L, 1L, 500L);
+    assertThat(results).extracting(OrderResult::status).containsExactly(502, 200, 500);
+    assertThat(results.get(0).error()).isNull();
+    assertThat(results.get(2).error()).isNull();
+  }
+
+  @Test
+  void createOrder_Typed_Created() {
+    OrderCreate body = new OrderCreate("Bob", List.of(new Item("SKU1", 2, 50.0)));
+    assertThat(client.createOrder(body).block().id()).isEqualTo(10L);
+  }
+
   @Test
   void createOrder_Created() {
     Map body = Map.of("customerName","Bob",
@@ -0,0 +1,115 @@
+package com.example.orders;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@link OrdersClient} with {@link LoadGenerator} against an in-process WireMock provider and
+ * writes {@code target/load/{open,closed}.{json,html}}. Run on demand:
+ * {@code mvn test -Dtest=OrdersLoadBenchmark -Dcodegen.skip=true}, optionally with
+ * {@code -Dload.rate=200 -Dload.concurrency=8 -Dload.duration=30s -Dload.warmup=5s
+ * -Dload.mix=get:70,list:20,create:4,put:3,patch:2,delete:1 -Dload.mappings=<dir>}.
+ * <p>{@code load.mappings} points at a WireMock root (with a {@code mappings/} folder), such as the
+ * output of the OpenAPI {@code wiremock} generator; without it the stubs below are used.
+ * <p>It keeps its own server rather than {@link SharedOrdersWireMock}: a long run should not fill a
+ * request journal, and {@code load.mappings} swaps the whole WireMock root.
+ */
+public class OrdersLoadBenchmark {
+
+  private static final String ORDER = """
+      {"id":1,"customerName":"Alice","status":"PROCESSING","totalAmount":120.5}
+      """;
+  private static final Path REPORTS = Path.of("target", "load");
+
+  @RegisterExtension
+  static WireMockExtension wiremock = WireMockExtension.newInstance()
+          .options(options())
+          .build();
+
+  private OrdersClient client;
+
+  private static WireMockConfiguration options() {
+    WireMockConfiguration options = wireMockConfig().dynamicPort().disableRequestJournal();
+    String mappings = System.getProperty("load.mappings");
+    return mappings == null ? options : options.usingFilesUnderDirectory(mappings);
+  }
+
+  @BeforeEach
+  void setup() {
+    if (System.getProperty("load.mappings") == null) {
+      stubProvider();
+    }
+    OrdersClientProperties properties = new OrdersClientProperties();
+    properties.setBaseUrl(wiremock.baseUrl());
+    client = new OrdersClient(WebClientConfig.builder(), properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    client.destroy();
+  }
+
+  @Test
+  void openLoop() throws IOException {
+    LoadReport report = generator().runOpen(Double.parseDouble(System.getProperty("load.rate", "100")),
+        duration("load.warmup", "3s"), duration("load.duration", "10s"));
+    report.write(REPORTS, "open");
+    System.out.println(report.summary());
+    assertThat(report.total().count()).isPositive();
+    assertThat(report.total().errorRate()).isZero();
+  }
+
+  @Test
+  void closedLoop() throws IOException {
+    LoadReport report = generator().runClosed(Integer.getInteger("load.concurrency", 4),
+        duration("load.warmup", "3s"), duration("load.duration", "10s"));
+    report.write(REPORTS, "closed");
+    System.out.println(report.summary());
+    assertThat(report.total().count()).isPositive();
+    assertThat(report.total().errorRate()).isZero();
+  }
+
+  private LoadGenerator generator() {
+    OrderCreate create = new OrderCreate("Bob", List.of(new Item("SKU1", 2, 50.0)));
+    Map<String, Supplier<Mono<?>>> operations = new LinkedHashMap<>();
+    operations.put("get", () -> client.findOrder(1));
+    operations.put("list", () -> client.findOrders(null));
+    operations.put("create", () -> client.createOrder(create));
+    operations.put("put", () -> client.putOrder(1, new OrderUpdate("Alice", Order.Status.PROCESSING)));
+    operations.put("patch", () -> client.patchOrder(1, OrderUpdate.status(Order.Status.COMPLETED)));
+    operations.put("delete", () -> client.deleteOrder(1));
+    String mix = System.getProperty("load.mix", "get:70,list:20,create:4,put:3,patch:2,delete:1");
+    return new LoadGenerator(LoadGenerator.mix(mix, operations), 10_000);
+  }
+
+  private static Duration duration(String property, String defaultValue) {
+    return Duration.parse("PT" + System.getProperty(property, defaultValue).toUpperCase());
+  }
+
+  private static void stubProvider() {
+    wiremock.stubFor(get(urlPathEqualTo("/orders")).willReturn(okJson("[" + ORDER + "," + ORDER + "]")));
+    wiremock.stubFor(get(urlPathMatching("/orders/\\d+")).willReturn(okJson(ORDER)));
+    wiremock.stubFor(post(urlPathEqualTo("/orders")).willReturn(aResponse().withStatus(201)
+        .withHeader("Content-Type", "application/json").withBody(ORDER)));
+    wiremock.stubFor(put(urlPathMatching("/orders/\\d+")).willReturn(okJson(ORDER)));
+    wiremock.stubFor(patch(urlPathMatching("/orders/\\d+")).willReturn(okJson(ORDER)));
+    wiremock.stubFor(delete(urlPathMatching("/orders/\\d+")).willReturn(noContent()));
+  }
+}
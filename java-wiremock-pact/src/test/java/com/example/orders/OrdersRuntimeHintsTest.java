@@ -0,0 +1,38 @@
+package com.example.orders;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrdersRuntimeHintsTest {
+
+  record CustomerView(long id, String customerName) implements OrderView {
+  }
+
+  private final RuntimeHints hints = new RuntimeHints();
+
+  OrdersRuntimeHintsTest() {
+    new OrdersRuntimeHints().registerHints(hints, getClass().getClassLoader());
+  }
+
+  @Test
+  void recordsAreRegisteredForBinding() throws Exception {
+    for (Class<?> type : new Class<?>[] {Order.class, OrderCreate.class, OrderUpdate.class, Item.class, ApiError.class}) {
+      assertThat(RuntimeHintsPredicates.reflection().onType(type)).accepts(hints);
+    }
+    assertThat(RuntimeHintsPredicates.reflection().onMethod(Order.class.getMethod("customerName"))).accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onType(Order.Status.class)).accepts(hints);
+  }
+
+  @Test
+  void viewsCanBeConstructedReflectively() throws Exception {
+    OrdersRuntimeHints.registerView(hints, CustomerView.class);
+
+    for (Class<?> view : new Class<?>[] {OrderSummary.class, CustomerView.class}) {
+      assertThat(RuntimeHintsPredicates.reflection()
+          .onConstructor(view.getDeclaredConstructors()[0]).invoke()).accepts(hints);
+    }
+  }
+}
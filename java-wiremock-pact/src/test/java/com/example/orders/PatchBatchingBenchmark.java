@@ -0,0 +1,124 @@
+package com.example.orders;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A burst of {@value #CALLS} {@code patchOrder} status updates, {@value #CONCURRENCY} at a time,
+ * sent one PATCH each and then with {@code orders.patch-batching} on. Reports HTTP requests made,
+ * wall time and calls per second against an in-process provider that serves both endpoints.
+ * Run on demand: {@code mvn test -Dtest=PatchBatchingBenchmark -Dcodegen.skip=true}.
+ */
+public class PatchBatchingBenchmark {
+
+  private static final int CALLS = 5_000;
+  private static final int CONCURRENCY = 1_000;
+
+  private static final AtomicLong requests = new AtomicLong();
+  private static DisposableServer provider;
+
+  @BeforeAll
+  static void start() {
+    provider = HttpServer.create()
+        .host("127.0.0.1")
+        .port(0)
+        .route(routes -> routes
+            .route(request -> request.method().equals(HttpMethod.PATCH) && request.uri().equals("/orders"),
+                (request, response) -> request.receive().aggregate().asByteArray().flatMap(body -> {
+                  requests.incrementAndGet();
+                  byte[] results = results(body);
+                  return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                      .sendByteArray(Mono.just(results)).then();
+                }))
+            .route(request -> request.method().equals(HttpMethod.PATCH),
+                (request, response) -> request.receive().then(Mono.defer(() -> {
+                  requests.incrementAndGet();
+                  byte[] order = order(Long.parseLong(request.uri().substring("/orders/".length())));
+                  return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                      .sendByteArray(Mono.just(order)).then();
+                }))))
+        .bindNow();
+  }
+
+  @AfterAll
+  static void stop() {
+    provider.disposeNow();
+  }
+
+  @Test
+  void batchingCutsRequestRate() {
+    run("warm-up", false);
+    run("warm-up", true);
+    long single = run("one PATCH per call", false);
+    long batched = run("batched (100 / 5 ms)", true);
+    assertThat(batched).isLessThan(single / 10);
+  }
+
+  private static long run(String name, boolean batching) {
+    OrdersClientProperties properties = new OrdersClientProperties();
+    properties.setBaseUrl("http://127.0.0.1:" + provider.port());
+    properties.getPool().setPendingAcquireMaxCount(-1);
+    properties.getPatchBatching().setEnabled(batching);
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), properties);
+    try {
+      requests.set(0);
+      long start = System.nanoTime();
+      Long updated = Flux.range(0, CALLS)
+          .flatMap(i -> client.patchOrder(i, OrderUpdate.status(Order.Status.COMPLETED)), CONCURRENCY)
+          .count()
+          .block(Duration.ofMinutes(2));
+      long nanos = System.nanoTime() - start;
+      assertThat(updated).isEqualTo(CALLS);
+      System.out.printf("%-22s %,6d calls in %,6d HTTP requests, %,5d ms = %,7.0f calls/s%n",
+          name, CALLS, requests.get(), nanos / 1_000_000, CALLS * 1e9 / nanos);
+      return requests.get();
+    } finally {
+      client.destroy();
+    }
+  }
+
+  private static byte[] order(long id) {
+    return ("{\"id\":" + id + ",\"customerName\":\"Alice\",\"status\":\"COMPLETED\",\"totalAmount\":120.5}")
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] results(byte[] batch) {
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (JsonGenerator gen = OrdersJson.objectMapper().getFactory().createGenerator(out)) {
+        gen.writeStartArray();
+        for (JsonNode patch : OrdersJson.objectMapper().readTree(batch)) {
+          long id = patch.get("id").asLong();
+          gen.writeStartObject();
+          gen.writeNumberField("id", id);
+          gen.writeNumberField("httpStatus", 200);
+          gen.writeFieldName("order");
+          gen.writeRawValue(new String(order(id), StandardCharsets.UTF_8));
+          gen.writeEndObject();
+        }
+        gen.writeEndArray();
+      }
+      return out.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,239 @@
+package com.example.orders;
+
+import io.netty.buffer.AbstractByteBufAllocator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledDirectByteBuf;
+import io.netty.buffer.UnpooledHeapByteBuf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PooledJsonBodyTest {
+
+  /**
+   * Remembers every buffer it hands out, so each test can check they were all released. Unpooled:
+   * Netty recycles pooled buffer objects across allocators, so a released one could come back to
+   * life in a test running alongside.
+   */
+  static final class TrackingAllocator extends AbstractByteBufAllocator {
+
+    final List<ByteBuf> allocated = new CopyOnWriteArrayList<>();
+
+    TrackingAllocator() {
+      super(true);
+    }
+
+    @Override
+    protected ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity) {
+      return track(new UnpooledDirectByteBuf(this, initialCapacity, maxCapacity));
+    }
+
+    @Override
+    protected ByteBuf newHeapBuffer(int initialCapacity, int maxCapacity) {
+      return track(new UnpooledHeapByteBuf(this, initialCapacity, maxCapacity));
+    }
+
+    @Override
+    public boolean isDirectBufferPooled() {
+      return false;
+    }
+
+    ByteBuf track(ByteBuf buffer) {
+      allocated.add(buffer);
+      return buffer;
+    }
+  }
+
+  private final TrackingAllocator allocator = new TrackingAllocator();
+  private final NettyDataBufferFactory factory = new NettyDataBufferFactory(allocator) {
+    @Override
+    public NettyDataBuffer wrap(byte[] bytes) { // the compressed body: tracked as well
+      return wrap(allocator.track(Unpooled.wrappedBuffer(bytes)));
+    }
+  };
+
+  @AfterEach
+  void everyBufferReleased() {
+    assertThat(allocator.allocated).isNotEmpty().allSatisfy(buffer -> assertThat(buffer.refCnt()).isZero());
+  }
+
+  @Test
+  void writesTheSameJsonAsTheObjectMapper() throws Exception {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("customerName", "Bob \"the\" builder");
+    map.put("items", List.of(Map.of("sku", "SKU1", "qty", 2)));
+    List<Object> bodies = List.of(
+        new OrderCreate("Alice", items(3)),
+        new OrderUpdate(null, Order.Status.COMPLETED),
+        List.of(new OrderPatch(1, OrderUpdate.status(Order.Status.PROCESSING)), new OrderPatch(2, new OrderUpdate("Zo\u00eb", null))),
+        map);
+
+    for (Object body : bodies) { // one generator per thread, reused for every body
+      DataBuffer json = PooledJsonBody.encode(body, factory);
+      try {
+        assertThat(json).isInstanceOf(NettyDataBuffer.class);
+        assertThat(((NettyDataBuffer) json).getNativeBuffer().isDirect()).isTrue();
+        assertThat(json.toString(StandardCharsets.UTF_8))
+            .isEqualTo(OrdersJson.objectMapper().writeValueAsString(body));
+      } finally {
+        DataBufferUtils.release(json);
+      }
+    }
+  }
+
+  @Test
+  void sizesTheBufferSoLargeOrdersDoNotGrowIt() {
+    for (int n : new int[] {1, 100, 5_000}) {
+      OrderCreate order = new OrderCreate("Alice", items(n));
+      DataBuffer json = PooledJsonBody.encode(order, factory);
+      try {
+        assertThat(json.capacity()).isEqualTo(PooledJsonBody.estimateSize(order));
+      } finally {
+        DataBufferUtils.release(json);
+      }
+    }
+  }
+
+  @Test
+  void releasesTheBufferWhenSerializationFails() {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("customerName", "Alice");
+    body.put("broken", new Object()); // no serializer for a bare Object
+
+    assertThatThrownBy(() -> PooledJsonBody.encode(body, factory))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("cannot be serialized");
+
+    // the half-written generator is dropped, not reused
+    DataBuffer json = PooledJsonBody.encode(new OrderUpdate("Alice", null), factory);
+    try {
+      assertThat(json.toString(StandardCharsets.UTF_8)).isEqualTo("{\"customerName\":\"Alice\"}");
+    } finally {
+      DataBufferUtils.release(json);
+    }
+  }
+
+  @Test
+  void insert_writeCancelledBeforeTheBodyIsRead_releasesTheBuffer() {
+    for (RequestCompressor compressor : compressors()) {
+      MockClientHttpRequest request = request();
+      request.setWriteHandler(body -> {
+        body.subscribe(new BaseSubscriber<DataBuffer>() {
+          @Override
+          protected void hookOnSubscribe(Subscription subscription) {
+            cancel(); // e.g. the connection closed while the headers went out
+          }
+        });
+        return Mono.empty();
+      });
+
+      insert(request, compressor).block();
+    }
+  }
+
+  @Test
+  void insert_writeFailsWithoutReadingTheBody_releasesTheBuffer() {
+    for (RequestCompressor compressor : compressors()) {
+      MockClientHttpRequest request = request();
+      request.setWriteHandler(body -> Mono.error(new IOException("Connection reset")));
+
+      assertThatThrownBy(() -> insert(request, compressor).block()).hasRootCauseInstanceOf(IOException.class);
+    }
+  }
+
+  @Test
+  void insert_callerCancelsWhileTheWriteIsPending_releasesTheBuffer() {
+    for (RequestCompressor compressor : compressors()) {
+      MockClientHttpRequest request = request();
+      request.setWriteHandler(body -> Mono.never()); // never gets to the body
+
+      Disposable write = insert(request, compressor).subscribe();
+      write.dispose();
+    }
+  }
+
+  @Test
+  void insert_compressedBody_writesTheCompressedBytesAndReleasesTheJson() {
+    RequestCompressor gzip = new RequestCompressor(RequestCompressor.Encoding.GZIP, 6, 0);
+    MockClientHttpRequest request = request();
+
+    insert(request, gzip).block();
+
+    assertThat(request.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    DataBuffer written = request.getBody().blockFirst();
+    try {
+      assertThat(written.readableByteCount()).isEqualTo(request.getHeaders().getContentLength());
+    } finally {
+      DataBufferUtils.release(written); // the mock keeps what it was given; Netty would release it
+    }
+  }
+
+  private MockClientHttpRequest request() {
+    return new MockClientHttpRequest(HttpMethod.POST, URI.create("/orders")) {
+      @Override
+      public NettyDataBufferFactory bufferFactory() {
+        return factory;
+      }
+    };
+  }
+
+  private static Mono<Void> insert(MockClientHttpRequest request, @Nullable RequestCompressor compressor) {
+    BodyInserter<Object, ClientHttpRequest> inserter =
+        PooledJsonBody.of(new OrderCreate("Alice", items(50)), compressor);
+    return inserter.insert(request, new BodyInserter.Context() {
+      @Override
+      public List<HttpMessageWriter<?>> messageWriters() {
+        return List.of();
+      }
+
+      @Override
+      public Optional<ServerHttpRequest> serverRequest() {
+        return Optional.empty();
+      }
+
+      @Override
+      public Map<String, Object> hints() {
+        return Map.of();
+      }
+    });
+  }
+
+  /** Both branches: the pooled JSON buffer as is, and the heap copy compressed from it. */
+  private static List<RequestCompressor> compressors() {
+    return Arrays.asList(null, new RequestCompressor(RequestCompressor.Encoding.GZIP, 6, 0));
+  }
+
+  private static List<Item> items(int count) {
+    return IntStream.range(0, count).mapToObj(i -> new Item("SKU-" + i, 1 + i, 9.99)).toList();
+  }
+}
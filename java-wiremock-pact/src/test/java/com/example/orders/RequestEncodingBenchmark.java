@@ -0,0 +1,114 @@
+package com.example.orders;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.ResourceLeakDetector;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Heap bytes allocated and time per request body written, for {@code createOrder} with 1 to 5000
+ * items, as a typed {@link OrderCreate} and as a {@code Map}. "default" is what {@code bodyValue}
+ * does: {@link Jackson2JsonEncoder} serializes into a heap builder and copies the result into a
+ * Netty buffer. "pooled" is {@link PooledJsonBody}. Both write into pooled direct buffers that are
+ * released after each write, as Netty does once the body is on the wire.
+ * <p>
+ * Not part of the default test run; run it on demand, with leak tracking off so that it does not
+ * add its own allocations, with
+ * {@code mvn test -Dtest=RequestEncodingBenchmark -Dnetty.leakDetection.level=disabled -Dcodegen.skip=true}.
+ */
+public class RequestEncodingBenchmark {
+
+  private static final int[] ITEMS = {1, 10, 100, 1_000, 5_000};
+  private static final int ROUNDS = 20;
+
+  private final com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+  private final NettyDataBufferFactory factory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+  private final Jackson2JsonEncoder encoder = new Jackson2JsonEncoder(OrdersJson.objectMapper());
+
+  @Test
+  void bytesAllocatedPerRequestBody() {
+    if (ResourceLeakDetector.getLevel() != ResourceLeakDetector.Level.DISABLED) {
+      System.out.printf("note: leak detection is %s; tracked buffers add to the pooled numbers%n",
+          ResourceLeakDetector.getLevel());
+    }
+    System.out.println("body         items   JSON bytes   default B/op   pooled B/op   default ns   pooled ns");
+    for (int n : ITEMS) {
+      OrderCreate typed = new OrderCreate("Customer " + n, items(n));
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("customerName", typed.customerName());
+      map.put("items", typed.items().stream()
+          .map(item -> Map.of("sku", item.sku(), "qty", item.qty(), "unitPrice", item.unitPrice()))
+          .toList());
+
+      for (Object body : List.of(typed, map)) {
+        ResolvableType type = ResolvableType.forInstance(body);
+        Supplier<DataBuffer> viaEncoder = () -> encoder.encodeValue(body, factory, type, MediaType.APPLICATION_JSON, Map.of());
+        Supplier<DataBuffer> pooled = () -> PooledJsonBody.encode(body, factory);
+
+        int length = write(pooled);
+        assertThat(write(viaEncoder)).isEqualTo(length);
+        long defaultBytes = bytesPerWrite(viaEncoder);
+        long pooledBytes = bytesPerWrite(pooled);
+        long defaultNanos = nanosPerWrite(viaEncoder);
+        long pooledNanos = nanosPerWrite(pooled);
+
+        System.out.printf("%-12s %5d   %,10d   %,12d   %,11d   %,10d   %,9d%n", body instanceof Map ? "Map" : "OrderCreate",
+            n, length, defaultBytes, pooledBytes, defaultNanos, pooledNanos);
+        // the default path holds the whole document on the heap at least once
+        assertThat(defaultBytes).isGreaterThan(length);
+        assertThat(pooledBytes).isLessThan(defaultBytes - length);
+      }
+    }
+  }
+
+  private long bytesPerWrite(Supplier<DataBuffer> write) {
+    for (int i = 0; i < ROUNDS; i++) { // warm-up
+      write(write);
+    }
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < ROUNDS; i++) {
+      long before = threads.getCurrentThreadAllocatedBytes();
+      write(write);
+      best = Math.min(best, threads.getCurrentThreadAllocatedBytes() - before);
+    }
+    return best;
+  }
+
+  private static long nanosPerWrite(Supplier<DataBuffer> write) {
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < ROUNDS; i++) {
+      long start = System.nanoTime();
+      write(write);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best;
+  }
+
+  private static int write(Supplier<DataBuffer> write) {
+    DataBuffer buffer = write.get();
+    try {
+      return buffer.readableByteCount();
+    } finally {
+      DataBufferUtils.release(buffer);
+    }
+  }
+
+  private static List<Item> items(int count) {
+    return IntStream.range(0, count).mapToObj(i -> new Item("SKU-" + i, 1 + i, 9.99)).toList();
+  }
+}
@@ -0,0 +1,171 @@
+package com.example.orders;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.VerificationException;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import com.github.tomakehurst.wiremock.store.DefaultStores;
+import com.github.tomakehurst.wiremock.store.StubMappingStore;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.StubMappingCollection;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * One WireMock server per JVM for suites that stub the orders API, started on first use on a
+ * dynamic port with an {@link IndexedStubMappingStore}. It loads, once:
+ * <ol>
+ *   <li>the OpenAPI-generated mappings under {@code target/generated-sources/wiremock}, when the
+ *   {@code generate-wiremock} execution produced them (bodies from its {@code __files})</li>
+ *   <li>{@code src/test/resources/wiremock/mappings/*.json}, which win over generated stubs for the
+ *   same request because they are newer</li>
+ * </ol>
+ * Stubs added through {@link #stubFor} are removed after each test, so the shared set stays as loaded.
+ * The request journal is shared: verify against URLs your suite owns. A suite that stubs paths
+ * other suites also call, such as {@code POST /orders}, points its client at {@link #baseUrl(String)}
+ * so its stubs and requests live under a prefix of their own.
+ */
+class SharedOrdersWireMock implements AfterEachCallback {
+
+  static final Path GENERATED = Path.of("target", "generated-sources", "wiremock");
+
+  private static WireMockServer server;
+
+  private final List<StubMapping> added = new CopyOnWriteArrayList<>();
+
+  static synchronized WireMockServer server() {
+    if (server == null) {
+      WireMockConfiguration options = wireMockConfig().dynamicPort();
+      if (Files.isDirectory(GENERATED.resolve("mappings"))) {
+        options.usingFilesUnderDirectory(GENERATED.toString());
+      }
+      options.withStores(new IndexedStores(options.filesRoot()))
+          .extensions(new LoadSensitiveDelay());
+      server = new WireMockServer(options);
+      server.start();
+      loadMappings(server, "wiremock/mappings");
+      Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+    }
+    return server;
+  }
+
+  String baseUrl() {
+    return server().baseUrl();
+  }
+
+  /** The server's URL with {@code prefix} (such as {@code "/hedging"}) as the path. */
+  String baseUrl(String prefix) {
+    return server().baseUrl() + prefix;
+  }
+
+  StubMapping stubFor(MappingBuilder mapping) {
+    StubMapping stub = server().stubFor(mapping);
+    added.add(stub);
+    return stub;
+  }
+
+  void verify(int count, RequestPatternBuilder request) throws VerificationException {
+    server().verify(count, request);
+  }
+
+  List<LoggedRequest> findAll(RequestPatternBuilder request) {
+    return server().findAll(request);
+  }
+
+  @Override
+  public void afterEach(ExtensionContext context) {
+    added.forEach(server()::removeStubMapping);
+    added.clear();
+  }
+
+  private static void loadMappings(WireMockServer server, String classpathDirectory) {
+    URL root = SharedOrdersWireMock.class.getClassLoader().getResource(classpathDirectory);
+    if (root == null) {
+      return;
+    }
+    try (Stream<Path> files = Files.list(Path.of(root.toURI()))) {
+      for (Path file : files.filter(f -> f.toString().endsWith(".json")).sorted().toList()) {
+        StubMappingCollection mappings = Json.read(Files.readString(file), StubMappingCollection.class);
+        mappings.getMappingOrMappings().forEach(server::addStubMapping);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** WireMock's default stores with the stub store swapped for the indexed one. */
+  static class IndexedStores extends DefaultStores {
+
+    private final StubMappingStore stubs = new IndexedStubMappingStore();
+
+    IndexedStores(FileSource fileRoot) {
+      super(fileRoot);
+    }
+
+    @Override
+    public StubMappingStore getStubStore() {
+      return stubs;
+    }
+  }
+
+  /**
+   * Delays each response by 5 ms plus 3 ms per request the stub is serving at that moment, so
+   * latency climbs as callers pile on. Stubs opt in with
+   * {@code withTransformers(NAME)} on the response and {@code withServeEventListener(NAME, ...)} on the
+   * mapping.
+   */
+  static class LoadSensitiveDelay implements ResponseDefinitionTransformerV2, ServeEventListener {
+
+    static final String NAME = "load-sensitive-delay";
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    @Override
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+      int concurrent = active.incrementAndGet();
+      return ResponseDefinitionBuilder.like(serveEvent.getResponseDefinition())
+          .withFixedDelay(5 + 3 * concurrent)
+          .build();
+    }
+
+    @Override
+    public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+      active.decrementAndGet();
+    }
+
+    @Override
+    public boolean applyGlobally() {
+      return false;
+    }
+
+    @Override
+    public String getName() {
+      return NAME;
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package com.example.orders;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Time from process start to the first successful {@code getOrder}, and resident memory at that
+ * point, for {@link OrdersConsumerApplication} run three ways: on the JVM, on the JVM with the
+ * AOT-processed context and a CDS archive, and as a native executable. The application performs the
+ * call itself through {@code orders.warm-up-order-id}, against an in-process provider.
+ * <p>
+ * Needs the artifacts first; setups whose artifacts are missing are skipped:
+ * <pre>
+ * mvn -Paot package -DskipTests -Dcodegen.skip=true     # JVM and JVM + CDS
+ * mvn -Pnative package -DskipTests -Dcodegen.skip=true  # native, on a GraalVM JDK
+ * mvn test -Dtest=StartupBenchmark -Dcodegen.skip=true
+ * </pre>
+ */
+public class StartupBenchmark {
+
+  private static final int RUNS = 5;
+  private static final Path CDS_DIR = Path.of("target", "cds");
+  private static final Path JAR = CDS_DIR.resolve("java-wiremock-pact-1.0.0.jar");
+  private static final Path ARCHIVE = CDS_DIR.resolve("application.jsa");
+  private static final Path NATIVE = Path.of("target", "java-wiremock-pact");
+  private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+  private static final byte[] ORDER = """
+      {"id":1,"customerName":"Alice","status":"NEW","totalAmount":120.5}""".getBytes(StandardCharsets.UTF_8);
+
+  private static DisposableServer provider;
+
+  @BeforeAll
+  static void start() {
+    provider = HttpServer.create()
+        .host("127.0.0.1")
+        .port(0)
+        .route(routes -> routes.get("/orders/{id}", (request, response) -> response
+            .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+            .header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(ORDER.length))
+            .sendByteArray(Mono.just(ORDER))))
+        .bindNow();
+  }
+
+  @AfterAll
+  static void stop() {
+    provider.disposeNow();
+  }
+
+  @Test
+  void jvm() throws Exception {
+    assumeTrue(Files.exists(JAR), "run mvn -Paot package first");
+    measure("JVM", JAVA, "-jar", JAR.toString());
+  }
+
+  @Test
+  void jvmWithAotAndCds() throws Exception {
+    assumeTrue(Files.exists(ARCHIVE), "run mvn -Paot package first");
+    measure("JVM + AOT + CDS", JAVA, "-XX:SharedArchiveFile=" + ARCHIVE, "-Xlog:cds=off",
+        "-Dspring.aot.enabled=true", "-jar", JAR.toString());
+  }
+
+  @Test
+  void nativeImage() throws Exception {
+    assumeTrue(Files.isExecutable(NATIVE), "run mvn -Pnative package on a GraalVM JDK first");
+    measure("native", NATIVE.toString());
+  }
+
+  private static void measure(String name, String... command) throws Exception {
+    long[] millis = new long[RUNS];
+    long[] rssKb = new long[RUNS];
+    for (int run = 0; run < RUNS; run++) {
+      List<String> args = new ArrayList<>(List.of(command));
+      args.addAll(List.of("--server.port=0", "--orders.warm-up-order-id=1",
+          "--orders.base-url=http://127.0.0.1:" + provider.port()));
+      Process process = new ProcessBuilder(args).redirectErrorStream(true).start();
+      long start = System.nanoTime();
+      try {
+        awaitWarmUp(process);
+        millis[run] = (System.nanoTime() - start) / 1_000_000;
+        rssKb[run] = rssKb(process.pid());
+      } finally {
+        process.destroy();
+        process.waitFor(10, TimeUnit.SECONDS);
+      }
+    }
+    Arrays.sort(millis);
+    Arrays.sort(rssKb);
+    System.out.printf("%-16s time to first getOrder: median %,5d ms (min %,5d), RSS median %,7d KB%n",
+        name, millis[RUNS / 2], millis[0], rssKb[RUNS / 2]);
+    assertThat(millis[0]).isPositive();
+  }
+
+  private static void awaitWarmUp(Process process) throws IOException {
+    BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+    List<String> seen = new ArrayList<>();
+    for (String line = out.readLine(); line != null; line = out.readLine()) {
+      if (line.contains("Orders warm-up: getOrder(1)")) {
+        return;
+      }
+      seen.add(line);
+    }
+    throw new IllegalStateException("exited before the warm-up call:\n" + String.join("\n", seen));
+  }
+
+  /** Resident set size from {@code /proc}; {@code -1} where that is not available. */
+  private static long rssKb(long pid) throws IOException {
+    Path status = Path.of("/proc", String.valueOf(pid), "status");
+    if (!Files.exists(status)) {
+      return -1;
+    }
+    return Files.readAllLines(status).stream()
+        .filter(line -> line.startsWith("VmRSS:"))
+        .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+        .findFirst()
+        .orElse(-1);
+  }
+}
@@ -0,0 +1,103 @@
+package com.example.orders;
+
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.store.InMemoryStubMappingStore;
+import com.github.tomakehurst.wiremock.store.StubMappingStore;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stub lookups per second, WireMock's default store vs {@link IndexedStubMappingStore}, as the
+ * mapping count grows. Mostly exact-path stubs plus a few templates and regexes, like generated
+ * mappings; requests are 90% hits spread over all stubs and 10% misses.
+ * Run on demand: {@code mvn test -Dtest=StubMatchingBenchmark -Dcodegen.skip=true}.
+ */
+public class StubMatchingBenchmark {
+
+  private static final long MEASURE_NANOS = 1_000_000_000L;
+
+  @Test
+  void defaultVsIndexed() {
+    for (int mappings : new int[] {10, 100, 1_000, 5_000}) {
+      StubMappingStore linear = populate(new InMemoryStubMappingStore(), mappings);
+      StubMappingStore indexed = populate(new IndexedStubMappingStore(), mappings);
+      Request[] requests = requests(mappings);
+
+      for (Request request : requests) {
+        assertThat(match(indexed, request)).isEqualTo(match(linear, request));
+      }
+      lookups(linear, requests); // warm-up
+      lookups(indexed, requests);
+      double linearRate = lookups(linear, requests);
+      double indexedRate = lookups(indexed, requests);
+      System.out.printf("%,6d mappings: default %,10.0f lookups/s, indexed %,10.0f lookups/s (%.1fx)%n",
+          mappings, linearRate, indexedRate, indexedRate / linearRate);
+    }
+  }
+
+  private static StubMappingStore populate(StubMappingStore store, int mappings) {
+    for (int i = 0; i < mappings - 5; i++) {
+      RequestMethod method = i % 10 == 9 ? RequestMethod.PUT : RequestMethod.GET;
+      store.add(request(method.getName(), urlPathEqualTo("/orders/" + i)).withName("exact-" + i)
+          .willReturn(okJson("{\"id\":" + i + "}")).build());
+    }
+    store.add(get(urlPathTemplate("/orders/{id}/items/{sku}")).withName("template")
+        .willReturn(ok()).build());
+    store.add(get(urlPathMatching("/customers/[0-9]+/orders")).withName("regex")
+        .willReturn(ok()).build());
+    store.add(get(urlPathEqualTo("/orders/1")).withHeader("If-None-Match", matching(".+")).withName("conditional")
+        .willReturn(aResponse().withStatus(304)).build());
+    store.add(any(urlPathEqualTo("/health")).withName("any-method").willReturn(ok()).build());
+    store.add(get(urlPathMatching("/orders/[0-9]+")).atPriority(10).withName("fallback")
+        .willReturn(notFound()).build());
+    return store;
+  }
+
+  private static Request[] requests(int mappings) {
+    Random random = new Random(42);
+    Request[] requests = new Request[1_000];
+    for (int i = 0; i < requests.length; i++) {
+      String path = switch (i % 10) {
+        case 0 -> "/orders/" + (mappings + random.nextInt(1_000)); // miss -> fallback
+        case 1 -> "/orders/7/items/SKU1";
+        case 2 -> "/customers/42/orders";
+        default -> "/orders/" + random.nextInt(Math.max(1, mappings - 5));
+      };
+      requests[i] = ImmutableRequest.create()
+          .withAbsoluteUrl("http://localhost:8080" + path + (i % 7 == 0 ? "?status=NEW" : ""))
+          .withMethod(RequestMethod.GET)
+          .build();
+    }
+    return requests;
+  }
+
+  private static String match(StubMappingStore store, Request request) {
+    return store.findAllMatchingRequest(request, Map.of(), event -> { })
+        .findFirst()
+        .map(StubMapping::getName)
+        .orElse(null);
+  }
+
+  private static double lookups(StubMappingStore store, Request[] requests) {
+    long start = System.nanoTime();
+    long elapsed;
+    int lookups = 0;
+    int found = 0;
+    do {
+      for (int i = 0; i < 100; i++, lookups++) {
+        found += match(store, requests[lookups % requests.length]) == null ? 0 : 1;
+      }
+      elapsed = System.nanoTime() - start;
+    } while (elapsed < MEASURE_NANOS);
+    assertThat(found).isPositive();
+    return lookups * 1e9 / elapsed;
+  }
+}
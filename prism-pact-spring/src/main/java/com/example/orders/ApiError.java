@@ -0,0 +1,19 @@
+package com.example.orders;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Typed view of {@code components/schemas/Error} in {@code openapi/orders.yaml}.
+ */
+public record ApiError(String code, String message) {
+
+  /**
+   * Decodes the provider's error body, or returns {@code null} when the response had none.
+   */
+  public static ApiError from(WebClientResponseException ex) {
+    if (ex.getResponseBodyAsByteArray().length == 0) {
+      return null;
+    }
+    return ex.getResponseBodyAs(ApiError.class);
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.orders;
+
+import java.util.List;
+
+/**
+ * Typed view of {@code components/schemas/OrderCreate} in {@code openapi/orders.yaml}.
+ */
+public record OrderCreate(String customerName, List<Item> items) {
+
+  public OrderCreate {
+    items = List.copyOf(items);
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.orders;
+
+/**
+ * Typed view of {@code components/schemas/OrderUpdate} in {@code openapi/orders.yaml}.
+ * Both fields are optional; {@code null} fields are left out of the request body.
+ */
+public record OrderUpdate(String customerName, Order.Status status) {
+
+  public static OrderUpdate status(Order.Status status) {
+    return new OrderUpdate(null, status);
+  }
+}
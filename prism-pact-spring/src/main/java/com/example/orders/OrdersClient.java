@@ -1,6 +1,10 @@
 package com.example.orders;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
@@ -15,8 +19,14 @@ public class OrdersClient {
   private final WebClient webClient;
 
   public OrdersClient(WebClient.Builder builder) {
-    String baseUrl = System.getProperty("orders.baseUrl", "http://localhost:4010");
-    this.webClient = builder.baseUrl(baseUrl).build();
+    this(builder, System.getProperty("orders.baseUrl", "http://localhost:4010"));
+  }
+
+  @Autowired
+  public OrdersClient(WebClient.Builder builder, @Value("${orders.base-url:http://localhost:4010}") String baseUrl) {
+    this.webClient = builder.baseUrl(baseUrl)
+        .codecs(OrdersJson::configure)
+        .build();
   }
 
   public Mono<List<Map>> listOrders(String status) {
@@ -71,4 +81,92 @@ public class OrdersClient {
         .retrieve()
         .bodyToMono(Void.class);
   }
+
+  // --- Typed API: decodes straight into records through OrdersJson, no intermediate Map ---
+
+  public Mono<List<Order>> findOrders(String status) {
+    return webClient.get()
+        .uri(uri -> uri.path("/orders")
+            .queryParamIfPresent("status", Optional.ofNullable(status))
+            .build())
+        .accept(MediaType.APPLICATION_JSON)
+        .retrieve()
+        .bodyToFlux(Order.class)
+        .collectList();
+  }
+
+  public Mono<Order> findOrder(long id) {
+    return webClient.get()
+        .uri("/orders/{id}", id)
+        .accept(MediaType.APPLICATION_JSON)
+        .retrieve()
+        .bodyToMono(Order.class);
+  }
+
+  /** The order with its version as the {@code ETag}, for a later conditional write. */
+  public Mono<ResponseEntity<Order>> findOrderEntity(long id) {
+    return webClient.get()
+        .uri("/orders/{id}", id)
+        .accept(MediaType.APPLICATION_JSON)
+        .retrieve()
+        .toEntity(Order.class);
+  }
+
+  public Mono<Order> createOrder(OrderCreate body) {
+    return webClient.post()
+        .uri("/orders")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(body)
+        .retrieve()
+        .bodyToMono(Order.class);
+  }
+
+  public Mono<Order> putOrder(long id, OrderUpdate body) {
+    return webClient.put()
+        .uri("/orders/{id}", id)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(body)
+        .retrieve()
+        .bodyToMono(Order.class);
+  }
+
+  public Mono<Order> patchOrder(long id, OrderUpdate body) {
+    return webClient.patch()
+        .uri("/orders/{id}", id)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(body)
+        .retrieve()
+        .bodyToMono(Order.class);
+  }
+
+  // --- Conditional writes: applied only while the order is still at the ETag the caller read ---
+  // A stale ifMatch fails with WebClientResponseException.Conflict; the returned entity carries the new ETag.
+
+  public Mono<ResponseEntity<Order>> putOrder(long id, OrderUpdate body, String ifMatch) {
+    return webClient.put()
+        .uri("/orders/{id}", id)
+        .header(HttpHeaders.IF_MATCH, ifMatch)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(body)
+        .retrieve()
+        .toEntity(Order.class);
+  }
+
+  public Mono<ResponseEntity<Order>> patchOrder(long id, OrderUpdate body, String ifMatch) {
+    return webClient.patch()
+        .uri("/orders/{id}", id)
+        .header(HttpHeaders.IF_MATCH, ifMatch)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(body)
+        .retrieve()
+        .toEntity(Order.class);
+  }
+
+  public Mono<Void> deleteOrder(long id, String ifMatch) {
+    return webClient.delete()
+        .uri("/orders/{id}", id)
+        .header(HttpHeaders.IF_MATCH, ifMatch)
+        .retrieve()
+        .bodyToMono(Void.class);
+  }
 }
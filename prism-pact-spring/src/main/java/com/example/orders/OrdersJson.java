@@ -0,0 +1,220 @@
+package com.example.orders;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.http.codec.ClientCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Hand-written streaming (de)serializers for the typed order records.
+ * <p>
+ * Each codec walks the token stream directly, so decoding an {@link Order} allocates the record
+ * and its strings and nothing else: no intermediate {@code LinkedHashMap}, no boxed numbers and
+ * no reflective bean introspection. Unknown fields are skipped without being materialized.
+ */
+public final class OrdersJson {
+
+  private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json()
+      .modulesToInstall(module())
+      .build();
+
+  private OrdersJson() {
+  }
+
+  public static ObjectMapper objectMapper() {
+    return MAPPER;
+  }
+
+  /**
+   * Registers the order codecs on a {@code WebClient.Builder}, e.g. {@code builder.codecs(OrdersJson::configure)}.
+   * The untyped {@code Map} API keeps working as it goes through the same {@link ObjectMapper}.
+   */
+  public static void configure(ClientCodecConfigurer configurer) {
+    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(MAPPER));
+    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(MAPPER));
+  }
+
+  public static SimpleModule module() {
+    SimpleModule module = new SimpleModule("OrdersJson");
+    module.addDeserializer(Order.class, new OrderDeserializer());
+    module.addDeserializer(Item.class, new ItemDeserializer());
+    module.addDeserializer(ApiError.class, new ApiErrorDeserializer());
+    module.addSerializer(OrderCreate.class, new OrderCreateSerializer());
+    module.addSerializer(OrderUpdate.class, new OrderUpdateSerializer());
+    module.addSerializer(Item.class, new ItemSerializer());
+    return module;
+  }
+
+  /**
+   * Positions the parser on the first field name of the current object, accepting both
+   * {@code START_OBJECT} and {@code FIELD_NAME} as the entry token.
+   */
+  static JsonToken firstField(JsonParser p, Class<?> type, DeserializationContext ctxt) throws IOException {
+    JsonToken t = p.currentToken();
+    if (t == JsonToken.START_OBJECT) {
+      t = p.nextToken();
+    }
+    if (t != JsonToken.FIELD_NAME && t != JsonToken.END_OBJECT) {
+      ctxt.handleUnexpectedToken(type, p);
+    }
+    return t;
+  }
+
+  static Order.Status status(JsonParser p, DeserializationContext ctxt) throws IOException {
+    if (p.currentToken() == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    String text = p.getText();
+    try {
+      return Order.Status.valueOf(text);
+    } catch (IllegalArgumentException ex) {
+      throw ctxt.weirdStringException(text, Order.Status.class, "not one of the declared Order statuses");
+    }
+  }
+
+  static final class OrderDeserializer extends StdDeserializer<Order> {
+
+    OrderDeserializer() {
+      super(Order.class);
+    }
+
+    @Override
+    public Order deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      long id = 0;
+      String customerName = null;
+      Order.Status status = null;
+      double totalAmount = 0;
+      for (JsonToken t = firstField(p, Order.class, ctxt); t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+        String name = p.currentName();
+        p.nextToken();
+        switch (name) {
+          case "id" -> id = p.getLongValue();
+          case "customerName" -> customerName = p.getValueAsString();
+          case "status" -> status = status(p, ctxt);
+          case "totalAmount" -> totalAmount = p.getDoubleValue();
+          default -> p.skipChildren();
+        }
+      }
+      return new Order(id, customerName, status, totalAmount);
+    }
+  }
+
+  static final class ItemDeserializer extends StdDeserializer<Item> {
+
+    ItemDeserializer() {
+      super(Item.class);
+    }
+
+    @Override
+    public Item deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      String sku = null;
+      int qty = 0;
+      double unitPrice = 0;
+      for (JsonToken t = firstField(p, Item.class, ctxt); t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+        String name = p.currentName();
+        p.nextToken();
+        switch (name) {
+          case "sku" -> sku = p.getValueAsString();
+          case "qty" -> qty = p.getIntValue();
+          case "unitPrice" -> unitPrice = p.getDoubleValue();
+          default -> p.skipChildren();
+        }
+      }
+      return new Item(sku, qty, unitPrice);
+    }
+  }
+
+  static final class ApiErrorDeserializer extends StdDeserializer<ApiError> {
+
+    ApiErrorDeserializer() {
+      super(ApiError.class);
+    }
+
+    @Override
+    public ApiError deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      String code = null;
+      String message = null;
+      for (JsonToken t = firstField(p, ApiError.class, ctxt); t == JsonToken.FIELD_NAME; t = p.nextToken()) {
+        String name = p.currentName();
+        p.nextToken();
+        switch (name) {
+          case "code" -> code = p.getValueAsString();
+          case "message" -> message = p.getValueAsString();
+          default -> p.skipChildren();
+        }
+      }
+      return new ApiError(code, message);
+    }
+  }
+
+  static final class OrderCreateSerializer extends StdSerializer<OrderCreate> {
+
+    OrderCreateSerializer() {
+      super(OrderCreate.class);
+    }
+
+    @Override
+    public void serialize(OrderCreate value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartObject();
+      gen.writeStringField("customerName", value.customerName());
+      gen.writeArrayFieldStart("items");
+      List<Item> items = value.items();
+      for (int i = 0; i < items.size(); i++) {
+        writeItem(items.get(i), gen);
+      }
+      gen.writeEndArray();
+      gen.writeEndObject();
+    }
+  }
+
+  static final class OrderUpdateSerializer extends StdSerializer<OrderUpdate> {
+
+    OrderUpdateSerializer() {
+      super(OrderUpdate.class);
+    }
+
+    @Override
+    public void serialize(OrderUpdate value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartObject();
+      if (value.customerName() != null) {
+        gen.writeStringField("customerName", value.customerName());
+      }
+      if (value.status() != null) {
+        gen.writeStringField("status", value.status().name());
+      }
+      gen.writeEndObject();
+    }
+  }
+
+  static final class ItemSerializer extends StdSerializer<Item> {
+
+    ItemSerializer() {
+      super(Item.class);
+    }
+
+    @Override
+    public void serialize(Item value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      writeItem(value, gen);
+    }
+  }
+
+  static void writeItem(Item item, JsonGenerator gen) throws IOException {
+    gen.writeStartObject();
+    gen.writeStringField("sku", item.sku());
+    gen.writeNumberField("qty", item.qty());
+    gen.writeNumberField("unitPrice", item.unitPrice());
+    gen.writeEndObject();
+  }
+}
@@ -0,0 +1,352 @@
+package com.example.orders;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stateful stand-in for the Orders provider covering all of {@code openapi/orders.yaml}. Where
+ * {@link OpenApiMock} answers from examples, this one keeps the orders it is given:
+ * <ul>
+ *   <li>{@code POST /orders} stores a {@code NEW} order whose {@code totalAmount} is the sum of
+ *   {@code qty * unitPrice}, and answers 201 with {@code Location} and {@code ETag}</li>
+ *   <li>{@code GET}, {@code PUT}, {@code PATCH} and {@code DELETE} on a missing or deleted id
+ *   answer 404</li>
+ *   <li>every order carries a version, exposed as its {@code ETag}. A write whose {@code If-Match}
+ *   is stale, also because a concurrent write got in first, answers 409 instead of silently
+ *   overwriting it. A write without {@code If-Match} applies to whatever version is current</li>
+ *   <li>malformed ids, bodies and {@code status} values answer 400</li>
+ * </ul>
+ * {@code PUT} and {@code PATCH} both apply the fields present in the {@code OrderUpdate} body.
+ * Orders live in a {@link LongKeyedStore}, so reads and writes never take a lock.
+ * <pre>{@code
+ * @RegisterExtension
+ * static InMemoryOrdersProvider provider = new InMemoryOrdersProvider();
+ * }</pre>
+ */
+final class InMemoryOrdersProvider implements BeforeAllCallback, AfterAllCallback, AutoCloseable {
+
+  private static final JsonFactory JSON = OrdersJson.objectMapper().getFactory();
+  private static final byte[] EMPTY = new byte[0];
+
+  private record Stored(Order order, long version) {
+  }
+
+  private record Reply(int status, Stored stored, byte[] body) {
+  }
+
+  private final LongKeyedStore<Stored> orders;
+  private DisposableServer server;
+
+  InMemoryOrdersProvider() {
+    this(1 << 24);
+  }
+
+  /** Holds up to {@code capacity} orders created over the provider's lifetime. */
+  InMemoryOrdersProvider(long capacity) {
+    this.orders = new LongKeyedStore<>(capacity);
+  }
+
+  /** Binds a free port; {@link #close()} releases it. */
+  InMemoryOrdersProvider start() {
+    server = HttpServer.create()
+        .host("127.0.0.1")
+        .port(0)
+        .handle(this::handle)
+        .bindNow();
+    return this;
+  }
+
+  String baseUrl() {
+    if (server == null) {
+      throw new IllegalStateException("provider is not running");
+    }
+    return "http://127.0.0.1:" + server.port();
+  }
+
+  /** Stores an order without going through HTTP, e.g. to seed a test. */
+  Order create(OrderCreate order) {
+    double total = 0;
+    for (Item item : order.items()) {
+      total += item.qty() * item.unitPrice();
+    }
+    double totalAmount = Math.round(total * 100) / 100.0;
+    return orders.insert(id -> new Stored(
+        new Order(id, order.customerName(), Order.Status.NEW, totalAmount), 1)).order();
+  }
+
+  long size() {
+    return orders.size();
+  }
+
+  @Override
+  public void beforeAll(ExtensionContext context) {
+    start();
+  }
+
+  @Override
+  public void afterAll(ExtensionContext context) {
+    close();
+  }
+
+  @Override
+  public void close() {
+    if (server != null) {
+      server.disposeNow();
+      server = null;
+    }
+  }
+
+  private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+    return request.receive().aggregate().asByteArray()
+        .defaultIfEmpty(EMPTY)
+        .flatMap(body -> {
+          Reply reply = route(request, body);
+          response.status(reply.status());
+          if (reply.stored() != null) {
+            response.header(HttpHeaderNames.ETAG, etag(reply.stored().version()));
+            if (reply.status() == 201) {
+              response.header(HttpHeaderNames.LOCATION, "/orders/" + reply.stored().order().id());
+            }
+          }
+          if (reply.body().length == 0) {
+            return response.send().then();
+          }
+          return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+              .header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(reply.body().length))
+              .sendByteArray(Mono.just(reply.body())).then();
+        });
+  }
+
+  private Reply route(HttpServerRequest request, byte[] body) {
+    QueryStringDecoder uri = new QueryStringDecoder(request.uri());
+    String path = uri.path();
+    HttpMethod method = request.method();
+    if (path.equals("/orders")) {
+      if (method.equals(HttpMethod.GET)) {
+        List<String> status = uri.parameters().get("status");
+        return list(status == null ? null : status.get(0));
+      }
+      return method.equals(HttpMethod.POST) ? create(body) : error(405, "METHOD_NOT_ALLOWED", method + " " + path);
+    }
+    if (!path.startsWith("/orders/")) {
+      return error(404, "NOT_FOUND", "No resource " + path);
+    }
+    long id;
+    try {
+      id = Long.parseLong(path.substring("/orders/".length()));
+    } catch (NumberFormatException e) {
+      return error(400, "BAD_REQUEST", "id must be an integer");
+    }
+    String ifMatch = request.requestHeaders().get(HttpHeaderNames.IF_MATCH);
+    if (method.equals(HttpMethod.GET)) {
+      Stored stored = orders.get(id);
+      return stored == null ? notFound(id) : new Reply(200, stored, write(stored.order()));
+    }
+    if (method.equals(HttpMethod.PUT) || method.equals(HttpMethod.PATCH)) {
+      return update(id, body, ifMatch);
+    }
+    return method.equals(HttpMethod.DELETE) ? delete(id, ifMatch) : error(405, "METHOD_NOT_ALLOWED", method + " " + path);
+  }
+
+  private Reply list(String status) {
+    Order.Status filter = null;
+    if (status != null) {
+      filter = status(status);
+      if (filter == null) {
+        return error(400, "BAD_REQUEST", "status must be one of NEW, PROCESSING, COMPLETED, CANCELLED");
+      }
+    }
+    Order.Status wanted = filter;
+    List<Order> matching = new ArrayList<>();
+    orders.forEach(stored -> {
+      if (wanted == null || stored.order().status() == wanted) {
+        matching.add(stored.order());
+      }
+    });
+    return new Reply(200, null, write(matching));
+  }
+
+  private Reply create(byte[] body) {
+    JsonNode json = parse(body);
+    if (json == null || !json.isObject()) {
+      return error(400, "BAD_REQUEST", "body must be a JSON object");
+    }
+    if (!json.path("customerName").isTextual()) {
+      return error(400, "BAD_REQUEST", "customerName is required");
+    }
+    if (!json.path("items").isArray()) {
+      return error(400, "BAD_REQUEST", "items is required");
+    }
+    List<Item> items = new ArrayList<>(json.get("items").size());
+    for (JsonNode item : json.get("items")) {
+      if (!item.path("sku").isTextual() || !item.path("qty").isInt() || !item.path("unitPrice").isNumber()) {
+        return error(400, "BAD_REQUEST", "items need sku, qty and unitPrice");
+      }
+      if (item.get("qty").intValue() < 1 || item.get("unitPrice").doubleValue() < 0) {
+        return error(400, "BAD_REQUEST", "qty must be at least 1 and unitPrice not negative");
+      }
+      items.add(new Item(item.get("sku").textValue(), item.get("qty").intValue(), item.get("unitPrice").doubleValue()));
+    }
+    Order order = create(new OrderCreate(json.get("customerName").textValue(), items));
+    return new Reply(201, orders.get(order.id()), write(order));
+  }
+
+  private Reply update(long id, byte[] body, String ifMatch) {
+    JsonNode json = parse(body);
+    if (json == null || !json.isObject()) {
+      return error(400, "BAD_REQUEST", "body must be a JSON object");
+    }
+    JsonNode name = json.get("customerName");
+    if (name != null && !name.isTextual()) {
+      return error(400, "BAD_REQUEST", "customerName must be a string");
+    }
+    Order.Status status = null;
+    if (json.has("status")) {
+      status = json.get("status").isTextual() ? status(json.get("status").textValue()) : null;
+      if (status == null) {
+        return error(400, "BAD_REQUEST", "status must be one of NEW, PROCESSING, COMPLETED, CANCELLED");
+      }
+    }
+    while (true) {
+      Stored current = orders.get(id);
+      if (current == null) {
+        return notFound(id);
+      }
+      if (ifMatch != null && !matches(ifMatch, current.version())) {
+        return conflict(current);
+      }
+      Order order = current.order();
+      Stored next = new Stored(new Order(id,
+          name != null ? name.textValue() : order.customerName(),
+          status != null ? status : order.status(),
+          order.totalAmount()), current.version() + 1);
+      if (orders.replace(id, current, next)) {
+        return new Reply(200, next, write(next.order()));
+      }
+      // another write got in first: an If-Match write re-checks its version and answers 409,
+      // an unconditional one applies to the new current version (last write wins)
+    }
+  }
+
+  private Reply delete(long id, String ifMatch) {
+    while (true) {
+      Stored current = orders.get(id);
+      if (current == null) {
+        return notFound(id);
+      }
+      if (ifMatch != null && !matches(ifMatch, current.version())) {
+        return conflict(current);
+      }
+      if (orders.remove(id, current)) {
+        return new Reply(204, null, EMPTY);
+      }
+    }
+  }
+
+  private static Reply notFound(long id) {
+    return error(404, "NOT_FOUND", "Order " + id + " not found");
+  }
+
+  private static Reply conflict(Stored current) {
+    return error(409, "CONFLICT", "Version conflict: order " + current.order().id() + " is at version " + current.version());
+  }
+
+  private static Reply error(int status, String code, String message) {
+    return new Reply(status, null, write(gen -> {
+      gen.writeStartObject();
+      gen.writeStringField("code", code);
+      gen.writeStringField("message", message);
+      gen.writeEndObject();
+    }));
+  }
+
+  private static String etag(long version) {
+    return "\"" + version + "\"";
+  }
+
+  private static boolean matches(String ifMatch, long version) {
+    String current = etag(version);
+    for (String tag : ifMatch.split(",")) {
+      String candidate = tag.trim();
+      if (candidate.equals("*") || candidate.equals(current) || candidate.equals("W/" + current)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Order.Status status(String text) {
+    for (Order.Status status : Order.Status.values()) {
+      if (status.name().equals(text)) {
+        return status;
+      }
+    }
+    return null;
+  }
+
+  private static JsonNode parse(byte[] body) {
+    if (body.length == 0) {
+      return null;
+    }
+    try {
+      return OrdersJson.objectMapper().readTree(body);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private interface Writer {
+    void write(JsonGenerator gen) throws IOException;
+  }
+
+  private static byte[] write(Order order) {
+    return write(gen -> writeOrder(order, gen));
+  }
+
+  private static byte[] write(List<Order> orders) {
+    return write(gen -> {
+      gen.writeStartArray();
+      for (Order order : orders) {
+        writeOrder(order, gen);
+      }
+      gen.writeEndArray();
+    });
+  }
+
+  private static void writeOrder(Order order, JsonGenerator gen) throws IOException {
+    gen.writeStartObject();
+    gen.writeNumberField("id", order.id());
+    gen.writeStringField("customerName", order.customerName());
+    gen.writeStringField("status", order.status().name());
+    gen.writeNumberField("totalAmount", order.totalAmount());
+    gen.writeEndObject();
+  }
+
+  private static byte[] write(Writer writer) {
+    try (ByteArrayBuilder out = new ByteArrayBuilder(256); JsonGenerator gen = JSON.createGenerator(out)) {
+      writer.write(gen);
+      gen.flush();
+      return out.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
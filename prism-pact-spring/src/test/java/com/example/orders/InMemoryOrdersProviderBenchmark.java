@@ -0,0 +1,63 @@
+package com.example.orders;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Request throughput of {@link InMemoryOrdersProvider} under a read-mostly mix with contended
+ * writes. Run on demand: {@code mvn test -Dtest=InMemoryOrdersProviderBenchmark}.
+ */
+@Isolated // asserts a minimum request rate
+public class InMemoryOrdersProviderBenchmark {
+
+  private static final int ORDERS = 10_000;
+  private static final int REQUESTS = 20_000;
+  private static final int CONCURRENCY = 32;
+
+  @Test
+  void servesThousandsOfRequestsPerSecond() {
+    try (InMemoryOrdersProvider provider = new InMemoryOrdersProvider().start()) {
+      for (int i = 0; i < ORDERS; i++) {
+        provider.create(new OrderCreate("seed-" + i, List.of(new Item("SKU", 1, 1.0))));
+      }
+      HttpClient http = HttpClient.create().baseUrl(provider.baseUrl());
+
+      run(http, REQUESTS / 4); // warm-up
+      long begin = System.nanoTime();
+      long answered = run(http, REQUESTS);
+      double seconds = (System.nanoTime() - begin) / 1e9;
+
+      System.out.printf("InMemoryOrdersProvider: %d requests at %.0f req/s (concurrency %d, %d orders)%n",
+          REQUESTS, REQUESTS / seconds, CONCURRENCY, provider.size());
+      assertThat(answered).isEqualTo(REQUESTS);
+      assertThat(REQUESTS / seconds).isGreaterThan(500);
+    }
+  }
+
+  // 80% gets, 20% patches aimed at 100 hot orders so some of them race
+  private static long run(HttpClient http, int requests) {
+    return Flux.range(0, requests)
+        .flatMap(i -> i % 5 == 0
+            ? answered(http.headers(h -> h.set("Content-Type", "application/json"))
+                .patch().uri("/orders/" + (1 + i % 100))
+                .send(Mono.fromSupplier(() -> Unpooled.wrappedBuffer("{\"status\":\"PROCESSING\"}".getBytes(StandardCharsets.UTF_8)))))
+            : answered(http.get().uri("/orders/" + (1 + i % ORDERS))), CONCURRENCY)
+        .filter(Boolean::booleanValue)
+        .count()
+        .block();
+  }
+
+  private static Mono<Boolean> answered(HttpClient.ResponseReceiver<?> request) {
+    return request.responseSingle((response, body) -> body.then(Mono.just(response.status().code() == 200
+        || response.status().code() == 409)));
+  }
+}
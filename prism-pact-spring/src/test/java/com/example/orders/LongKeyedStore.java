@@ -0,0 +1,94 @@
+package com.example.orders;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Lock-free map from store-assigned {@code long} ids to values. Ids are handed out sequentially and
+ * index straight into lazily allocated pages, so lookups hash nothing and box nothing, and every
+ * update is a single compare-and-set on the slot.
+ */
+final class LongKeyedStore<V> {
+
+  private static final int PAGE_SHIFT = 12;
+  private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+  private final AtomicReferenceArray<AtomicReferenceArray<V>> pages;
+  private final AtomicLong lastId = new AtomicLong();
+  private final LongAdder size = new LongAdder();
+
+  /** Room for {@code capacity} ids over the store's lifetime; deleted ids are not reused. */
+  LongKeyedStore(long capacity) {
+    this.pages = new AtomicReferenceArray<>((int) ((capacity + PAGE_SIZE) >>> PAGE_SHIFT));
+  }
+
+  /** Assigns the next id and stores {@code factory.apply(id)} under it. */
+  V insert(LongFunction<V> factory) {
+    long id = lastId.incrementAndGet();
+    if ((id >>> PAGE_SHIFT) >= pages.length()) {
+      throw new IllegalStateException("store is full at " + (id - 1) + " ids");
+    }
+    V value = factory.apply(id);
+    page(id).set((int) (id & PAGE_MASK), value);
+    size.increment();
+    return value;
+  }
+
+  V get(long id) {
+    if (id <= 0 || id > lastId.get()) {
+      return null;
+    }
+    AtomicReferenceArray<V> page = pages.get((int) (id >>> PAGE_SHIFT));
+    return page == null ? null : page.get((int) (id & PAGE_MASK));
+  }
+
+  /** Replaces {@code expected} with {@code next}; {@code false} if the slot changed in between. */
+  boolean replace(long id, V expected, V next) {
+    return page(id).compareAndSet((int) (id & PAGE_MASK), expected, next);
+  }
+
+  /** Removes {@code expected}; {@code false} if the slot changed in between. */
+  boolean remove(long id, V expected) {
+    if (page(id).compareAndSet((int) (id & PAGE_MASK), expected, null)) {
+      size.decrement();
+      return true;
+    }
+    return false;
+  }
+
+  /** Visits the live values in id order. */
+  void forEach(Consumer<? super V> action) {
+    long last = lastId.get();
+    for (int p = 0; p <= (int) (last >>> PAGE_SHIFT); p++) {
+      AtomicReferenceArray<V> page = pages.get(p);
+      if (page == null) {
+        continue;
+      }
+      int end = p == (int) (last >>> PAGE_SHIFT) ? (int) (last & PAGE_MASK) : PAGE_MASK;
+      for (int i = p == 0 ? 1 : 0; i <= end; i++) {
+        V value = page.get(i);
+        if (value != null) {
+          action.accept(value);
+        }
+      }
+    }
+  }
+
+  long size() {
+    return size.sum();
+  }
+
+  private AtomicReferenceArray<V> page(long id) {
+    int index = (int) (id >>> PAGE_SHIFT);
+    AtomicReferenceArray<V> page = pages.get(index);
+    if (page == null) {
+      pages.compareAndSet(index, null, new AtomicReferenceArray<>(PAGE_SIZE));
+      page = pages.get(index);
+    }
+    return page;
+  }
+}
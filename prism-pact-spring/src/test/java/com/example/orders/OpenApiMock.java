@@ -0,0 +1,241 @@
+package com.example.orders;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+
+/**
+ * In-JVM replacement for {@code prism mock --errors --dynamic}: a Reactor Netty server that answers
+ * every operation of an OpenAPI document.
+ * <ul>
+ *   <li>path, query and JSON body are validated against the spec; violations get the operation's
+ *   declared 400 response (415 for a non-JSON body) and an {@code X-Mock-Violation} header</li>
+ *   <li>valid requests get the lowest declared 2xx: its first example, or a body generated from its
+ *   schema (random values when {@code dynamic}); fields of an object request body that the response
+ *   schema also declares are echoed, so writes reflect their input</li>
+ *   <li>{@code Prefer: code=404} and {@code Prefer: dynamic=true} work as in Prism</li>
+ * </ul>
+ * Nothing is persisted. Example bodies are serialized once at start-up, so the hot path is a route
+ * lookup and a buffer write.
+ */
+final class OpenApiMock implements AutoCloseable {
+
+  private static final ObjectMapper JSON = new ObjectMapper();
+  private static final byte[] EMPTY = new byte[0];
+
+  private record Reply(int status, Map<String, String> headers, byte[] body) {
+  }
+
+  private final OpenApiSpec spec;
+  private final boolean dynamic;
+  private final Map<OpenApiSpec.Response, byte[]> examples = new IdentityHashMap<>();
+  private final DisposableServer server;
+
+  private OpenApiMock(OpenApiSpec spec, boolean dynamic, int port) {
+    this.spec = spec;
+    this.dynamic = dynamic;
+    for (OpenApiSpec.Operation operation : spec.operations()) {
+      operation.responses().values().stream()
+          .filter(response -> response.example() != null)
+          .forEach(response -> examples.put(response, bytes(response.example())));
+    }
+    this.server = HttpServer.create()
+        .host("127.0.0.1")
+        .port(port)
+        .handle(this::handle)
+        .bindNow();
+  }
+
+  /** Parses {@code spec} (once per JVM) and listens on {@code port}, 0 for any free port. */
+  static OpenApiMock start(Path spec, boolean dynamic, int port) {
+    return new OpenApiMock(OpenApiSpec.load(spec), dynamic, port);
+  }
+
+  String baseUrl() {
+    return "http://127.0.0.1:" + server.port();
+  }
+
+  @Override
+  public void close() {
+    server.disposeNow();
+  }
+
+  private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+    return request.receive().aggregate().asByteArray()
+        .defaultIfEmpty(EMPTY)
+        .flatMap(body -> {
+          Reply reply = reply(request, body);
+          reply.headers().forEach(response::header);
+          response.status(reply.status());
+          return reply.body().length == 0
+              ? response.send().then()
+              : response.header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(reply.body().length))
+                  .sendByteArray(Mono.just(reply.body())).then();
+        });
+  }
+
+  private Reply reply(HttpServerRequest request, byte[] body) {
+    QueryStringDecoder uri = new QueryStringDecoder(request.uri());
+    String method = request.method().name();
+    Set<String> allowed = new TreeSet<>();
+    for (OpenApiSpec.Operation operation : spec.operations()) {
+      Matcher path = operation.path().matcher(uri.path());
+      if (!path.matches()) {
+        continue;
+      }
+      if (!operation.method().equals(method)) {
+        allowed.add(operation.method());
+        continue;
+      }
+      return reply(operation, path, uri.parameters(), request.requestHeaders().get(HttpHeaderNames.CONTENT_TYPE),
+          request.requestHeaders().get("Prefer"), body);
+    }
+    return allowed.isEmpty()
+        ? error(404, "NOT_FOUND", "No operation for " + method + " " + uri.path())
+        : new Reply(405, Map.of("Allow", String.join(", ", allowed)), EMPTY);
+  }
+
+  private Reply reply(OpenApiSpec.Operation operation, Matcher path, Map<String, List<String>> query,
+      String contentType, String prefer, byte[] body) {
+    for (OpenApiSpec.Parameter parameter : operation.parameters()) {
+      String value = switch (parameter.in()) {
+        case "path" -> path.group(operation.pathNames().indexOf(parameter.name()) + 1);
+        case "query" -> query.containsKey(parameter.name()) ? query.get(parameter.name()).get(0) : null;
+        default -> null;
+      };
+      if (value == null) {
+        if (parameter.required() && !parameter.in().equals("header") && !parameter.in().equals("cookie")) {
+          return invalid(operation, parameter.name() + ": is required");
+        }
+        continue;
+      }
+      String violation = OpenApiSchemas.validateText(parameter.schema(), value, parameter.name());
+      if (violation != null) {
+        return invalid(operation, violation);
+      }
+    }
+
+    JsonNode input = null;
+    if (operation.requestSchema() != null) {
+      if (body.length == 0) {
+        if (operation.requestRequired()) {
+          return invalid(operation, "body: is required");
+        }
+      } else if (contentType == null || !contentType.contains("json")) {
+        return new Reply(415, Map.of(), EMPTY);
+      } else {
+        try {
+          input = JSON.readTree(body);
+        } catch (java.io.IOException e) {
+          return invalid(operation, "body: malformed JSON");
+        }
+        String violation = OpenApiSchemas.validate(operation.requestSchema(), input, "body");
+        if (violation != null) {
+          return invalid(operation, violation);
+        }
+      }
+    }
+
+    boolean generate = dynamic || preference(prefer, "dynamic").equals("true");
+    OpenApiSpec.Response response = operation.success();
+    String code = preference(prefer, "code");
+    if (!code.isEmpty()) {
+      if (!code.matches("[1-5]\\d\\d")) {
+        return invalid(operation, "Prefer: code must be an HTTP status code, got " + code);
+      }
+      response = operation.responses().get(Integer.parseInt(code));
+      if (response == null) {
+        return error(500, "NO_RESPONSE_DEFINED", operation.method() + " " + operation.template()
+            + " declares no " + code + " response");
+      }
+    }
+    return new Reply(response.status(), headers(response, generate), body(response, input, generate));
+  }
+
+  private byte[] body(OpenApiSpec.Response response, JsonNode input, boolean generate) {
+    if (response.schema().isMissingNode() && response.example() == null) {
+      return EMPTY;
+    }
+    boolean echo = input != null && input.isObject() && response.status() < 300
+        && response.schema().path("properties").isObject();
+    if (!generate && !echo && response.example() != null) {
+      return examples.get(response);
+    }
+    JsonNode value = !generate && response.example() != null
+        ? response.example().deepCopy()
+        : OpenApiSchemas.generate(response.schema(), generate);
+    if (echo && value.isObject()) {
+      ObjectNode object = (ObjectNode) value;
+      response.schema().get("properties").fields().forEachRemaining(property -> {
+        JsonNode sent = input.get(property.getKey());
+        if (sent != null && OpenApiSchemas.validate(property.getValue(), sent, property.getKey()) == null) {
+          object.set(property.getKey(), sent);
+        }
+      });
+    }
+    return bytes(value);
+  }
+
+  private static Map<String, String> headers(OpenApiSpec.Response response, boolean generate) {
+    Map<String, String> headers = new LinkedHashMap<>();
+    if (!response.schema().isMissingNode() || response.example() != null) {
+      headers.put(HttpHeaderNames.CONTENT_TYPE.toString(), "application/json");
+    }
+    response.headers().forEach((name, header) ->
+        headers.put(name, OpenApiSchemas.generate(header.path("schema"), generate).asText()));
+    return headers;
+  }
+
+  private Reply invalid(OpenApiSpec.Operation operation, String violation) {
+    OpenApiSpec.Response declared = operation.responses().get(400);
+    Reply reply = declared == null
+        ? error(400, "BAD_REQUEST", violation)
+        : new Reply(400, headers(declared, false), body(declared, null, false));
+    Map<String, String> headers = new LinkedHashMap<>(reply.headers());
+    headers.put("X-Mock-Violation", violation);
+    return new Reply(400, headers, reply.body());
+  }
+
+  private static Reply error(int status, String code, String message) {
+    ObjectNode body = JSON.createObjectNode().put("code", code).put("message", message);
+    return new Reply(status, Map.of(HttpHeaderNames.CONTENT_TYPE.toString(), "application/json"), bytes(body));
+  }
+
+  private static String preference(String prefer, String key) {
+    if (prefer != null) {
+      for (String part : prefer.split("[,;]")) {
+        String[] pair = part.trim().split("=", 2);
+        if (pair.length == 2 && pair[0].equals(key)) {
+          return pair[1].trim();
+        }
+      }
+    }
+    return "";
+  }
+
+  private static byte[] bytes(JsonNode value) {
+    try {
+      return JSON.writeValueAsString(value).getBytes(StandardCharsets.UTF_8);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
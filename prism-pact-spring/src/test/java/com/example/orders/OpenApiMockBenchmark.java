@@ -0,0 +1,72 @@
+package com.example.orders;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Start-up time and request throughput of {@link OpenApiMock}, the in-JVM stand-in for Prism.
+ * Run on demand: {@code mvn test -Dtest=OpenApiMockBenchmark}.
+ */
+@Isolated // asserts startup time and a minimum request rate
+public class OpenApiMockBenchmark {
+
+  private static final int REQUESTS = 20_000;
+  private static final int CONCURRENCY = 32;
+
+  @Test
+  void startsInMillisecondsAndServesThousandsOfRequestsPerSecond() {
+    long cold = System.nanoTime();
+    OpenApiMock.start(Path.of("openapi/orders.yaml"), false, 0).close(); // loads Netty, Jackson, the spec
+    double coldMs = (System.nanoTime() - cold) / 1e6;
+
+    long start = System.nanoTime();
+    try (OpenApiMock mock = OpenApiMock.start(Path.of("openapi/orders.yaml"), false, 0)) {
+      double startupMs = (System.nanoTime() - start) / 1e6;
+      HttpClient http = HttpClient.create().baseUrl(mock.baseUrl());
+
+      run(http, REQUESTS / 4); // warm-up
+      long begin = System.nanoTime();
+      long ok = run(http, REQUESTS);
+      double seconds = (System.nanoTime() - begin) / 1e9;
+
+      System.out.printf("OpenApiMock: started in %.1f ms (%.0f ms cold), %d requests at %.0f req/s (concurrency %d)%n",
+          startupMs, coldMs, REQUESTS, REQUESTS / seconds, CONCURRENCY);
+      assertThat(ok).isEqualTo(REQUESTS);
+      assertThat(startupMs).isLessThan(500);
+      assertThat(REQUESTS / seconds).isGreaterThan(500);
+    }
+  }
+
+  // mix of the suite's traffic: reads, a validated write and a rejected write
+  private static long run(HttpClient http, int requests) {
+    return Flux.range(0, requests)
+        .flatMap(i -> switch (i % 4) {
+          case 0 -> status(http.get().uri("/orders?status=NEW"), 200);
+          case 1 -> status(http.get().uri("/orders/" + i), 200);
+          case 2 -> status(post(http, "{\"customerName\":\"Bob\",\"items\":[{\"sku\":\"S\",\"qty\":1,\"unitPrice\":1.0}]}"), 201);
+          default -> status(post(http, "{\"customerName\":\"Bob\"}"), 400);
+        }, CONCURRENCY)
+        .filter(Boolean::booleanValue)
+        .count()
+        .block();
+  }
+
+  private static HttpClient.ResponseReceiver<?> post(HttpClient http, String body) {
+    return http.headers(h -> h.set("Content-Type", "application/json"))
+        .post().uri("/orders")
+        .send(Mono.fromSupplier(() -> Unpooled.wrappedBuffer(body.getBytes(StandardCharsets.UTF_8))));
+  }
+
+  private static Mono<Boolean> status(HttpClient.ResponseReceiver<?> request, int expected) {
+    return request.responseSingle((response, body) -> body.then(Mono.just(response.status().code() == expected)));
+  }
+}
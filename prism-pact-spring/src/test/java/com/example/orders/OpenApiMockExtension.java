@@ -0,0 +1,50 @@
+package com.example.orders;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.nio.file.Path;
+
+/**
+ * Starts an {@link OpenApiMock} on a free port before a test class and stops it afterwards:
+ * <pre>{@code
+ * @RegisterExtension
+ * static OpenApiMockExtension mock = new OpenApiMockExtension(Path.of("openapi/orders.yaml"));
+ * }</pre>
+ * The spec is parsed once per JVM, so each class pays only for binding the port.
+ */
+class OpenApiMockExtension implements BeforeAllCallback, AfterAllCallback {
+
+  private final Path spec;
+  private boolean dynamic;
+  private OpenApiMock mock;
+
+  OpenApiMockExtension(Path spec) {
+    this.spec = spec;
+  }
+
+  /** Generate every response body from its schema with random values, like {@code prism mock --dynamic}. */
+  OpenApiMockExtension dynamic() {
+    this.dynamic = true;
+    return this;
+  }
+
+  String baseUrl() {
+    if (mock == null) {
+      throw new IllegalStateException("OpenApiMock is not running; register the extension as a static field");
+    }
+    return mock.baseUrl();
+  }
+
+  @Override
+  public void beforeAll(ExtensionContext context) {
+    mock = OpenApiMock.start(spec, dynamic, 0);
+  }
+
+  @Override
+  public void afterAll(ExtensionContext context) {
+    mock.close();
+    mock = null;
+  }
+}
@@ -0,0 +1,170 @@
+package com.example.orders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The subset of OpenAPI 3.0 schema semantics the orders spec uses: {@code type}, {@code required},
+ * {@code properties}, {@code items}, {@code enum}, {@code minimum}/{@code maximum}, {@code example}
+ * and {@code default}. Schemas must already have their {@code $ref}s inlined.
+ */
+final class OpenApiSchemas {
+
+  private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+  private static final String[] WORDS = {"Alice", "Bob", "Carol", "Dave", "Erin", "Frank"};
+
+  private OpenApiSchemas() {
+  }
+
+  /** Returns the first violation as {@code "<pointer>: <problem>"}, or {@code null} if valid. */
+  static String validate(JsonNode schema, JsonNode value, String pointer) {
+    if (schema == null || schema.isMissingNode() || schema.isEmpty()) {
+      return null;
+    }
+    if (value.isNull()) {
+      return schema.path("nullable").asBoolean() ? null : pointer + ": must not be null";
+    }
+    String type = schema.path("type").asText("");
+    String typeError = switch (type) {
+      case "object" -> value.isObject() ? null : "expected object";
+      case "array" -> value.isArray() ? null : "expected array";
+      case "string" -> value.isTextual() ? null : "expected string";
+      case "integer" -> value.isIntegralNumber() ? null : "expected integer";
+      case "number" -> value.isNumber() ? null : "expected number";
+      case "boolean" -> value.isBoolean() ? null : "expected boolean";
+      default -> null;
+    };
+    if (typeError != null) {
+      return pointer + ": " + typeError;
+    }
+    if (schema.has("enum") && !contains(schema.get("enum"), value)) {
+      return pointer + ": " + value + " is not one of " + schema.get("enum");
+    }
+    if (value.isNumber()) {
+      if (schema.has("minimum") && value.asDouble() < schema.get("minimum").asDouble()) {
+        return pointer + ": below minimum " + schema.get("minimum");
+      }
+      if (schema.has("maximum") && value.asDouble() > schema.get("maximum").asDouble()) {
+        return pointer + ": above maximum " + schema.get("maximum");
+      }
+    }
+    if (value.isObject()) {
+      for (JsonNode required : schema.path("required")) {
+        if (!value.has(required.asText())) {
+          return pointer + "/" + required.asText() + ": is required";
+        }
+      }
+      Iterator<Map.Entry<String, JsonNode>> properties = schema.path("properties").fields();
+      while (properties.hasNext()) {
+        Map.Entry<String, JsonNode> property = properties.next();
+        if (value.has(property.getKey())) {
+          String error = validate(property.getValue(), value.get(property.getKey()), pointer + "/" + property.getKey());
+          if (error != null) {
+            return error;
+          }
+        }
+      }
+    }
+    if (value.isArray()) {
+      for (int i = 0; i < value.size(); i++) {
+        String error = validate(schema.path("items"), value.get(i), pointer + "/" + i);
+        if (error != null) {
+          return error;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Validates a query or path parameter, which arrives as text, by coercing it to the schema's
+   * type first.
+   */
+  static String validateText(JsonNode schema, String text, String name) {
+    JsonNode value;
+    switch (schema.path("type").asText("string")) {
+      case "integer" -> {
+        try {
+          value = NODES.numberNode(Long.parseLong(text));
+        } catch (NumberFormatException e) {
+          return name + ": expected integer";
+        }
+      }
+      case "number" -> {
+        try {
+          value = NODES.numberNode(Double.parseDouble(text));
+        } catch (NumberFormatException e) {
+          return name + ": expected number";
+        }
+      }
+      case "boolean" -> {
+        if (!text.equals("true") && !text.equals("false")) {
+          return name + ": expected boolean";
+        }
+        value = NODES.booleanNode(Boolean.parseBoolean(text));
+      }
+      default -> value = TextNode.valueOf(text);
+    }
+    return validate(schema, value, name);
+  }
+
+  /**
+   * A value conforming to {@code schema}. Static generation is deterministic: {@code example},
+   * {@code default}, the first enum value, or a type placeholder, like Prism's static mode.
+   * Dynamic generation picks random values, like Prism's {@code --dynamic}.
+   */
+  static JsonNode generate(JsonNode schema, boolean dynamic) {
+    if (schema == null || schema.isMissingNode()) {
+      return NODES.nullNode();
+    }
+    if (!dynamic && schema.has("example")) {
+      return schema.get("example");
+    }
+    if (!dynamic && schema.has("default")) {
+      return schema.get("default");
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    if (schema.has("enum") && !schema.get("enum").isEmpty()) {
+      JsonNode values = schema.get("enum");
+      return values.get(dynamic ? random.nextInt(values.size()) : 0);
+    }
+    double minimum = schema.path("minimum").asDouble(0);
+    double maximum = schema.path("maximum").asDouble(minimum + 1000);
+    return switch (schema.path("type").asText(schema.has("properties") ? "object" : "string")) {
+      case "object" -> {
+        ObjectNode object = NODES.objectNode();
+        schema.path("properties").fields().forEachRemaining(p -> object.set(p.getKey(), generate(p.getValue(), dynamic)));
+        yield object;
+      }
+      case "array" -> {
+        ArrayNode array = NODES.arrayNode();
+        int size = dynamic ? 1 + random.nextInt(3) : 1;
+        for (int i = 0; i < size; i++) {
+          array.add(generate(schema.path("items"), dynamic));
+        }
+        yield array;
+      }
+      case "integer" -> NODES.numberNode(dynamic ? random.nextLong((long) minimum, (long) maximum + 1) : (long) minimum);
+      case "number" -> NODES.numberNode(dynamic
+          ? Math.round(random.nextDouble(minimum, maximum) * 100) / 100.0 : minimum);
+      case "boolean" -> NODES.booleanNode(!dynamic || random.nextBoolean());
+      default -> TextNode.valueOf(dynamic ? WORDS[random.nextInt(WORDS.length)] : "string");
+    };
+  }
+
+  private static boolean contains(JsonNode values, JsonNode value) {
+    for (JsonNode candidate : values) {
+      if (candidate.equals(value) || (candidate.isNumber() && value.isNumber() && candidate.asDouble() == value.asDouble())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,154 @@
+package com.example.orders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The parts of an OpenAPI 3.0 document {@link OpenApiMock} needs: operations keyed by method and
+ * path template, with parameters, request body and responses, all {@code $ref}s inlined.
+ * Parsed once per file and per JVM.
+ */
+final class OpenApiSpec {
+
+  record Parameter(String name, String in, boolean required, JsonNode schema) {
+  }
+
+  /** A declared response: {@code example} is the first declared example, or {@code null}. */
+  record Response(int status, JsonNode schema, JsonNode example, Map<String, JsonNode> headers) {
+  }
+
+  record Operation(String method, String template, Pattern path, List<String> pathNames, List<Parameter> parameters,
+      JsonNode requestSchema, boolean requestRequired, Map<Integer, Response> responses) {
+
+    /** The lowest declared 2xx, which is what a mock answers with by default. */
+    Response success() {
+      return responses.values().stream()
+          .filter(r -> r.status() >= 200 && r.status() < 300)
+          .findFirst()
+          .orElseThrow(() -> new IllegalStateException(method + " " + template + " declares no 2xx response"));
+    }
+  }
+
+  private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory());
+  private static final Map<Path, OpenApiSpec> PARSED = new ConcurrentHashMap<>();
+  private static final Pattern VARIABLE = Pattern.compile("\\{([^/}]+)}");
+  private static final int MAX_REF_DEPTH = 32;
+
+  private final JsonNode root;
+  private final List<Operation> operations = new ArrayList<>();
+
+  private OpenApiSpec(JsonNode root) {
+    this.root = root;
+    root.path("paths").fields().forEachRemaining(path -> path.getValue().fields().forEachRemaining(op -> {
+      if (!op.getKey().equals("parameters")) {
+        operations.add(operation(op.getKey().toUpperCase(), path.getKey(), path.getValue(), op.getValue()));
+      }
+    }));
+    // literal paths before templated ones, so /orders/new would win over /orders/{id}
+    operations.sort(Comparator.comparingInt((Operation o) -> o.pathNames().size()));
+  }
+
+  static OpenApiSpec load(Path file) {
+    return PARSED.computeIfAbsent(file.toAbsolutePath().normalize(), path -> {
+      try {
+        return new OpenApiSpec(YAML.readTree(path.toFile()));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot read OpenAPI document " + path, e);
+      }
+    });
+  }
+
+  List<Operation> operations() {
+    return operations;
+  }
+
+  private Operation operation(String method, String template, JsonNode pathItem, JsonNode node) {
+    List<String> names = new ArrayList<>();
+    Matcher variables = VARIABLE.matcher(template);
+    StringBuilder regex = new StringBuilder();
+    int last = 0;
+    while (variables.find()) {
+      regex.append(Pattern.quote(template.substring(last, variables.start()))).append("([^/]+)");
+      names.add(variables.group(1));
+      last = variables.end();
+    }
+    regex.append(Pattern.quote(template.substring(last)));
+
+    List<Parameter> parameters = new ArrayList<>();
+    for (JsonNode declared : List.of(pathItem.path("parameters"), node.path("parameters"))) {
+      for (JsonNode p : declared) {
+        JsonNode parameter = resolve(p, 0);
+        parameters.add(new Parameter(parameter.path("name").asText(), parameter.path("in").asText(),
+            parameter.path("required").asBoolean(parameter.path("in").asText().equals("path")),
+            resolve(parameter.path("schema"), 0)));
+      }
+    }
+
+    JsonNode body = resolve(node.path("requestBody"), 0);
+    JsonNode requestSchema = body.path("content").path("application/json").path("schema");
+
+    Map<Integer, Response> responses = new TreeMap<>();
+    node.path("responses").fields().forEachRemaining(entry -> {
+      if (entry.getKey().matches("\\d{3}")) {
+        JsonNode response = resolve(entry.getValue(), 0);
+        JsonNode json = response.path("content").path("application/json");
+        Map<String, JsonNode> headers = new LinkedHashMap<>();
+        response.path("headers").fields().forEachRemaining(h -> headers.put(h.getKey(), resolve(h.getValue(), 0)));
+        responses.put(Integer.parseInt(entry.getKey()), new Response(Integer.parseInt(entry.getKey()),
+            resolve(json.path("schema"), 0), firstExample(json), headers));
+      }
+    });
+    return new Operation(method, template, Pattern.compile(regex.toString()), List.copyOf(names),
+        List.copyOf(parameters), requestSchema.isMissingNode() ? null : resolve(requestSchema, 0),
+        body.path("required").asBoolean(false), responses);
+  }
+
+  private static JsonNode firstExample(JsonNode content) {
+    if (content.has("example")) {
+      return content.get("example");
+    }
+    Iterator<JsonNode> examples = content.path("examples").elements();
+    return examples.hasNext() ? examples.next().path("value") : null;
+  }
+
+  /** Deep copy of {@code node} with every local {@code $ref} replaced by its target. */
+  private JsonNode resolve(JsonNode node, int depth) {
+    if (depth > MAX_REF_DEPTH) {
+      throw new IllegalStateException("$ref nesting deeper than " + MAX_REF_DEPTH + " (recursive schema?)");
+    }
+    if (node.isObject()) {
+      if (node.has("$ref")) {
+        String ref = node.get("$ref").asText();
+        if (!ref.startsWith("#/")) {
+          throw new IllegalStateException("Only local $refs are supported: " + ref);
+        }
+        return resolve(root.at(ref.substring(1)), depth + 1);
+      }
+      ObjectNode copy = YAML.createObjectNode();
+      node.fields().forEachRemaining(field -> copy.set(field.getKey(), resolve(field.getValue(), depth)));
+      return copy;
+    }
+    if (node.isArray()) {
+      var copy = YAML.createArrayNode();
+      node.forEach(element -> copy.add(resolve(element, depth)));
+      return copy;
+    }
+    return node;
+  }
+}
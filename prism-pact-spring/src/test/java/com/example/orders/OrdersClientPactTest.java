@@ -41,8 +41,7 @@ public class OrdersClientPactTest {
   @Test
   @PactTestFor(pactMethod = "pactListOrders", pactVersion = PactSpecVersion.V3)
   void testListOrders(MockServer server) {
-    System.setProperty("orders.baseUrl", server.getUrl());
-    OrdersClient client = new OrdersClient(WebClientConfig.builder());
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), server.getUrl());
     List<Map> orders = client.listOrders(null).block();
     assertThat(orders).isNotEmpty();
   }
@@ -66,12 +65,20 @@ public class OrdersClientPactTest {
   @Test
   @PactTestFor(pactMethod = "pactGetOrderOk", pactVersion = PactSpecVersion.V3)
   void testGetOrderOk(MockServer server) {
-    System.setProperty("orders.baseUrl", server.getUrl());
-    OrdersClient client = new OrdersClient(WebClientConfig.builder());
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), server.getUrl());
     Map order = client.getOrder(1).block();
     assertThat(order.get("id")).isEqualTo(1);
   }
 
+  @Test
+  @PactTestFor(pactMethod = "pactGetOrderOk", pactVersion = PactSpecVersion.V3)
+  void testFindOrderOk(MockServer server) {
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), server.getUrl());
+    Order order = client.findOrder(1).block();
+    assertThat(order.id()).isEqualTo(1L);
+    assertThat(order.status()).isEqualTo(Order.Status.PROCESSING);
+  }
+
   @Pact(consumer = "OrdersConsumer")
   public RequestResponsePact pactGetOrderNotFound(PactDslWithProvider builder) {
     return builder
@@ -89,8 +96,7 @@ public class OrdersClientPactTest {
   @Test
   @PactTestFor(pactMethod = "pactGetOrderNotFound", pactVersion = PactSpecVersion.V3)
   void testGetOrderNotFound(MockServer server) {
-    System.setProperty("orders.baseUrl", server.getUrl());
-    OrdersClient client = new OrdersClient(WebClientConfig.builder());
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), server.getUrl());
     assertThrows(Exception.class, () -> client.getOrder(9999).block());
   }
 
@@ -121,8 +127,7 @@ public class OrdersClientPactTest {
   @Test
   @PactTestFor(pactMethod = "pactCreateOrder201", pactVersion = PactSpecVersion.V3)
   void testCreateOrder201(MockServer server) {
-    System.setProperty("orders.baseUrl", server.getUrl());
-    OrdersClient client = new OrdersClient(WebClientConfig.builder());
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), server.getUrl());
     Map body = Map.of("customerName","Bob",
                       "items", List.of(Map.of("sku","SKU1","qty",2,"unitPrice",50.0)));
     Map created = client.createOrder(body).block();
@@ -150,8 +155,7 @@ public class OrdersClientPactTest {
   @Test
   @PactTestFor(pactMethod = "pactPutOrder409", pactVersion = PactSpecVersion.V3)
   void testPutOrder409(MockServer server) {
-    System.setProperty("orders.baseUrl", server.getUrl());
-    OrdersClient client = new OrdersClient(WebClientConfig.builder());
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), server.getUrl());
     assertThrows(Exception.class, () -> client.putOrder(2, Map.of("customerName","X","status","PROCESSING")).block());
   }
 
@@ -176,12 +180,19 @@ public class OrdersClientPactTest {
   @Test
   @PactTestFor(pactMethod = "pactPatchOrder200", pactVersion = PactSpecVersion.V3)
   void testPatchOrder200(MockServer server) {
-    System.setProperty("orders.baseUrl", server.getUrl());
-    OrdersClient client = new OrdersClient(WebClientConfig.builder());
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), server.getUrl());
     Map resp = client.patchOrder(1, Map.of("status","COMPLETED")).block();
     assertThat(resp.get("status")).isEqualTo("COMPLETED");
   }
 
+  @Test
+  @PactTestFor(pactMethod = "pactPatchOrder200", pactVersion = PactSpecVersion.V3)
+  void testPatchOrderTyped200(MockServer server) {
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), server.getUrl());
+    Order resp = client.patchOrder(1, OrderUpdate.status(Order.Status.COMPLETED)).block();
+    assertThat(resp.status()).isEqualTo(Order.Status.COMPLETED);
+  }
+
   @Pact(consumer = "OrdersConsumer")
   public RequestResponsePact pactDelete204(PactDslWithProvider builder) {
     return builder
@@ -195,8 +206,7 @@ public class OrdersClientPactTest {
   @Test
   @PactTestFor(pactMethod = "pactDelete204", pactVersion = PactSpecVersion.V3)
   void testDelete204(MockServer server) {
-    System.setProperty("orders.baseUrl", server.getUrl());
-    OrdersClient client = new OrdersClient(WebClientConfig.builder());
+    OrdersClient client = new OrdersClient(WebClientConfig.builder(), server.getUrl());
     client.deleteOrder(3).block();
   }
 }
@@ -2,7 +2,11 @@ package com.example.orders;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
@@ -11,12 +15,15 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class OrdersClientPrismIT {
 
+    @RegisterExtension
+    static OpenApiMockExtension mock = new OpenApiMockExtension(Path.of("openapi/orders.yaml"));
+
     static OrdersClient client;
 
     @BeforeAll
     static void setup() {
-        System.setProperty("orders.baseUrl", "http://localhost:4010"); // Prism must be running
-        client = new OrdersClient(WebClientConfig.builder());
+        // in-JVM mock by default; -Dorders.baseUrl=http://localhost:4010 runs the suite against a real Prism
+        client = new OrdersClient(WebClientConfig.builder(), System.getProperty("orders.baseUrl", mock.baseUrl()));
     }
 
     // --- GET /orders ---
@@ -36,6 +43,12 @@ public class OrdersClientPrismIT {
         Map order = client.getOrder(1).block();
         assertThat(order.get("id")).isNotNull();
     }
+
+    @Test
+    void findOrder_OK() {
+        Order order = client.findOrder(1).block();
+        assertThat(order.status()).isNotNull();
+    }
     // Prism cannot infer 404 → removed getOrder_404
 
     // --- POST /orders ---
@@ -54,6 +67,12 @@ public class OrdersClientPrismIT {
         Map invalidBody = Map.of("customerName", "Bob");
         assertThrows(Exception.class, () -> client.createOrder(invalidBody).block());
     }
+
+    @Test
+    void createOrder_Typed_201() {
+        OrderCreate body = new OrderCreate("Bob", List.of(new Item("SKU1", 2, 50.0)));
+        assertThat(client.createOrder(body).block().customerName()).isNotNull();
+    }
     // Prism does not provide 409 → removed createOrder_409
 
     // --- PUT /orders/{id} ---
@@ -84,4 +103,16 @@ public class OrdersClientPrismIT {
         client.deleteOrder(3).block();
     }
     // Prism does not do 404 or 409 for DELETE → removed
+
+    // --- in-JVM mock only ---
+    @Test
+    void malformedPreferCode_400_withViolation() {
+        ResponseEntity<Void> response = WebClient.create(mock.baseUrl()).get()
+                .uri("/orders/1")
+                .header("Prefer", "code=abc")
+                .exchangeToMono(r -> r.toBodilessEntity())
+                .block();
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+        assertThat(response.getHeaders().getFirst("X-Mock-Violation")).contains("Prefer: code");
+    }
 }
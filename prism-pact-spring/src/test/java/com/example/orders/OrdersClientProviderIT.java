@@ -0,0 +1,148 @@
+package com.example.orders;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The 404 and 409 paths that Prism cannot produce, against {@link InMemoryOrdersProvider}.
+ */
+public class OrdersClientProviderIT {
+
+  @RegisterExtension
+  static InMemoryOrdersProvider provider = new InMemoryOrdersProvider();
+
+  private static OrdersClient client() {
+    return new OrdersClient(WebClientConfig.builder(), provider.baseUrl());
+  }
+
+  @Test
+  void createOrder_computesTotalAndIsReadable() {
+    OrdersClient client = client();
+    Order created = client.createOrder(new OrderCreate("Bob", List.of(new Item("SKU1", 2, 50.0), new Item("SKU2", 1, 0.5)))).block();
+
+    assertThat(created.status()).isEqualTo(Order.Status.NEW);
+    assertThat(created.totalAmount()).isEqualTo(100.5);
+    assertThat(client.findOrder(created.id()).block()).isEqualTo(created);
+    assertThat(client.findOrders("NEW").block()).contains(created);
+  }
+
+  @Test
+  void createOrder_400_missingItems() {
+    var ex = assertThrows(WebClientResponseException.BadRequest.class,
+        () -> client().createOrder(Map.of("customerName", "Bob")).block());
+    assertThat(ApiError.from(ex).code()).isEqualTo("BAD_REQUEST");
+  }
+
+  @Test
+  void getOrder_404_unknownId() {
+    var ex = assertThrows(WebClientResponseException.NotFound.class, () -> client().findOrder(999_999).block());
+    assertThat(ApiError.from(ex).code()).isEqualTo("NOT_FOUND");
+  }
+
+  @Test
+  void deleteOrder_thenGetPutPatchDelete_404() {
+    OrdersClient client = client();
+    long id = provider.create(new OrderCreate("Carol", List.of(new Item("SKU1", 1, 10.0)))).id();
+
+    client.deleteOrder(id).block();
+
+    assertThrows(WebClientResponseException.NotFound.class, () -> client.findOrder(id).block());
+    assertThrows(WebClientResponseException.NotFound.class, () -> client.putOrder(id, OrderUpdate.status(Order.Status.NEW)).block());
+    assertThrows(WebClientResponseException.NotFound.class, () -> client.patchOrder(id, OrderUpdate.status(Order.Status.NEW)).block());
+    assertThrows(WebClientResponseException.NotFound.class, () -> client.deleteOrder(id).block());
+  }
+
+  @Test
+  void patchOrder_appliesFieldsAndBumpsVersion() {
+    long id = provider.create(new OrderCreate("Dave", List.of(new Item("SKU1", 3, 1.0)))).id();
+
+    Order patched = client().patchOrder(id, OrderUpdate.status(Order.Status.PROCESSING)).block();
+
+    assertThat(patched).isEqualTo(new Order(id, "Dave", Order.Status.PROCESSING, 3.0));
+    assertThat(client().findOrderEntity(id).block().getHeaders().getETag()).isEqualTo("\"2\"");
+  }
+
+  @Test
+  void conditionalWrites_409_staleIfMatch() {
+    OrdersClient client = client();
+    long id = provider.create(new OrderCreate("Erin", List.of(new Item("SKU1", 1, 1.0)))).id();
+    String read = client.findOrderEntity(id).block().getHeaders().getETag();
+    ResponseEntity<Order> patched = client.patchOrder(id, OrderUpdate.status(Order.Status.PROCESSING), read).block();
+    assertThat(patched.getHeaders().getETag()).isEqualTo("\"2\"");
+
+    var ex = assertThrows(WebClientResponseException.Conflict.class,
+        () -> client.putOrder(id, OrderUpdate.status(Order.Status.CANCELLED), read).block());
+    assertThrows(WebClientResponseException.Conflict.class, () -> client.deleteOrder(id, read).block());
+
+    assertThat(ApiError.from(ex).code()).isEqualTo("CONFLICT");
+    assertThat(client.findOrder(id).block().status()).isEqualTo(Order.Status.PROCESSING);
+    client.deleteOrder(id, patched.getHeaders().getETag()).block();
+    assertThrows(WebClientResponseException.NotFound.class, () -> client.findOrder(id).block());
+  }
+
+  @Test
+  void concurrentWritesOfOneVersion_exactlyOneWins() {
+    OrdersClient client = client();
+    long id = provider.create(new OrderCreate("Frank", List.of(new Item("SKU1", 1, 1.0)))).id();
+    String read = client.findOrderEntity(id).block().getHeaders().getETag();
+
+    List<HttpStatus> statuses = Flux.range(0, 32)
+        .flatMap(i -> client.patchOrder(id, new OrderUpdate("writer-" + i, null), read)
+            .map(response -> HttpStatus.OK)
+            .onErrorResume(WebClientResponseException.Conflict.class, ex -> Mono.just(HttpStatus.CONFLICT)), 32)
+        .collectList()
+        .block();
+
+    assertThat(statuses).containsOnly(HttpStatus.OK, HttpStatus.CONFLICT);
+    assertThat(statuses).filteredOn(HttpStatus.OK::equals).hasSize(1);
+  }
+
+  @Test
+  void concurrentUnconditionalWrites_lastWriteWins() {
+    OrdersClient client = client();
+    long id = provider.create(new OrderCreate("Grace", List.of(new Item("SKU1", 1, 1.0)))).id();
+    int writers = 32;
+
+    List<Order> written = Flux.range(0, writers)
+        .flatMap(i -> client.patchOrder(id, new OrderUpdate("writer-" + i, null)), writers)
+        .collectList()
+        .block(); // a 409 would fail the block
+
+    assertThat(written).hasSize(writers);
+    ResponseEntity<Order> last = client.findOrderEntity(id).block();
+    assertThat(last.getHeaders().getETag()).isEqualTo("\"" + (writers + 1) + "\"");
+    assertThat(written).extracting(Order::customerName).contains(last.getBody().customerName());
+  }
+
+  @Test
+  void mixedLoad_keepsStoreConsistent() {
+    OrdersClient client = client();
+    long before = provider.size();
+    int operations = 2_000;
+
+    long deleted = Flux.range(0, operations)
+        .flatMap(i -> client.createOrder(new OrderCreate("load-" + i, List.of(new Item("SKU", 1 + i % 5, 2.0))))
+            .flatMap(order -> switch (ThreadLocalRandom.current().nextInt(4)) {
+              case 0 -> client.deleteOrder(order.id()).thenReturn(1L);
+              case 1 -> client.patchOrder(order.id(), OrderUpdate.status(Order.Status.COMPLETED)).thenReturn(0L);
+              default -> client.findOrder(order.id()).thenReturn(0L);
+            }), 64)
+        .reduce(0L, Long::sum)
+        .block();
+
+    assertThat(provider.size()).isEqualTo(before + operations - deleted);
+    assertThat(client.findOrders(null).block()).hasSize((int) provider.size());
+  }
+}